@@ -2,12 +2,19 @@ package com.sk.skala.stockapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+import com.sk.skala.stockapi.config.StartupTimeline;
 
 @SpringBootApplication
 public class SkalaStockApiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SkalaStockApiApplication.class, args);
+		SpringApplication application = new SpringApplication(SkalaStockApiApplication.class);
+		// /actuator/startup (단계별 상세), /actuator/startuptimeline (단계별 경과 시간)
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.addListeners(StartupTimeline.getInstance());
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,117 @@
+package com.sk.skala.stockapi.aop;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sk.skala.stockapi.config.BulkheadRoutingDataSource;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.tools.Bulkhead;
+import com.sk.skala.stockapi.tools.JsonTool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * endpoint class(trading, reads, admin, actuator) 별 bulkhead
+ * 요청 경로로 class 를 정하고, class 의 동시 실행 수/대기열/대기 시간 안에서만 처리한다.
+ * 처리 중에는 같은 class 의 connection pool 을 사용하도록 BulkheadRoutingDataSource 에 표시한다.
+ */
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+	private static final String REJECTED_BODY = JsonTool.toString(Response.builder()
+			.result(0)
+			.code(Error.SERVICE_BUSY.getCode())
+			.message(Error.SERVICE_BUSY.getMessage())
+			.build());
+
+	public record Route(Bulkhead bulkhead, List<String> paths, Counter rejected, Timer waitTimer) {
+	}
+
+	private final List<Route> routes;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	public BulkheadFilter(List<Route> routes) {
+		this.routes = routes;
+	}
+
+	public static Route route(Bulkhead bulkhead, List<String> paths, MeterRegistry meterRegistry) {
+		String name = bulkhead.getName();
+		meterRegistry.gauge("skala.bulkhead.active", List.of(Tag.of("bulkhead", name)),
+				bulkhead, Bulkhead::getActive);
+		meterRegistry.gauge("skala.bulkhead.queued", List.of(Tag.of("bulkhead", name)),
+				bulkhead, Bulkhead::getQueued);
+		meterRegistry.gauge("skala.bulkhead.saturation", List.of(Tag.of("bulkhead", name)), bulkhead,
+				b -> (double) b.getActive() / b.getMaxConcurrent());
+		return new Route(bulkhead, paths,
+				Counter.builder("skala.bulkhead.rejected").tag("bulkhead", name).register(meterRegistry),
+				Timer.builder("skala.bulkhead.wait").tag("bulkhead", name).register(meterRegistry));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		Route route = resolve(request);
+		if (route == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		Bulkhead bulkhead = route.bulkhead();
+		long startedAt = System.nanoTime();
+		boolean acquired;
+		try {
+			acquired = bulkhead.tryAcquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		route.waitTimer().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+		if (!acquired) {
+			route.rejected().increment();
+			log.debug("BulkheadFilter: {} rejected {}", bulkhead.getName(), request.getRequestURI());
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+			response.getWriter().write(REJECTED_BODY);
+			return;
+		}
+
+		BulkheadRoutingDataSource.use(bulkhead.getName());
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			BulkheadRoutingDataSource.clear();
+			bulkhead.release();
+		}
+	}
+
+	// 설정 순서대로 처음 일치하는 class
+	private Route resolve(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		for (Route route : routes) {
+			for (String pattern : route.paths()) {
+				if (pathMatcher.match(pattern, path)) {
+					return route;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -16,6 +16,7 @@ import com.sk.skala.stockapi.data.common.ApiLog;
 import com.sk.skala.stockapi.data.common.Response;
 import com.sk.skala.stockapi.tools.HostInfo;
 import com.sk.skala.stockapi.tools.JsonTool;
+import com.sk.skala.stockapi.tools.SqlCounter;
 import com.sk.skala.stockapi.tools.StringTool;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -77,6 +78,12 @@ public class LoggingAspect {
 			throw e;
 		} finally {
 			apiLog.setElapsedTime(System.currentTimeMillis() - apiLog.getTimestamp());
+			SqlCounter sql = SqlCounter.current();
+			if (sql != null) {
+				apiLog.setSqlStatements(sql.getStatements());
+				apiLog.setSqlRows(sql.getRows());
+				apiLog.setSqlTime(sql.getNanos() / 1_000_000);
+			}
 			log.info("{}: {}", applicationProperties.getName(), JsonTool.toString(apiLog));
 		}
 	}
@@ -104,7 +111,7 @@ public class LoggingAspect {
 		return targetClass.getMethod(methodName, parameterTypes);
 	}
 
-	String getRemoteAddress(HttpServletRequest request) {
+	public static String getRemoteAddress(HttpServletRequest request) {
 		String address = request.getHeader("X-Forwarded-For");
 		if (StringTool.isEmpty(address)) {
 			return request.getRemoteAddr();
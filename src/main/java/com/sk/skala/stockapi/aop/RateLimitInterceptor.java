@@ -0,0 +1,125 @@
+package com.sk.skala.stockapi.aop;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Constant;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.tools.JsonTool;
+import com.sk.skala.stockapi.tools.JwtTool;
+import com.sk.skala.stockapi.tools.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * endpoint group 별 요청 수 제한 (WebConfig 에서 group 마다 하나씩 등록)
+ * bff-access JWT 의 playerId 또는 client 주소를 key 로 token bucket 을 적용하고,
+ * 초과 요청은 controller 에 도달하기 전에 429 와 Response envelope 으로 거절한다.
+ * client 주소는 trusted-proxies 에서 온 요청일 때만 X-Forwarded-For 를 따른다.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	private static final String REJECTED_BODY = JsonTool.toString(Response.builder()
+			.result(0)
+			.code(Error.TOO_MANY_REQUESTS.getCode())
+			.message(Error.TOO_MANY_REQUESTS.getMessage())
+			.build());
+
+	private final String group;
+	private final boolean playerKey;
+	private final Set<String> trustedProxies;
+	private final RateLimiter rateLimiter;
+	private final Counter admitted;
+	private final Counter rejected;
+
+	public RateLimitInterceptor(String group, ApplicationProperties.RateLimitGroup config,
+			ApplicationProperties.RateLimit rateLimit, MeterRegistry meterRegistry) {
+		this.group = group;
+		this.playerKey = "player".equalsIgnoreCase(config.getKey());
+		this.trustedProxies = Set.copyOf(rateLimit.getTrustedProxies());
+		this.rateLimiter = new RateLimiter(config.getPermitsPerSecond(), config.getBurst(), rateLimit.getMaxKeys());
+		this.admitted = Counter.builder("skala.ratelimit.requests").tag("group", group).tag("outcome", "admitted")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("skala.ratelimit.requests").tag("group", group).tag("outcome", "rejected")
+				.register(meterRegistry);
+		Gauge.builder("skala.ratelimit.keys", rateLimiter, RateLimiter::size).tag("group", group)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+		long wait = rateLimiter.tryAcquire(resolveKey(request));
+		if (wait == 0) {
+			admitted.increment();
+			return true;
+		}
+
+		rejected.increment();
+		log.debug("RateLimitInterceptor.preHandle: {} rejected {}", group, request.getRequestURI());
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.getWriter().write(REJECTED_BODY);
+		return false;
+	}
+
+	// 유효한 bff-access 토큰이 있으면 playerId, 없으면 client 주소
+	private String resolveKey(HttpServletRequest request) {
+		if (playerKey) {
+			Cookie[] cookies = request.getCookies();
+			if (cookies != null) {
+				for (Cookie cookie : cookies) {
+					if (Constant.JWT_ACCESS_COOKIE.equals(cookie.getName())) {
+						try {
+							String playerId = JwtTool.getValidId(cookie.getValue());
+							if (playerId != null) {
+								return "p:" + playerId;
+							}
+						} catch (RuntimeException e) {
+							// 잘못된 토큰은 client 주소로 제한한다. (세션 검증은 SessionHandler 에서 처리)
+						}
+						break;
+					}
+				}
+			}
+		}
+		return "a:" + clientAddress(request);
+	}
+
+	// 접속 주소가 trusted proxy 이면 X-Forwarded-For 를 오른쪽부터 읽어 처음 나오는 trusted 가 아닌 주소.
+	// (왼쪽 값은 client 가 임의로 넣을 수 있으므로 사용하지 않는다)
+	String clientAddress(HttpServletRequest request) {
+		String address = request.getRemoteAddr();
+		String forwarded = request.getHeader("X-Forwarded-For");
+		if (!trustedProxies.contains(address) || forwarded == null || forwarded.isBlank()) {
+			return address;
+		}
+		String[] values = forwarded.split(",");
+		for (int i = values.length - 1; i >= 0; i--) {
+			String value = values[i].trim();
+			if (!value.isEmpty()) {
+				address = value;
+				if (!trustedProxies.contains(value)) {
+					break;
+				}
+			}
+		}
+		return address;
+	}
+}
@@ -0,0 +1,17 @@
+package com.sk.skala.stockapi.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 key(value + 메서드 인자)로 동시에 들어온 호출은 먼저 시작한 호출 하나의 결과를 함께 사용한다.
+ * 결과를 보관하지 않으므로 완료 후의 호출은 다시 실행된다. (쓰기 후에는 SingleFlightRegistry.invalidate)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SingleFlight {
+	// key 이름 (비어 있으면 메서드 시그니처)
+	String value() default "";
+}
@@ -0,0 +1,27 @@
+package com.sk.skala.stockapi.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// @Transactional 보다 바깥에서 실행되어, 합류한 호출은 트랜잭션/쿼리를 만들지 않는다.
+// HIGHEST_PRECEDENCE 는 ExposeInvocationInterceptor 보다 앞서게 되어 annotation 인자를 bind 하지 못하므로 + 1.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+	private final SingleFlightRegistry singleFlightRegistry;
+
+	@Around("@annotation(singleFlight)")
+	public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+		String name = singleFlight.value().isEmpty() ? joinPoint.getSignature().toShortString()
+				: singleFlight.value();
+		return singleFlightRegistry.execute(name, joinPoint.getArgs(), joinPoint::proceed);
+	}
+}
@@ -0,0 +1,80 @@
+package com.sk.skala.stockapi.aop;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 진행 중인 호출(in-flight) 목록. 호출이 끝나면 바로 제거되므로 캐시가 아니다.
+ * 합류한 호출은 application.single-flight.timeout 까지만 기다리고, 지나면 직접 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlightRegistry {
+
+	private final MeterRegistry meterRegistry;
+	private final ApplicationProperties applicationProperties;
+
+	private final Map<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+	private record Key(String name, List<Object> args) {
+	}
+
+	public interface Call {
+		Object proceed() throws Throwable;
+	}
+
+	public Object execute(String name, Object[] args, Call call) throws Throwable {
+		Key key = new Key(name, Arrays.asList(args.clone()));
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> inflight = flights.putIfAbsent(key, mine);
+
+		if (inflight != null) {
+			try {
+				Object result = inflight.get(applicationProperties.getSingleFlight().getTimeout(), TimeUnit.MILLISECONDS);
+				meterRegistry.counter("skala.singleflight.calls", "name", name, "outcome", "coalesced").increment();
+				return result;
+			} catch (ExecutionException e) {
+				meterRegistry.counter("skala.singleflight.calls", "name", name, "outcome", "coalesced").increment();
+				throw e.getCause() == null ? e : e.getCause();
+			} catch (TimeoutException e) {
+				// 먼저 시작한 호출이 늘어지면 기다리지 않고 직접 실행한다. (다른 합류 호출은 계속 기다림)
+				meterRegistry.counter("skala.singleflight.calls", "name", name, "outcome", "timeout").increment();
+				return call.proceed();
+			}
+		}
+
+		meterRegistry.counter("skala.singleflight.calls", "name", name, "outcome", "leader").increment();
+		try {
+			Object result = call.proceed();
+			flights.remove(key, mine);
+			mine.complete(result);
+			return result;
+		} catch (Throwable t) {
+			flights.remove(key, mine);
+			mine.completeExceptionally(t);
+			throw t;
+		}
+	}
+
+	// 쓰기가 커밋된 뒤 호출해, 그 전에 시작된 호출에 새 요청이 합류하지 않도록 분리한다.
+	public void invalidate(String name, Object... args) {
+		flights.remove(new Key(name, Arrays.asList(args.clone())));
+	}
+
+	public void invalidateAll(String name) {
+		flights.keySet().removeIf(key -> key.name().equals(name));
+	}
+}
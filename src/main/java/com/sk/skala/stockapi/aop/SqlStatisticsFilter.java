@@ -0,0 +1,78 @@
+package com.sk.skala.stockapi.aop;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.tools.SqlCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청별 SQL 실행 수 / 행 수 / DB 시간 (application.sql-statistics)
+ * 요청 동안 SqlCounter 를 시작하고, 끝나면 controller method(handler) 태그로 histogram 에 기록한다.
+ * - skala.sql.statements, skala.sql.rows (DistributionSummary), skala.sql.time (Timer)
+ * handler 의 실행 수가 budget 을 넘으면 경고를 남기고, fail-on-budget 이면 예외로 요청을 실패시킨다. (테스트용)
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+	private final ApplicationProperties.SqlStatistics config;
+	private final MeterRegistry meterRegistry;
+
+	public SqlStatisticsFilter(ApplicationProperties.SqlStatistics config, MeterRegistry meterRegistry) {
+		this.config = config;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlCounter counter = SqlCounter.begin();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			SqlCounter.end();
+		}
+
+		String handler = handler(request);
+		DistributionSummary.builder("skala.sql.statements").tag("handler", handler).publishPercentileHistogram()
+				.register(meterRegistry).record(counter.getStatements());
+		DistributionSummary.builder("skala.sql.rows").tag("handler", handler).publishPercentileHistogram()
+				.register(meterRegistry).record(counter.getRows());
+		Timer.builder("skala.sql.time").tag("handler", handler).publishPercentileHistogram()
+				.register(meterRegistry).record(counter.getNanos(), TimeUnit.NANOSECONDS);
+
+		int budget = config.getBudgets().getOrDefault(handler, config.getDefaultBudget());
+		if (budget > 0 && counter.getStatements() > budget) {
+			Counter.builder("skala.sql.budget.exceeded").tag("handler", handler).register(meterRegistry).increment();
+			String message = handler + " executed " + counter.getStatements() + " SQL statements (budget " + budget
+					+ ", " + request.getMethod() + " " + request.getRequestURI() + ")";
+			if (config.isFailOnBudget()) {
+				throw new IllegalStateException(message);
+			}
+			log.warn("SqlStatisticsFilter: {}", message);
+		}
+	}
+
+	// "StockController.getStockById" (controller 가 아닌 요청은 "other")
+	private static String handler(HttpServletRequest request) {
+		Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+		if (handler instanceof HandlerMethod method) {
+			return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+		}
+		return "other";
+	}
+}
@@ -1,5 +1,10 @@
 package com.sk.skala.stockapi.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,10 +16,176 @@ import lombok.Data;
 public class ApplicationProperties {
 	private String name;
 	private Health health;
+	private Bulk bulk = new Bulk();
+	private Startup startup = new Startup();
+	private Id id = new Id();
+	private Money money = new Money();
+	private Holdings holdings = new Holdings();
+	private Snapshot snapshot = new Snapshot();
+	private RateLimit rateLimit = new RateLimit();
+	private Bulkheads bulkhead = new Bulkheads();
+	private Password password = new Password();
+	private ChangeLog changeLog = new ChangeLog();
+	private ConditionalOrders conditionalOrder = new ConditionalOrders();
+	private Risk risk = new Risk();
+	private PriceHistory priceHistory = new PriceHistory();
+	private BatchRead batchRead = new BatchRead();
+	private CorporateActions corporateAction = new CorporateActions();
+	private SqlStatistics sqlStatistics = new SqlStatistics();
+	private PortfolioView portfolioView = new PortfolioView();
+	private SingleFlights singleFlight = new SingleFlights();
 
 	@Data
 	public static class Health {
 		String url;
 		long timeout;
 	}
+
+	@Data
+	public static class Bulk {
+		int chunkSize = 1000;
+		int maxErrorsPerChunk = 20;
+	}
+
+	@Data
+	public static class Startup {
+		boolean seedData = true;
+		boolean migrateSchema = true;
+		boolean exitAfterReady = false;
+	}
+
+	@Data
+	public static class Money {
+		int scale = 2;
+	}
+
+	@Data
+	public static class Holdings {
+		boolean inMemory = false;
+		long flushInterval = 500;
+		int flushBatchSize = 500;
+		int denseStockIdLimit = 64;
+	}
+
+	@Data
+	public static class Snapshot {
+		boolean enabled = false;
+		String path = "./skala-stock.snapshot";
+		long interval = 60000;
+		long reconcileWindow = 60000;
+		int mapWindowSize = 64 * 1024 * 1024;
+	}
+
+	@Data
+	public static class RateLimit {
+		boolean enabled = true;
+		int maxKeys = 100000;
+		List<String> trustedProxies = new ArrayList<>(); // X-Forwarded-For 를 믿을 proxy 주소 (비어 있으면 사용하지 않음)
+		Map<String, RateLimitGroup> groups = new LinkedHashMap<>();
+	}
+
+	@Data
+	public static class RateLimitGroup {
+		List<String> paths = new ArrayList<>();
+		double permitsPerSecond = 10;
+		int burst = 20;
+		String key = "player"; // player: bff-access JWT 의 playerId (없으면 client 주소), ip: client 주소
+	}
+
+	@Data
+	public static class Bulkheads {
+		boolean enabled = false;
+		int defaultPoolSize = 4; // bulkhead 밖(스케줄러, 기동 작업, 미분류 요청)에서 사용하는 pool
+		Map<String, BulkheadClass> classes = new LinkedHashMap<>();
+	}
+
+	@Data
+	public static class BulkheadClass {
+		List<String> paths = new ArrayList<>();
+		int maxConcurrent = 20;
+		int maxQueue = 20;
+		long timeout = 1000; // 대기열 대기 시간 (ms)
+		int poolSize = 4;
+		long connectionTimeout = 2000; // pool 에서 connection 을 기다리는 시간 (ms)
+	}
+
+	@Data
+	public static class Password {
+		int strength = 10; // BCrypt work factor
+		int threads = 0; // 0: CPU 수
+		int queueCapacity = 256;
+		long timeout = 3000; // 대기 + 계산 시간 (ms)
+	}
+
+	@Data
+	public static class ChangeLog {
+		boolean enabled = true;
+		String nodeId; // 비어 있으면 hostname + 임의 값
+		long pollInterval = 1000;
+		long overlap = 5000; // 늦은 커밋/시계 차이를 위해 다시 읽는 구간 (ms)
+		long retention = 3600000;
+		long purgeInterval = 60000;
+	}
+
+	@Data
+	public static class ConditionalOrders {
+		long evaluateInterval = 200; // 가격 변경을 모아 trigger 를 평가하는 주기 (ms)
+	}
+
+	@Data
+	public static class Risk {
+		int parallelism = 0; // fork/join 병렬도 (0: CPU 수)
+		int partitionSize = 16384; // task 하나가 계산하는 플레이어 수
+		int fetchSize = 10000;
+	}
+
+	@Data
+	public static class PriceHistory {
+		boolean enabled = true;
+		String path = "./price-history"; // 종목별 <stockId>.ts 파일 디렉터리
+		long flushInterval = 1000; // 작성 중 블록을 파일에 기록하는 주기 (ms)
+		int maxPoints = 10000; // 한 번에 반환하는 tick / 구간 수
+		int maxOpenFiles = 256; // 동시에 열어 두는 파일 수 (넘으면 오래 사용하지 않은 파일부터 닫음)
+		long idleTimeout = 60000; // 이 시간(ms) 동안 기록/조회가 없는 파일은 닫는다.
+	}
+
+	@Data
+	public static class BatchRead {
+		int maxIds = 500; // 한 번에 요청할 수 있는 id 수
+		int chunkSize = 100; // IN (...) 한 번에 넣는 id 수
+	}
+
+	@Data
+	public static class CorporateActions {
+		boolean enabled = true;
+		long pollInterval = 5000;
+		long haltGrace = 2000; // 거래 정지 후 진행 중인 매수/매도가 끝나기를 기다리는 시간 (ms)
+		int chunkSize = 1000; // chunk 하나가 처리하는 player_stock 행 수
+		int parallelism = 4; // 동시에 처리하는 chunk 수
+	}
+
+	@Data
+	public static class SqlStatistics {
+		boolean enabled = true;
+		int defaultBudget = 0; // handler 별 SQL 실행 수 상한 (0: 제한 없음)
+		Map<String, Integer> budgets = new LinkedHashMap<>(); // "StockController.getStockById": 2
+		boolean failOnBudget = false; // 초과 시 경고 대신 요청 실패 (테스트용)
+	}
+
+	@Data
+	public static class PortfolioView {
+		boolean enabled = true;
+		long refreshInterval = 500; // 종목 가격/이름 변경을 모아 보유 플레이어 문서를 갱신하는 주기 (ms)
+		int chunkSize = 500; // 트랜잭션 하나에서 갱신하는 플레이어 수
+	}
+
+	@Data
+	public static class SingleFlights {
+		long timeout = 1000; // 합류한 호출이 먼저 시작한 호출의 결과를 기다리는 시간 (ms). 지나면 직접 실행한다.
+	}
+
+	@Data
+	public static class Id {
+		int allocationSize = 50;
+	}
 }
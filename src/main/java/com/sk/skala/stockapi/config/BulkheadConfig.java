@@ -0,0 +1,81 @@
+package com.sk.skala.stockapi.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import com.sk.skala.stockapi.aop.BulkheadFilter;
+import com.sk.skala.stockapi.tools.Bulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * endpoint class(trading, reads, admin, actuator) 별 bulkhead 구성 (application.bulkhead.enabled=true)
+ * - 실행: BulkheadFilter 가 class 별 동시 실행 수/대기열/대기 시간을 제한한다.
+ * - 연결: class 별 Hikari pool 을 만들고 BulkheadRoutingDataSource 로 요청의 class 에 맞게 연결을 나눠준다.
+ * 느린 조회 요청이 thread 와 connection 을 모두 차지해 주문 처리가 밀리는 것을 막는다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.bulkhead", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class BulkheadConfig {
+
+	private static final long DEFAULT_CONNECTION_TIMEOUT = 30000;
+
+	private final ApplicationProperties applicationProperties;
+
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+		ApplicationProperties.Bulkheads config = applicationProperties.getBulkhead();
+
+		Map<Object, Object> targets = new HashMap<>();
+		config.getClasses().forEach((name, c) -> targets.put(name,
+				pool(dataSourceProperties, name, c.getPoolSize(), c.getConnectionTimeout(), meterRegistry)));
+
+		BulkheadRoutingDataSource dataSource = new BulkheadRoutingDataSource();
+		dataSource.setTargetDataSources(targets);
+		dataSource.setDefaultTargetDataSource(pool(dataSourceProperties, "default", config.getDefaultPoolSize(),
+				DEFAULT_CONNECTION_TIMEOUT, meterRegistry));
+		return dataSource;
+	}
+
+	@Bean
+	public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(MeterRegistry meterRegistry) {
+		List<BulkheadFilter.Route> routes = new ArrayList<>();
+		applicationProperties.getBulkhead().getClasses().forEach((name, c) -> routes.add(BulkheadFilter.route(
+				new Bulkhead(name, c.getMaxConcurrent(), c.getMaxQueue(), c.getTimeout()), c.getPaths(),
+				meterRegistry)));
+
+		FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(new BulkheadFilter(routes));
+		registration.addUrlPatterns("/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+		return registration;
+	}
+
+	// pool 별 metric 은 hikaricp_* (pool 태그: skala-<class>) 로 노출된다.
+	private static HikariDataSource pool(DataSourceProperties properties, String name, int size,
+			long connectionTimeout, MeterRegistry meterRegistry) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("skala-" + name);
+		dataSource.setMaximumPoolSize(size);
+		dataSource.setMinimumIdle(Math.min(size, 1));
+		dataSource.setConnectionTimeout(connectionTimeout);
+		dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+		return dataSource;
+	}
+}
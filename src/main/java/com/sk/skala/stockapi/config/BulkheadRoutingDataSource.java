@@ -0,0 +1,48 @@
+package com.sk.skala.stockapi.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 현재 요청의 bulkhead(endpoint class)에 해당하는 connection pool 로 연결을 요청한다.
+ * 요청 밖(스케줄러, 기동 작업 등)에서는 default pool 을 사용한다.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	public static void use(String bulkhead) {
+		CURRENT.set(bulkhead);
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	// 요청 밖이면 null
+	public static String current() {
+		return CURRENT.get();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return current();
+	}
+
+	// target pool 들은 bean 이 아니므로 직접 닫는다.
+	@Override
+	public void destroy() throws Exception {
+		for (DataSource dataSource : getResolvedDataSources().values()) {
+			close(dataSource);
+		}
+		close(getResolvedDefaultDataSource());
+	}
+
+	private static void close(DataSource dataSource) throws Exception {
+		if (dataSource instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
+	}
+}
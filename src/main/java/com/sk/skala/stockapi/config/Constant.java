@@ -14,6 +14,12 @@ public class Constant {
 
 	public static final String PROFILE_PRODUCT = "prd";
 
+	// bulk import/export content types
+	public static final String CONTENT_TYPE_CSV = "text/csv";
+	public static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+	public static final long INITIAL_PLAYER_MONEY = 50000; // major unit (MoneyTool.ofMajor 로 변환)
+
 	public static final String X_BFF_USER = "X-Bff-User";
 
 	public static final String JWT_ACCESS_COOKIE = "bff-access";
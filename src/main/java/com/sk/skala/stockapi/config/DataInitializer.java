@@ -1,5 +1,7 @@
 package com.sk.skala.stockapi.config;
 
+import java.util.List;
+
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,25 +10,44 @@ import com.sk.skala.stockapi.data.table.Player;
 import com.sk.skala.stockapi.data.table.Stock;
 import com.sk.skala.stockapi.repository.PlayerRepository;
 import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.service.HoldingsStore;
+import com.sk.skala.stockapi.tools.MoneyTool;
 
 @Configuration
 public class DataInitializer {
 
     @Bean
-    CommandLineRunner initStocks(StockRepository stockRepository, PlayerRepository playerRepository) {
+    CommandLineRunner initStocks(StockRepository stockRepository, PlayerRepository playerRepository,
+            ApplicationProperties applicationProperties, HoldingsStore holdingsStore) {
         return args -> {
 
+            // fast-start 프로파일: count 조회를 포함한 시드 작업 전체를 생략
+            if (!applicationProperties.getStartup().isSeedData()) {
+                return;
+            }
+
+            boolean seeded = false;
+
             // ✅ 이미 데이터가 있으면 더미 데이터 삽입 스킵
             if (stockRepository.count() == 0) {
-                stockRepository.save(new Stock("TechCorp", 100.00));
-                stockRepository.save(new Stock("GreenEnergy", 80.00));
-                stockRepository.save(new Stock("HealthPlus", 120.00));
-                stockRepository.save(new Stock("SkalaEdu", 150.00));
+                seeded = true;
+                stockRepository.saveAll(List.of(
+                        new Stock("TechCorp", MoneyTool.ofMajor(100)),
+                        new Stock("GreenEnergy", MoneyTool.ofMajor(80)),
+                        new Stock("HealthPlus", MoneyTool.ofMajor(120)),
+                        new Stock("SkalaEdu", MoneyTool.ofMajor(150))));
             }
 
             if (playerRepository.count() == 0) {
-                playerRepository.save(new Player("Skala.Man", 10000.0));
-                playerRepository.save(new Player("Smart.Woman", 10000.0));
+                seeded = true;
+                playerRepository.saveAll(List.of(
+                        new Player("Skala.Man", MoneyTool.ofMajor(10000)),
+                        new Player("Smart.Woman", MoneyTool.ofMajor(10000))));
+            }
+
+            // 메모리 저장소는 시드 데이터 삽입 전에 적재되므로 다시 적재한다.
+            if (seeded && holdingsStore.isEnabled()) {
+                holdingsStore.load();
             }
         };
     }
@@ -14,9 +14,12 @@ public enum Error {
 	DATA_NOT_FOUND(9008, "DATA_NOT_FOUND"),
 
 	INVALID_PARAMETER(9010, "INVALID_PARAMETER"),
+	TOO_MANY_REQUESTS(9011, "TOO_MANY_REQUESTS"),
+	SERVICE_BUSY(9012, "SERVICE_BUSY"),
 
 	INSUFFICIENT_FUNDS(9101, "INSUFFICIENT_FUNDS"),
 	INSUFFICIENT_QUANTITY(9102, "INSUFFICIENT_QUANTITY"),
+	TRADING_HALTED(9103, "TRADING_HALTED"),
 
 	UNDEFINED_ERROR(9999, "UNDEFINED_ERROR");
 	
@@ -0,0 +1,20 @@
+package com.sk.skala.stockapi.config;
+
+import org.springframework.context.annotation.Configuration;
+
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class MoneyConfig {
+
+	private final ApplicationProperties applicationProperties;
+
+	@PostConstruct
+	public void init() {
+		MoneyTool.setScale(applicationProperties.getMoney().getScale());
+	}
+}
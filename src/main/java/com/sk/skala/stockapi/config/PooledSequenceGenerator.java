@@ -0,0 +1,31 @@
+package com.sk.skala.stockapi.config;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * allocation size 를 설정(spring.jpa.properties.skala.id.allocation_size)으로 받는 pooled 시퀀스 generator
+ * IDENTITY 와 달리 insert 를 즉시 실행하지 않으므로 JDBC batch insert 가 가능하다.
+ * 시퀀스 이름은 @Parameter(name = "sequence_name") 으로 지정한다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+	public static final String ALLOCATION_SIZE = "skala.id.allocation_size";
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+		Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings()
+				.get(ALLOCATION_SIZE);
+		if (allocationSize != null) {
+			parameters.setProperty(INCREMENT_PARAM, allocationSize.toString());
+		}
+		parameters.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+		super.configure(type, parameters, serviceRegistry);
+	}
+}
@@ -0,0 +1,109 @@
+package com.sk.skala.stockapi.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ddl-auto(update)가 처리하지 못하는 기존 DB 스키마 보정
+ * EntityManagerFactory(스키마 update) 이후, 시드 데이터 삽입(CommandLineRunner) 이전에 실행된다.
+ */
+@Component
+@DependsOn({ "entityManagerFactory", "moneyConfig" })
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMigration {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationProperties applicationProperties;
+
+	@PostConstruct
+	public void migrate() {
+		if (!applicationProperties.getStartup().isMigrateSchema()) {
+			return;
+		}
+
+		int allocationSize = applicationProperties.getId().getAllocationSize();
+		alignSequence(Stock.SEQUENCE, "stock", allocationSize);
+		alignSequence(PlayerStock.SEQUENCE, "player_stock", allocationSize);
+
+		long factor = MoneyTool.getFactor();
+		convertToMinorUnits("stock", "stock_price", factor);
+		convertToMinorUnits("player", "player_money", factor);
+	}
+
+	// DOUBLE(major unit) 금액 컬럼을 BIGINT(minor unit)로 변환한다.
+	// 임시 컬럼에 변환 후 교체하므로 중간에 중단되어도 다음 기동 시 이어서 처리된다.
+	private void convertToMinorUnits(String table, String column, long factor) {
+		String temp = column + "_minor";
+		String type = columnType(table, column);
+
+		if (type == null) {
+			if (columnType(table, temp) != null) {
+				renameMinorColumn(table, temp, column);
+			}
+			return;
+		}
+		if ("BIGINT".equals(type)) {
+			return;
+		}
+
+		jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + temp + " BIGINT");
+		int rows = jdbcTemplate.update("UPDATE " + table + " SET " + temp + " = CAST(ROUND(COALESCE(" + column
+				+ ", 0) * " + factor + ") AS BIGINT)");
+		jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + column);
+		renameMinorColumn(table, temp, column);
+		log.info("SchemaMigration.convertToMinorUnits: {}.{} {} -> BIGINT x{} ({} rows)", table, column, type,
+				factor, rows);
+	}
+
+	private void renameMinorColumn(String table, String temp, String column) {
+		jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + temp + " RENAME TO " + column);
+		jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NOT NULL");
+	}
+
+	private String columnType(String table, String column) {
+		List<String> types = jdbcTemplate.queryForList(
+				"SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS"
+						+ " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+				String.class, table.toUpperCase(), column.toUpperCase());
+		return types.isEmpty() ? null : types.get(0);
+	}
+
+	// IDENTITY 시절에 생성된 행과 겹치지 않도록 시퀀스 시작값과 increment 를 맞춘다.
+	// pooled optimizer 는 nextval 값 v 에 대해 (v - allocationSize, v] 구간의 id 를 사용한다.
+	private void alignSequence(String sequence, String table, int allocationSize) {
+		List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+				"SELECT BASE_VALUE, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES"
+						+ " WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = ?",
+				sequence.toUpperCase());
+		if (rows.isEmpty()) {
+			log.warn("SchemaMigration.alignSequence: sequence {} not found", sequence);
+			return;
+		}
+
+		long next = ((Number) rows.get(0).get("BASE_VALUE")).longValue();
+		long increment = ((Number) rows.get(0).get("INCREMENT")).longValue();
+		long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+
+		long minNext = maxId + allocationSize;
+		if (next < minNext || increment != allocationSize) {
+			long restart = Math.max(next, minNext);
+			jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart
+					+ " INCREMENT BY " + allocationSize);
+			log.info("SchemaMigration.alignSequence: {} restart with {} increment by {} (max id {})", sequence,
+					restart, allocationSize, maxId);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.sk.skala.stockapi.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.sk.skala.stockapi.aop.SqlStatisticsFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 요청별 SQL 통계 구성 (application.sql-statistics.enabled=true)
+ * 모든 DataSource bean(bulkhead routing 포함)을 StatementCountingDataSource 로 감싸고 SqlStatisticsFilter 를 등록한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.sql-statistics", name = "enabled", havingValue = "true")
+public class SqlStatisticsConfig {
+
+	// 다른 bean 보다 먼저 만들어지도록 static
+	@Bean
+	public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+					return new StatementCountingDataSource(dataSource);
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+			ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+		FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+				new SqlStatisticsFilter(applicationProperties.getSqlStatistics(), meterRegistry));
+		registration.addUrlPatterns("/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 110);
+		return registration;
+	}
+}
@@ -0,0 +1,75 @@
+package com.sk.skala.stockapi.config;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기동 단계별 시각을 JVM 시작 기준 경과 시간(ms)으로 기록한다.
+ * SpringApplication에 직접 등록되어야 컨텍스트 생성 이전 단계까지 기록할 수 있다.
+ */
+@Slf4j
+public class StartupTimeline implements ApplicationListener<ApplicationEvent> {
+
+	private static final StartupTimeline INSTANCE = new StartupTimeline();
+
+	private final long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	public static StartupTimeline getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof ApplicationStartingEvent) {
+			record("starting");
+		} else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+			record("environmentPrepared");
+		} else if (event instanceof ApplicationPreparedEvent) {
+			record("contextPrepared");
+		} else if (event instanceof ContextRefreshedEvent) {
+			record("contextRefreshed");
+		} else if (event instanceof WebServerInitializedEvent) {
+			record("webServerStarted");
+		} else if (event instanceof ApplicationStartedEvent) {
+			record("started");
+		} else if (event instanceof ApplicationReadyEvent ready) {
+			long elapsed = record("ready");
+			log.info("StartupTimeline: time-to-ready {} ms {}", elapsed, getPhases());
+
+			// AppCDS 아카이브 생성(training run)용: 기동 완료 직후 종료
+			if (ready.getApplicationContext().getEnvironment()
+					.getProperty("application.startup.exit-after-ready", Boolean.class, false)) {
+				System.exit(SpringApplication.exit(ready.getApplicationContext()));
+			}
+		}
+	}
+
+	private synchronized long record(String phase) {
+		long elapsed = System.currentTimeMillis() - jvmStartTime;
+		phases.putIfAbsent(phase, elapsed);
+		return elapsed;
+	}
+
+	public synchronized Map<String, Long> getPhases() {
+		return new LinkedHashMap<>(phases);
+	}
+
+	public long getJvmStartTime() {
+		return jvmStartTime;
+	}
+}
@@ -0,0 +1,26 @@
+package com.sk.skala.stockapi.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/startuptimeline: JVM 시작 기준 기동 단계별 경과 시간(ms)
+ * CI에서 time-to-ready(ready 값) 추적 용도
+ */
+@Component
+@Endpoint(id = "startuptimeline")
+public class StartupTimelineEndpoint {
+
+	@ReadOperation
+	public Map<String, Object> timeline() {
+		StartupTimeline timeline = StartupTimeline.getInstance();
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("jvmStartTime", timeline.getJvmStartTime());
+		body.put("phases", timeline.getPhases());
+		return body;
+	}
+}
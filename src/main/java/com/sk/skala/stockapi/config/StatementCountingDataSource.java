@@ -0,0 +1,143 @@
+package com.sk.skala.stockapi.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.sk.skala.stockapi.tools.SqlCounter;
+
+/**
+ * JDBC 실행을 SqlCounter 에 기록하는 DataSource
+ * Connection / Statement / ResultSet 을 proxy 로 감싸 execute* 호출 수와 시간, 변경 행 수(update count)와
+ * 읽은 행 수(ResultSet.next)를 센다. batch 는 한 번의 실행으로 센다.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements DisposableBean {
+
+	public StatementCountingDataSource(DataSource target) {
+		super(target);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return connection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return connection(super.getConnection(username, password));
+	}
+
+	// 감싼 bean 대신 이 객체가 등록되므로 pool 정리를 대신 호출한다.
+	@Override
+	public void destroy() throws Exception {
+		DataSource target = getTargetDataSource();
+		if (target instanceof DisposableBean disposable) {
+			disposable.destroy();
+		} else if (target instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
+	}
+
+	private static Connection connection(Connection target) {
+		return proxy(Connection.class, target, (proxy, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (result instanceof CallableStatement statement) {
+				return statement(CallableStatement.class, statement);
+			}
+			if (result instanceof PreparedStatement statement) {
+				return statement(PreparedStatement.class, statement);
+			}
+			if (result instanceof Statement statement) {
+				return statement(Statement.class, statement);
+			}
+			return result;
+		});
+	}
+
+	private static <T extends Statement> T statement(Class<T> type, T target) {
+		return proxy(type, target, (proxy, method, args) -> {
+			String name = method.getName();
+			if (!name.startsWith("execute")) {
+				Object result = invoke(target, method, args);
+				return result instanceof ResultSet resultSet ? resultSet(resultSet) : result;
+			}
+
+			long startedAt = System.nanoTime();
+			Object result = invoke(target, method, args);
+			long elapsed = System.nanoTime() - startedAt;
+
+			if (result instanceof ResultSet resultSet) {
+				SqlCounter.statement(elapsed, 0);
+				return resultSet(resultSet);
+			}
+			SqlCounter.statement(elapsed, updated(result));
+			return result;
+		});
+	}
+
+	private static ResultSet resultSet(ResultSet target) {
+		return proxy(ResultSet.class, target, (proxy, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+				SqlCounter.rows(1);
+			}
+			return result;
+		});
+	}
+
+	// executeUpdate / executeLargeUpdate / executeBatch 의 변경 행 수 (execute() 의 boolean 은 0)
+	private static long updated(Object result) {
+		if (result instanceof Number number) {
+			return number.longValue();
+		}
+		long rows = 0;
+		if (result instanceof int[] counts) {
+			for (int count : counts) {
+				rows += Math.max(0, count);
+			}
+		} else if (result instanceof long[] counts) {
+			for (long count : counts) {
+				rows += Math.max(0, count);
+			}
+		}
+		return rows;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					if (method.getName().equals("equals")) {
+						return proxy == args[0];
+					}
+					if (method.getName().equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					// unwrap / isWrapperFor 는 원래 객체로 (driver / pool 고유 API 사용)
+					if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+						return invoke(target, method, args);
+					}
+					return handler.invoke(proxy, method, args);
+				});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -2,13 +2,37 @@ package com.sk.skala.stockapi.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.sk.skala.stockapi.aop.RateLimitInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+	private final ApplicationProperties applicationProperties;
+	private final MeterRegistry meterRegistry;
+
 	@Override
 	public void addCorsMappings(CorsRegistry registry) {
 		registry.addMapping("/**").allowedMethods("*").allowedOrigins("*");
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		ApplicationProperties.RateLimit rateLimit = applicationProperties.getRateLimit();
+		if (!rateLimit.isEnabled()) {
+			return;
+		}
+		rateLimit.getGroups().forEach((group, config) -> {
+			if (!config.getPaths().isEmpty()) {
+				registry.addInterceptor(new RateLimitInterceptor(group, config, rateLimit, meterRegistry))
+						.addPathPatterns(config.getPaths());
+			}
+		});
+	}
+}
@@ -0,0 +1,86 @@
+package com.sk.skala.stockapi.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sk.skala.stockapi.config.Constant;
+import com.sk.skala.stockapi.data.dto.CorporateActionRequest;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.service.CorporateActionService;
+import com.sk.skala.stockapi.service.ExportService;
+import com.sk.skala.stockapi.service.ImportService;
+import com.sk.skala.stockapi.service.PortfolioViewService;
+import com.sk.skala.stockapi.service.RiskService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 운영(Admin) API 요청을 처리하는 REST 컨트롤러
+ * 대량 등록, 전체 덤프 등 운영 기능을 제공한다.
+ */
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final RiskService riskService;
+    private final CorporateActionService corporateActionService;
+    private final PortfolioViewService portfolioViewService;
+
+    // 대량 등록 API (target: stocks | players | holdings, body: CSV 또는 NDJSON 스트림)
+    @PostMapping(value = "/import/{target}",
+            consumes = { Constant.CONTENT_TYPE_CSV, Constant.CONTENT_TYPE_NDJSON, "application/ndjson" })
+    public Response importRows(@PathVariable String target, HttpServletRequest request) throws IOException {
+        return importService.importRows(target, request.getContentType(), request.getInputStream());
+    }
+
+    // 전체 플레이어 + 보유 주식 덤프 API (NDJSON, 응답 스트림에 바로 기록)
+    @GetMapping("/export/players")
+    public void exportPlayers(HttpServletResponse response) throws IOException {
+        response.setContentType(Constant.CONTENT_TYPE_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        exportService.exportPlayers(response.getOutputStream());
+    }
+
+    // 시장 전체 노출/집중도/가격 충격 분석 (shocks: "-10" 전체 종목, "3:-30" stockId 3 만)
+    @GetMapping("/risk")
+    public Response getRiskReport(
+            @RequestParam(value = "shocks", required = false) List<String> shocks,
+            @RequestParam(value = "top", defaultValue = "10") int top,
+            @RequestParam(value = "lossThreshold", defaultValue = "10") double lossThreshold
+    ) {
+        return riskService.getRiskReport(shocks, top, lossThreshold);
+    }
+
+    // 권리 조정(분할/병합/현금 배당) 등록. effectiveAt 이후 백그라운드에서 처리된다.
+    @PostMapping("/corporate-actions")
+    public Response createCorporateAction(@Valid @RequestBody CorporateActionRequest request) {
+        return corporateActionService.createAction(request);
+    }
+
+    // 권리 조정 목록과 진행 상황 (completedChunks / chunks)
+    @GetMapping("/corporate-actions")
+    public Response getCorporateActions() {
+        return corporateActionService.getActions();
+    }
+
+    // player_portfolio_view 를 기본 테이블(player, player_stock, stock)에서 다시 만든다.
+    @PostMapping("/portfolio-view/rebuild")
+    public Response rebuildPortfolioView() {
+        return portfolioViewService.rebuild();
+    }
+}
@@ -1,15 +1,22 @@
 package com.sk.skala.stockapi.controller;
 
+import java.util.List;
+
 import jakarta.validation.Valid;
 
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.sk.skala.stockapi.data.dto.ConditionalOrderRequest;
 import com.sk.skala.stockapi.data.dto.PlayerSession;
 import com.sk.skala.stockapi.data.dto.Response;
 import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.dto.TransferRequest;
 import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.service.ConditionalOrderService;
 import com.sk.skala.stockapi.service.PlayerService;
+import com.sk.skala.stockapi.service.VersionRegistry;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,22 +32,34 @@ import lombok.RequiredArgsConstructor;
 public class PlayerController {
 
     private final PlayerService playerService;
+    private final VersionRegistry versionRegistry;
+    private final ConditionalOrderService conditionalOrderService;
 
-    // 전체 플레이어 목록 조회
+    // 전체 플레이어 목록 조회 (fields=playerId,playerMoney 처럼 지정하면 해당 속성만 조회/반환)
     @GetMapping("/list")
     public Response getAllPlayers(
             @RequestParam(value = "offset", defaultValue = "0") int offset,
-            @RequestParam(value = "count", defaultValue = "10") int count
+            @RequestParam(value = "count", defaultValue = "10") int count,
+            @RequestParam(value = "fields", required = false) List<String> fields
     ) {
-        return playerService.getAllPlayers(offset, count);
+        return playerService.getAllPlayers(offset, count, fields);
     }
 
-    // 단일 플레이어 상세 조회 + 보유 주식 목록
+    // 단일 플레이어 상세 조회 + 보유 주식 목록 (If-None-Match 가 현재 버전과 같으면 304)
     @GetMapping("/{playerId}")
-    public Response getPlayerById(@PathVariable String playerId) {
+    public Response getPlayerById(@PathVariable String playerId, WebRequest request) {
+        if (request.checkNotModified(versionRegistry.playerETag(playerId))) {
+            return null;
+        }
         return playerService.getPlayerById(playerId);
     }
 
+    // 여러 플레이어 보유 주식 일괄 조회 API (body: playerId 목록 / 없는 id 는 항목별 result 0)
+    @PostMapping("/portfolios")
+    public Response getPortfolios(@RequestBody List<String> playerIds) {
+        return playerService.getPortfolios(playerIds);
+    }
+
     // 플레이어 생성 API
     @PostMapping
     public Response createPlayer(@Valid @RequestBody PlayerSession playerSession) {
@@ -76,4 +95,28 @@ public class PlayerController {
     public Response sellPlayerStock(@Valid @RequestBody StockOrder order) {
         return playerService.sellPlayerStock(order);
     }
+
+    // 다른 플레이어에게 주식/자금 이전 (로그인 플레이어 -> toPlayerId)
+    @PostMapping("/transfer")
+    public Response transfer(@Valid @RequestBody TransferRequest request) {
+        return playerService.transfer(request);
+    }
+
+    // 조건부 주문 등록 (STOP_LOSS, TAKE_PROFIT, BUY_BELOW)
+    @PostMapping("/orders")
+    public Response createOrder(@Valid @RequestBody ConditionalOrderRequest request) {
+        return conditionalOrderService.createOrder(request);
+    }
+
+    // 조건부 주문 목록 (로그인 플레이어)
+    @GetMapping("/orders")
+    public Response getOrders() {
+        return conditionalOrderService.getOrders();
+    }
+
+    // 대기 중인 조건부 주문 취소
+    @DeleteMapping("/orders/{orderId}")
+    public Response cancelOrder(@PathVariable Long orderId) {
+        return conditionalOrderService.cancelOrder(orderId);
+    }
 }
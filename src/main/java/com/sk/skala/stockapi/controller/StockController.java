@@ -1,5 +1,7 @@
 package com.sk.skala.stockapi.controller;
 
+import java.util.List;
+
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,10 +11,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.sk.skala.stockapi.data.dto.Response;
 import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.service.PriceHistoryStore;
+import com.sk.skala.stockapi.service.StockSearchIndex;
 import com.sk.skala.stockapi.service.StockService;
+import com.sk.skala.stockapi.service.VersionRegistry;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,22 +33,62 @@ import lombok.RequiredArgsConstructor;
 public class StockController {
 
     private final StockService stockService;
+    private final VersionRegistry versionRegistry;
+    private final PriceHistoryStore priceHistoryStore;
+    private final StockSearchIndex stockSearchIndex;
 
-    // 전체 주식 목록 조회 API
+    // 전체 주식 목록 조회 API (If-None-Match 가 현재 종목 버전과 같으면 304)
+    // fields=id,stockPrice 처럼 지정하면 해당 속성만 조회/반환한다.
     @GetMapping("/list")
     public Response getAllStocks(
             @RequestParam(defaultValue = "0") Integer offset,
-            @RequestParam(defaultValue = "10") Integer count
+            @RequestParam(defaultValue = "10") Integer count,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request
     ) {
-        return stockService.getAllStocks(offset, count);
+        if (request.checkNotModified(versionRegistry.catalogETag())) {
+            return null;
+        }
+        return stockService.getAllStocks(offset, count, fields);
+    }
+
+    // 여러 주식 일괄 조회 API (ids=1,2,3 / 없는 id 는 항목별 result 0)
+    @GetMapping(params = "ids")
+    public Response getStocksByIds(@RequestParam List<Long> ids) {
+        return stockService.getStocksByIds(ids);
+    }
+
+    // 종목 이름 검색 API (prefix, 대소문자 무시, 오타 허용. 메모리 색인만 사용)
+    @GetMapping("/search")
+    public Response searchStocks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return stockSearchIndex.search(q, limit);
     }
 
     // 개별 주식 상세 조회 API
     @GetMapping("/{id}")
-    public Response getStockById(@PathVariable Long id) {
+    public Response getStockById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(versionRegistry.catalogETag())) {
+            return null;
+        }
         return stockService.getStockById(id);
     }
 
+    // 가격 이력 조회 API (from/to: epoch millis, 기본 최근 1시간 / step: 0 이면 원본 tick, 그 외 step(ms) 구간 OHLC)
+    @GetMapping("/{id}/history")
+    public Response getPriceHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "0") long step
+    ) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3600000L;
+        return priceHistoryStore.getHistory(id, start, end, step);
+    }
+
     // 주식 등록 API
     @PostMapping
     public Response createStock(@RequestBody Stock stock) {
@@ -18,4 +18,7 @@ public class ApiLog {
 	private String requestBody;
 	private String responseBody;
 	private long elapsedTime;
+	private Long sqlStatements; // application.sql-statistics 사용 시
+	private Long sqlRows;
+	private Long sqlTime;       // ms
 }
\ No newline at end of file
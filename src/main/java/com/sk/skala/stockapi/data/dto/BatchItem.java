@@ -0,0 +1,23 @@
+package com.sk.skala.stockapi.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 조회 결과 한 건 (요청한 id 순서대로 반환)
+ * 찾지 못한 id 는 전체 호출을 실패시키지 않고 result 0 과 오류 code 로 표시한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItem {
+
+    private Object id;
+    private int result;
+    private int code;
+    private String message;
+    private Object body;
+}
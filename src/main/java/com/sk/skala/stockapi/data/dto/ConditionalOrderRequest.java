@@ -0,0 +1,35 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.sk.skala.stockapi.data.table.ConditionalOrder;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConditionalOrderRequest {
+
+    @NotNull(message = "stockId는 필수입니다.")
+    private Long stockId;
+
+    @NotNull(message = "orderType은 필수입니다.")
+    private ConditionalOrder.Type orderType;
+
+    @NotNull(message = "triggerPrice는 필수입니다.")
+    @Min(value = 1, message = "triggerPrice는 0보다 커야 합니다.")
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long triggerPrice;
+
+    @NotNull(message = "stockQuantity는 필수입니다.")
+    @Min(value = 1, message = "stockQuantity는 1 이상이어야 합니다.")
+    private Integer stockQuantity;
+}
@@ -0,0 +1,34 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.sk.skala.stockapi.data.table.CorporateAction;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorporateActionRequest {
+
+    @NotNull(message = "stockId는 필수입니다.")
+    private Long stockId;
+
+    @NotNull(message = "actionType은 필수입니다.")
+    private CorporateAction.Type actionType;
+
+    private Integer ratioFrom;     // SPLIT / REVERSE_SPLIT: ratioFrom 주 -> ratioTo 주
+
+    private Integer ratioTo;
+
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long dividendPerShare; // CASH_DIVIDEND
+
+    private Long effectiveAt;      // epoch millis (없으면 즉시)
+}
@@ -0,0 +1,27 @@
+package com.sk.skala.stockapi.data.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportChunkReport {
+
+    private int chunk;           // 0부터 시작하는 청크 번호
+    private long firstLine;      // 청크의 첫 번째 입력 라인 번호
+    private int rows;            // 청크에서 읽은 행 수
+    private int inserted;        // 저장된 행 수
+    private int skipped;         // 중복으로 건너뛴 행 수
+    private int failed;          // 검증 실패 또는 저장 실패 행 수
+    private long elapsedMillis;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();  // "line N: 사유" (max-errors-per-chunk 까지만 보관)
+}
@@ -0,0 +1,28 @@
+package com.sk.skala.stockapi.data.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResult {
+
+    private String target;        // stocks | players | holdings
+    private String format;        // CSV | NDJSON
+    private long rows;
+    private long inserted;
+    private long skipped;
+    private long failed;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    @Builder.Default
+    private List<ImportChunkReport> chunks = new ArrayList<>();
+}
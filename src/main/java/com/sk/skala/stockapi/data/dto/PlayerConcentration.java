@@ -0,0 +1,28 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerConcentration {
+
+    private String playerId;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long wealth;           // 자금 + 보유 평가 금액
+
+    private long stockId;          // 가장 큰 보유 종목
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long positionValue;
+
+    private double share;          // positionValue / wealth
+}
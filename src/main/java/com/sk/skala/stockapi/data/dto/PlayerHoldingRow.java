@@ -0,0 +1,20 @@
+package com.sk.skala.stockapi.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Player + PlayerStock + Stock 조인 결과 한 행 (JPQL constructor projection)
+ * 보유 주식이 없는 플레이어는 stock 관련 값이 모두 null 이다.
+ */
+@Getter
+@AllArgsConstructor
+public class PlayerHoldingRow {
+
+    private String playerId;
+    private long playerMoney;
+    private Long stockId;
+    private String stockName;
+    private Long stockPrice;
+    private Integer quantity;
+}
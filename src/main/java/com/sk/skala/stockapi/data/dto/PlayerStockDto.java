@@ -1,5 +1,10 @@
 package com.sk.skala.stockapi.data.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,6 +20,8 @@ public class PlayerStockDto {
 
     private Long stockId;
     private String stockName;
-    private Double stockPrice;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long stockPrice;
     private Integer quantity;
 }
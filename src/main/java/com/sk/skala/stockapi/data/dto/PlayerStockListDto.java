@@ -2,6 +2,11 @@ package com.sk.skala.stockapi.data.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,6 +21,8 @@ import lombok.Setter;
 public class PlayerStockListDto {
 
     private String playerId;
-    private Double playerMoney;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long playerMoney;
     private List<PlayerStockDto> stocks;
 }
@@ -0,0 +1,32 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBar {
+
+    private long timestamp;        // 구간 시작 (epoch millis)
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long open;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long high;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long low;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long close;
+
+    private int count;             // 구간 안의 tick 수
+}
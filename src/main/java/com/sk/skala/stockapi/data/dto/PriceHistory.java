@@ -0,0 +1,28 @@
+package com.sk.skala.stockapi.data.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceHistory {
+
+    private long stockId;
+    private long from;
+    private long to;
+    private long step;             // 0: 원본 tick, 그 외: step(ms) 구간별 OHLC
+    private boolean truncated;     // 원본 tick 이 max-points 를 넘어 앞부분만 반환
+
+    @Builder.Default
+    private List<PriceTick> ticks = new ArrayList<>();
+
+    @Builder.Default
+    private List<PriceBar> bars = new ArrayList<>();
+}
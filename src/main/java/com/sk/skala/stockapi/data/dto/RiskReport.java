@@ -0,0 +1,41 @@
+package com.sk.skala.stockapi.data.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskReport {
+
+    private long snapshotAt;       // 스냅샷 조회 시작 시각 (epoch millis)
+    private long snapshotMillis;   // DB 조회 + 배열 적재 시간
+    private long computeMillis;    // fork/join 계산 시간
+    private int partitions;
+    private int players;
+    private int positions;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long totalCash;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long totalHoldingsValue;
+
+    @Builder.Default
+    private List<StockExposure> exposures = new ArrayList<>();      // 평가 금액 내림차순
+
+    @Builder.Default
+    private List<PlayerConcentration> concentrations = new ArrayList<>(); // 집중도 내림차순 상위
+
+    @Builder.Default
+    private List<ShockResult> scenarios = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShockResult {
+
+    private String scenario;       // "-10" (전체 종목) 또는 "3:-30" (stockId 3 만)
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long wealthAfter;      // 전체 플레이어 자금 + 충격 후 보유 평가 금액
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long change;
+
+    private String maxLossPlayerId;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long maxLoss;
+
+    private int playersOverThreshold; // 자산 감소율이 loss-threshold(%) 이상인 플레이어 수
+}
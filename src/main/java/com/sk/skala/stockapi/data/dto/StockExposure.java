@@ -0,0 +1,27 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockExposure {
+
+    private long stockId;
+    private long quantity;         // 전체 플레이어 보유 수량 합계
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long stockPrice;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long value;
+
+    private double share;          // 전체 보유 평가 금액 대비 비율
+}
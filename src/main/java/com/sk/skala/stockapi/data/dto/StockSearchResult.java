@@ -0,0 +1,25 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSearchResult {
+
+    private long id;
+    private String stockName;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long stockPrice;
+
+    private String match;          // EXACT | PREFIX | WORD | FUZZY
+    private int score;             // 클수록 앞에 정렬
+}
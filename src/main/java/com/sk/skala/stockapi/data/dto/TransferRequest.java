@@ -0,0 +1,31 @@
+package com.sk.skala.stockapi.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferRequest {
+
+    @NotBlank(message = "toPlayerId는 필수입니다.")
+    private String toPlayerId;
+
+    private Long stockId;            // 주식을 보내지 않으면 생략
+
+    @Min(value = 0, message = "stockQuantity는 0 이상이어야 합니다.")
+    private Integer stockQuantity;
+
+    @Min(value = 0, message = "money는 0 이상이어야 합니다.")
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long money;              // 함께 보낼 자금 (선택)
+}
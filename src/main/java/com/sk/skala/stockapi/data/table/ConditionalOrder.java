@@ -0,0 +1,101 @@
+package com.sk.skala.stockapi.data.table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 조건부 주문 (손절 / 익절 / 지정가 매수)
+ * 종목 가격이 triggerPrice 를 지나면 ConditionalOrderService 가 일반 매수/매도로 실행한다.
+ * 상태 변경(PENDING -> EXECUTED / FAILED / CANCELLED)은 조건부 UPDATE 로 한 번만 일어난다.
+ */
+@Entity
+@Table(name = "conditional_order", indexes = {
+        @Index(name = "idx_conditional_order_player", columnList = "player_id"),
+        @Index(name = "idx_conditional_order_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ConditionalOrder {
+
+    public static final String SEQUENCE = "conditional_order_seq";
+
+    public enum Type {
+        STOP_LOSS,    // 가격 <= triggerPrice 이면 매도
+        TAKE_PROFIT,  // 가격 >= triggerPrice 이면 매도
+        BUY_BELOW;    // 가격 <= triggerPrice 이면 매수
+
+        public boolean isFalling() {
+            return this != TAKE_PROFIT;
+        }
+
+        public boolean isBuy() {
+            return this == BUY_BELOW;
+        }
+    }
+
+    public enum Status {
+        PENDING, EXECUTED, FAILED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private String playerId;
+
+    @Column(name = "stock_id", nullable = false)
+    private Long stockId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_type", nullable = false, length = 16)
+    private Type orderType;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @Column(name = "trigger_price", nullable = false)
+    private long triggerPrice;  // minor unit (MoneyTool 참고)
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private String message;  // 실행 실패 사유
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    public ConditionalOrder(String playerId, Long stockId, Type orderType, long triggerPrice, int quantity) {
+        this.playerId = playerId;
+        this.stockId = stockId;
+        this.orderType = orderType;
+        this.triggerPrice = triggerPrice;
+        this.quantity = quantity;
+        this.status = Status.PENDING;
+        this.createdAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,116 @@
+package com.sk.skala.stockapi.data.table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 권리 조정 (주식 분할 / 병합 / 현금 배당)
+ * 상태: PENDING -> HALTED (거래 정지) -> RUNNING (가격 조정 + chunk 계획) -> COMPLETED / FAILED
+ * 각 상태 변경은 CorporateActionService 가 조건부 UPDATE 로 처리하므로 여러 노드에서 동시에 진행해도 한 번만 일어난다.
+ */
+@Entity
+@Table(name = "corporate_action", indexes = @Index(name = "idx_corporate_action_status", columnList = "status"))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CorporateAction {
+
+    public static final String SEQUENCE = "corporate_action_seq";
+
+    public enum Type {
+        SPLIT,          // ratioFrom 주 -> ratioTo 주 (ratioTo > ratioFrom)
+        REVERSE_SPLIT,  // ratioFrom 주 -> ratioTo 주 (ratioTo < ratioFrom)
+        CASH_DIVIDEND   // 1주당 dividendPerShare 지급
+    }
+
+    public enum Status {
+        PENDING, HALTED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
+    private Long id;
+
+    @Column(name = "stock_id", nullable = false)
+    private Long stockId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 16)
+    private Type actionType;
+
+    @Column(name = "ratio_from", nullable = false)
+    private int ratioFrom;
+
+    @Column(name = "ratio_to", nullable = false)
+    private int ratioTo;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @Column(name = "dividend_per_share", nullable = false)
+    private long dividendPerShare;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "effective_at", nullable = false)
+    private long effectiveAt;   // 이 시각 이후 시작 (epoch millis)
+
+    @Column(name = "halted_at", nullable = false)
+    private long haltedAt;
+
+    @Column(name = "completed_at", nullable = false)
+    private long completedAt;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @Column(name = "price_before", nullable = false)
+    private long priceBefore;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @Column(name = "price_after", nullable = false)
+    private long priceAfter;
+
+    @Column(nullable = false)
+    private int chunks;
+
+    @Transient
+    private long completedChunks;  // 조회 시 corporate_action_chunk 에서 계산
+
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    public CorporateAction(Long stockId, Type actionType, int ratioFrom, int ratioTo, long dividendPerShare,
+            long effectiveAt) {
+        this.stockId = stockId;
+        this.actionType = actionType;
+        this.ratioFrom = ratioFrom;
+        this.ratioTo = ratioTo;
+        this.dividendPerShare = dividendPerShare;
+        this.effectiveAt = effectiveAt;
+        this.status = Status.PENDING;
+        this.createdAt = System.currentTimeMillis();
+    }
+}
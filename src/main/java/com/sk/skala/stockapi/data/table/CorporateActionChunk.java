@@ -0,0 +1,59 @@
+package com.sk.skala.stockapi.data.table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 권리 조정 처리 단위 (checkpoint)
+ * 해당 종목 player_stock 의 id 구간 (loId, hiId] 하나이며, 처리 결과와 같은 트랜잭션에서 done 으로 바뀐다.
+ * 중단된 작업은 done 이 아닌 chunk 만 이어서 처리한다. (ChangeLogService 와 같이 JDBC 로 기록/조회)
+ */
+@Entity
+@Table(name = "corporate_action_chunk",
+        indexes = @Index(name = "idx_corporate_action_chunk_action", columnList = "action_id, done"))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CorporateActionChunk {
+
+    public static final String SEQUENCE = "corporate_action_chunk_seq";
+
+    @Id
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
+    private Long id;
+
+    @Column(name = "action_id", nullable = false)
+    private Long actionId;
+
+    @Column(name = "chunk_no", nullable = false)
+    private int chunkNo;
+
+    @Column(name = "lo_id", nullable = false)
+    private long loId;  // 제외
+
+    @Column(name = "hi_id", nullable = false)
+    private long hiId;  // 포함
+
+    @Column(nullable = false)
+    private boolean done;
+
+    @Column(name = "completed_at", nullable = false)
+    private long completedAt;
+}
@@ -0,0 +1,59 @@
+package com.sk.skala.stockapi.data.table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 노드 간 캐시 무효화를 위한 변경 기록 (ChangeLogService 가 JDBC 로 기록하고 tail 한다)
+ * entityId 가 ALL 이면 해당 종류 전체가 바뀐 것으로 본다. (bulk import 등)
+ */
+@Entity
+@Table(name = "entity_change", indexes = @Index(name = "idx_entity_change_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EntityChange {
+
+    public static final String SEQUENCE = "entity_change_seq";
+    public static final String ALL = "*";
+
+    public enum Type {
+        STOCK, PLAYER
+    }
+
+    @Id
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private Type entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private String entityId;
+
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;  // epoch millis (기록한 노드의 시계)
+}
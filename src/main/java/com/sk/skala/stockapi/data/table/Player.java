@@ -1,7 +1,19 @@
 package com.sk.skala.stockapi.data.table;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 import lombok.AccessLevel;
@@ -15,7 +27,7 @@ import lombok.Setter;
  */
 
 @Entity
-@Table(name = "player")
+@Table(name = "player", indexes = @Index(name = "idx_player_updated_at", columnList = "updated_at"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -24,12 +36,25 @@ public class Player {
     @Id
     private String playerId;  // 플레이어 ID
 
-    private String playerPassword;  // 플레이어 비밀번호
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String playerPassword;  // 플레이어 비밀번호 (BCrypt 해시, 응답에는 포함하지 않음)
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long playerMoney;  // 플레이어가 보유하고 있는 자금 (minor unit, MoneyTool 참고)
 
-    private Double playerMoney;  // 플레이어가 보유하고 있는 자금
+    @JsonIgnore
+    @Column(name = "updated_at", columnDefinition = "bigint default 0 not null")
+    private long updatedAt;  // 마지막 변경 시각 (epoch millis). 보유 주식 변경도 여기에 기록한다.
 
-    public Player(String playerId, Double playerMoney) {  // 플레이어 생성자 -> ID
+    public Player(String playerId, long playerMoney) {  // 플레이어 생성자 -> ID
         this.playerId = playerId;
         this.playerMoney = playerMoney;
     }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = System.currentTimeMillis();
+    }
 }
\ No newline at end of file
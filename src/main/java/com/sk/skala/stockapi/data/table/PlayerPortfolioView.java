@@ -0,0 +1,36 @@
+package com.sk.skala.stockapi.data.table;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 플레이어 보유 주식 조회용 비정규화 테이블 (CQRS read model)
+ * document 는 GET /api/players/{playerId} 응답 본문(PlayerStockListDto) JSON 이다.
+ * 매수/매도/이전은 같은 트랜잭션에서, 종목 가격/이름 변경은 PortfolioViewService 가 비동기로 갱신한다.
+ */
+@Entity
+@Table(name = "player_portfolio_view")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PlayerPortfolioView {
+
+    @Id
+    @Column(name = "player_id")
+    private String playerId;
+
+    @Lob
+    @Column(nullable = false)
+    private String document;
+
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+}
@@ -1,9 +1,14 @@
 package com.sk.skala.stockapi.data.table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -21,8 +26,12 @@ import lombok.Setter;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class PlayerStock {
 
+    public static final String SEQUENCE = "player_stock_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
     private Long id;
 
     // 플레이어 (N:1)
@@ -36,10 +45,10 @@ public class PlayerStock {
     private Stock stock;
 
     // 보유 수량
-    private Integer quantity;
+    private int quantity;
 
     // ✅ Player + Stock + 보유 수량 생성자
-    public PlayerStock(Player player, Stock stock, Integer quantity) {
+    public PlayerStock(Player player, Stock stock, int quantity) {
         this.player = player;
         this.stock = stock;
         this.quantity = quantity;
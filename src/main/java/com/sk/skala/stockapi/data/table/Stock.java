@@ -1,9 +1,25 @@
 package com.sk.skala.stockapi.data.table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sk.skala.stockapi.config.PooledSequenceGenerator;
+import com.sk.skala.stockapi.tools.MoneyDeserializer;
+import com.sk.skala.stockapi.tools.MoneySerializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 import lombok.AccessLevel;
@@ -17,21 +33,42 @@ import lombok.Setter;
  */
 
 @Entity
-@Table(name = "stock")
+@Table(name = "stock", indexes = @Index(name = "idx_stock_updated_at", columnList = "updated_at"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Stock {
 
+    public static final String SEQUENCE = "stock_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = SEQUENCE)
+    @GenericGenerator(name = SEQUENCE, type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = SEQUENCE))
     private Long id;
 
     private String stockName;  // 주식 이름
-    private Double stockPrice;  // 주식 가격
 
-    public Stock(String stockName, Double stockPrice) {  // 주식 생성자 -> ID는 DB에서 자동 생성
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long stockPrice;  // 주식 가격 (minor unit, MoneyTool 참고)
+
+    @JsonIgnore
+    @Column(name = "updated_at", columnDefinition = "bigint default 0 not null")
+    private long updatedAt;  // 마지막 변경 시각 (epoch millis)
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "trading_halted", columnDefinition = "boolean default false not null")
+    private boolean tradingHalted;  // 권리 조정(분할, 배당 등) 처리 중에는 매수/매도 불가
+
+    public Stock(String stockName, long stockPrice) {  // 주식 생성자 -> ID는 DB에서 자동 생성
         this.stockName = stockName;
         this.stockPrice = stockPrice;
     }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = System.currentTimeMillis();
+    }
 }
\ No newline at end of file
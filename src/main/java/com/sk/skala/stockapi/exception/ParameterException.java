@@ -3,17 +3,20 @@ package com.sk.skala.stockapi.exception;
 import com.sk.skala.stockapi.config.Error;
 import com.sk.skala.stockapi.tools.StringTool;
 
+/**
+ * 요청 값 누락/오류 (ResponseException 과 같이 stack trace 를 만들지 않음)
+ */
 public class ParameterException extends RuntimeException {
 	private static final long serialVersionUID = -1485573803677705666L;
 	private final int code;
 
 	public ParameterException(String... parameters) {
-		super(Error.PARAMETER_MISSED.getMessage() + ": " + StringTool.join(parameters));
+		super(Error.PARAMETER_MISSED.getMessage() + ": " + StringTool.join(parameters), null, false, false);
 		this.code = Error.PARAMETER_MISSED.getCode();
 	}
 
 	public ParameterException(int code, String message) {
-		super(message);
+		super(message, null, false, false);
 		this.code = code;
 	}
 
@@ -2,6 +2,11 @@ package com.sk.skala.stockapi.exception;
 
 import com.sk.skala.stockapi.config.Error;
 
+/**
+ * 업무 거절(잔고/수량 부족, 데이터 없음 등)을 Response envelope 으로 돌려주기 위한 예외
+ * 예상된 흐름이므로 stack trace 를 만들지 않는다. (생성 비용 대부분이 fillInStackTrace)
+ * RuntimeException 이므로 @Transactional rollback 동작은 그대로이다.
+ */
 public class ResponseException extends RuntimeException {
 	private static final long serialVersionUID = 6893947316831307546L;
 	private final int code;
@@ -15,7 +20,7 @@ public class ResponseException extends RuntimeException {
 	}
 
 	public ResponseException(int code, String message) {
-		super(message);
+		super(message, null, false, false);
 		this.code = code;
 	}
 
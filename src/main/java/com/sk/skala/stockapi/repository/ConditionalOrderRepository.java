@@ -0,0 +1,31 @@
+package com.sk.skala.stockapi.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sk.skala.stockapi.data.table.ConditionalOrder;
+
+public interface ConditionalOrderRepository extends JpaRepository<ConditionalOrder, Long> {
+
+    List<ConditionalOrder> findByPlayerIdOrderByIdDesc(String playerId);
+
+    List<ConditionalOrder> findByStatus(ConditionalOrder.Status status);
+
+    // PENDING 인 주문만 상태를 바꾼다. (여러 노드/요청 중 한 곳만 1 을 받는다)
+    // JPQL 의 중첩 enum 상수는 Outer$Inner 형태로 써야 Hibernate 6 가 해석한다.
+    @Modifying
+    @Query("update ConditionalOrder o set o.status = :status, o.message = :message "
+            + "where o.id = :id and o.status = com.sk.skala.stockapi.data.table.ConditionalOrder$Status.PENDING")
+    int claim(@Param("id") Long id, @Param("status") ConditionalOrder.Status status,
+            @Param("message") String message);
+
+    @Modifying
+    @Query("update ConditionalOrder o set o.status = com.sk.skala.stockapi.data.table.ConditionalOrder$Status.CANCELLED "
+            + "where o.id = :id and o.playerId = :playerId "
+            + "and o.status = com.sk.skala.stockapi.data.table.ConditionalOrder$Status.PENDING")
+    int cancel(@Param("id") Long id, @Param("playerId") String playerId);
+}
@@ -0,0 +1,17 @@
+package com.sk.skala.stockapi.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sk.skala.stockapi.data.table.CorporateAction;
+
+public interface CorporateActionRepository extends JpaRepository<CorporateAction, Long> {
+
+    List<CorporateAction> findAllByOrderByIdDesc();
+
+    List<CorporateAction> findByStatusOrderById(CorporateAction.Status status);
+
+    boolean existsByStockIdAndStatusIn(Long stockId, Collection<CorporateAction.Status> statuses);
+}
@@ -0,0 +1,91 @@
+package com.sk.skala.stockapi.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Repository;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * 목록 API 의 fields= 선택 조회
+ * 요청한 속성만 select 하는 tuple 쿼리로 읽으므로 엔티티를 만들지 않고 (영속성 컨텍스트에 올리지 않고)
+ * 요청한 속성만 응답에 포함한다. 허용 속성은 엔티티별로 서비스가 정한다.
+ */
+@Repository
+public class FieldProjection {
+
+    // 응답에 노출할 수 있는 속성 (money: minor unit -> 소수 금액으로 변환)
+    public record Field(String attribute, boolean money) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 쉼표로 구분한 fields 를 허용 목록으로 확인 (중복 제거, 순서 유지)
+    public static List<String> parse(List<String> fields, Map<String, Field> allowed) {
+        List<String> selected = new ArrayList<>();
+        for (String value : fields) {
+            for (String name : value.split(",")) {
+                String field = name.trim();
+                if (field.isEmpty() || selected.contains(field)) {
+                    continue;
+                }
+                if (!allowed.containsKey(field)) {
+                    throw new ResponseException(Error.INVALID_PARAMETER, "fields: " + field);
+                }
+                selected.add(field);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "fields");
+        }
+        return selected;
+    }
+
+    // page 번째(0 부터) size 건을 idAttribute 순서로 읽는다.
+    public List<Map<String, Object>> findPage(Class<?> entity, String idAttribute, List<String> fields,
+            Map<String, Field> allowed, int page, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String name : fields) {
+            selections.add(root.get(allowed.get(name).attribute()).alias(name));
+        }
+        query.multiselect(selections);
+        query.orderBy(cb.asc(root.get(idAttribute)));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                Object value = tuple.get(element);
+                if (value != null && allowed.get(element.getAlias()).money()) {
+                    value = MoneyTool.toDecimal(((Number) value).longValue());
+                }
+                row.put(element.getAlias(), value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,8 +1,64 @@
 package com.sk.skala.stockapi.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sk.skala.stockapi.data.dto.PlayerHoldingRow;
 import com.sk.skala.stockapi.data.table.Player;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface PlayerRepository extends JpaRepository<Player, String> {
+
+    // 전체 플레이어 + 보유 주식을 playerId 순서로 스트리밍 (영속성 컨텍스트에 엔티티를 올리지 않는 projection)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.sk.skala.stockapi.data.dto.PlayerHoldingRow("
+            + "p.playerId, p.playerMoney, s.id, s.stockName, s.stockPrice, ps.quantity) "
+            + "from Player p left join PlayerStock ps on ps.player = p left join ps.stock s "
+            + "order by p.playerId, s.id")
+    Stream<PlayerHoldingRow> streamAllWithHoldings();
+
+    // 여러 플레이어 + 보유 주식을 한 번의 IN 조회로 (playerId 순서, 보유 주식이 없으면 stock 값이 null)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.sk.skala.stockapi.data.dto.PlayerHoldingRow("
+            + "p.playerId, p.playerMoney, s.id, s.stockName, s.stockPrice, ps.quantity) "
+            + "from Player p left join PlayerStock ps on ps.player = p left join ps.stock s "
+            + "where p.playerId in :playerIds order by p.playerId, s.id")
+    List<PlayerHoldingRow> findAllWithHoldings(@Param("playerIds") Collection<String> playerIds);
+
+    // 매수/매도/이전 시 플레이어 행 잠금 (SELECT ... FOR UPDATE). 이 잠금이 해당 플레이어의 자금과 보유 주식을 보호한다.
+    // 여러 플레이어를 잠글 때는 항상 playerId 순서로 호출한다. (PlayerService.lockPlayers)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Player p where p.playerId = :playerId")
+    Optional<Player> findByIdForUpdate(@Param("playerId") String playerId);
+
+    // 가입: save() 는 id 가 지정된 엔티티를 merge 하므로 동시에 같은 id 로 가입하면 먼저 저장된 비밀번호를 덮어쓴다.
+    // INSERT 만 실행해 이미 있는 id 는 키 중복(DataIntegrityViolationException)으로 실패하게 한다.
+    @Modifying
+    @Query(value = "insert into player (player_id, player_password, player_money, updated_at) "
+            + "values (:#{#player.playerId}, :#{#player.playerPassword}, :#{#player.playerMoney}, "
+            + ":#{#player.updatedAt})", nativeQuery = true)
+    int insert(@Param("player") Player player);
+
+    // 로그인 시 다시 해시한 비밀번호 저장 (그 사이 비밀번호가 바뀌었으면 갱신하지 않음)
+    @Transactional
+    @Modifying
+    @Query("update Player p set p.playerPassword = :hashed where p.playerId = :playerId and p.playerPassword = :current")
+    int updatePassword(@Param("playerId") String playerId, @Param("current") String current,
+            @Param("hashed") String hashed);
 }
@@ -0,0 +1,43 @@
+package com.sk.skala.stockapi.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC 로 직접 insert 하는 경로(대량 등록 등)에서 사용하는 시퀀스 id 할당기
+ * Hibernate pooled optimizer 와 같은 규칙으로 nextval 값 v 에 대해 (v - allocationSize, v] 구간을 사용하므로
+ * JPA 로 저장되는 행과 id 가 겹치지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationProperties applicationProperties;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public long next(String sequence) {
+        Block block = blocks.computeIfAbsent(sequence, key -> new Block());
+        synchronized (block) {
+            if (block.next > block.hi) {
+                long hi = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+                block.hi = hi;
+                block.next = Math.max(1, hi - applicationProperties.getId().getAllocationSize() + 1);
+            }
+            return block.next++;
+        }
+    }
+
+    private static class Block {
+        long next = 1;
+        long hi = 0;
+    }
+}
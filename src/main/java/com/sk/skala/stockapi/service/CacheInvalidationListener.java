@@ -0,0 +1,52 @@
+package com.sk.skala.stockapi.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.sk.skala.stockapi.aop.SingleFlightRegistry;
+import com.sk.skala.stockapi.data.table.EntityChange;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 커밋된 변경(로컬 또는 다른 노드)을 노드 내 캐시에 반영한다.
+ * - VersionRegistry: ETag 버전 증가
+ * - SingleFlightRegistry: 진행 중인 조회 분리
+ * - HoldingsStore: 다른 노드에서 바뀐 종목 정보 재적재 (로컬 변경은 서비스가 직접 반영)
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final VersionRegistry versionRegistry;
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final HoldingsStore holdingsStore;
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.type() == EntityChange.Type.STOCK) {
+            versionRegistry.catalogChanged();
+            if (event.isAll()) {
+                singleFlightRegistry.invalidateAll("stock");
+            } else {
+                singleFlightRegistry.invalidate("stock", Long.valueOf(event.entityId()));
+            }
+
+            if (event.remote() && holdingsStore.isEnabled()) {
+                if (event.isAll()) {
+                    holdingsStore.refreshCatalog();
+                } else {
+                    holdingsStore.refreshStock(Long.parseLong(event.entityId()));
+                }
+            }
+        } else if (event.type() == EntityChange.Type.PLAYER) {
+            if (event.isAll()) {
+                versionRegistry.allPlayersChanged();
+                singleFlightRegistry.invalidateAll("player");
+            } else {
+                versionRegistry.playerChanged(event.entityId());
+                singleFlightRegistry.invalidate("player", event.entityId());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.repository.SequenceIdAllocator;
+import com.sk.skala.stockapi.tools.HostInfo;
+import com.sk.skala.stockapi.tools.StringTool;
+import com.sk.skala.stockapi.tools.TransactionTool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock / Player 변경 기록과 노드 간 전달 (application.change-log)
+ * 쓰기 서비스는 변경을 같은 트랜잭션에서 entity_change 테이블에 기록하고, 커밋 후 로컬에 EntityChangedEvent 를 발행한다.
+ * 각 노드는 created_at 인덱스로 주기적으로 새 기록을 읽어 다른 노드의 변경을 remote 이벤트로 발행한다.
+ *
+ * 커서는 created_at 이며, 늦게 커밋된 트랜잭션과 노드 간 시계 차이를 위해 overlap 구간을 다시 읽고 id 로 중복을 제거한다.
+ * overlap 보다 늦게 보이는 변경은 놓칠 수 있다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeLogService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+
+    private String nodeId;
+    private long cursor;
+    private final Map<Long, Long> seen = new HashMap<>(); // id -> created_at (overlap 구간 안의 처리한 기록)
+    private volatile long lastPolledAt;
+    private Timer lag;
+
+    @PostConstruct
+    public void init() {
+        String configured = applicationProperties.getChangeLog().getNodeId();
+        nodeId = StringTool.isEmpty(configured)
+                ? HostInfo.getHostname() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : configured;
+        // 기동 전의 변경은 각 캐시가 DB 에서 새로 적재하므로 다시 읽지 않는다.
+        cursor = System.currentTimeMillis();
+        lastPolledAt = cursor;
+
+        lag = Timer.builder("skala.changelog.lag").description("remote change created_at -> applied on this node")
+                .register(meterRegistry);
+        meterRegistry.gauge("skala.changelog.poll.age", this, s -> System.currentTimeMillis() - s.lastPolledAt);
+        log.info("ChangeLogService.init: node {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // =========================
+    // 기록 (현재 트랜잭션)
+    // =========================
+    public void stockChanged(long stockId) {
+        record(EntityChange.Type.STOCK, List.of(Long.toString(stockId)));
+    }
+
+    public void playerChanged(String playerId) {
+        record(EntityChange.Type.PLAYER, List.of(playerId));
+    }
+
+    public void playersChanged(Collection<String> playerIds) {
+        record(EntityChange.Type.PLAYER, playerIds);
+    }
+
+    // 종류 전체 변경 (bulk 작업)
+    public void allChanged(EntityChange.Type type) {
+        record(type, List.of(EntityChange.ALL));
+    }
+
+    // DB 는 나중에 반영되는 변경 (메모리 저장소): 로컬 이벤트만 발행한다. 기록은 반영 시점에 record 로 남긴다.
+    public void publishLocal(EntityChange.Type type, String entityId) {
+        TransactionTool.afterCommit(() -> eventPublisher.publishEvent(new EntityChangedEvent(type, entityId, false)));
+    }
+
+    public void record(EntityChange.Type type, Collection<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+
+        if (applicationProperties.getChangeLog().isEnabled()) {
+            long now = System.currentTimeMillis();
+            List<Object[]> args = new ArrayList<>(entityIds.size());
+            for (String entityId : entityIds) {
+                args.add(new Object[] { sequenceIdAllocator.next(EntityChange.SEQUENCE), type.name(), entityId,
+                        nodeId, now });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO entity_change (id, entity_type, entity_id, node_id, created_at)"
+                    + " VALUES (?, ?, ?, ?, ?)", args);
+        }
+
+        List<String> ids = List.copyOf(entityIds);
+        TransactionTool.afterCommit(() -> ids.forEach(
+                entityId -> eventPublisher.publishEvent(new EntityChangedEvent(type, entityId, false))));
+    }
+
+    // =========================
+    // 다른 노드의 변경 tail
+    // =========================
+    @Scheduled(fixedDelayString = "${application.change-log.poll-interval:1000}")
+    public synchronized void poll() {
+        if (!applicationProperties.getChangeLog().isEnabled()) {
+            return;
+        }
+
+        long overlap = applicationProperties.getChangeLog().getOverlap();
+        long from = cursor - overlap;
+        long[] newest = { cursor };
+        List<EntityChangedEvent> events = new ArrayList<>();
+
+        jdbcTemplate.query("SELECT id, entity_type, entity_id, node_id, created_at FROM entity_change"
+                + " WHERE created_at >= ? ORDER BY created_at, id", rs -> {
+                    long id = rs.getLong(1);
+                    long createdAt = rs.getLong(5);
+                    newest[0] = Math.max(newest[0], createdAt);
+                    if (seen.putIfAbsent(id, createdAt) != null || nodeId.equals(rs.getString(4))) {
+                        return;
+                    }
+                    events.add(new EntityChangedEvent(EntityChange.Type.valueOf(rs.getString(2)),
+                            rs.getString(3), true));
+                    lag.record(Math.max(0, System.currentTimeMillis() - createdAt), TimeUnit.MILLISECONDS);
+                }, from);
+
+        cursor = newest[0];
+        lastPolledAt = System.currentTimeMillis();
+
+        // overlap 구간을 벗어난 id 는 다시 읽히지 않으므로 정리
+        long expired = cursor - overlap;
+        Iterator<Long> it = seen.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() < expired) {
+                it.remove();
+            }
+        }
+
+        for (EntityChangedEvent event : events) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                log.error("ChangeLogService.poll: {} {} listener failed: {}", event.type(), event.entityId(),
+                        e.getMessage());
+            }
+        }
+        if (!events.isEmpty()) {
+            log.debug("ChangeLogService.poll: {} remote changes", events.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.change-log.purge-interval:60000}")
+    public void purge() {
+        if (!applicationProperties.getChangeLog().isEnabled()) {
+            return;
+        }
+        long before = System.currentTimeMillis() - applicationProperties.getChangeLog().getRetention();
+        int rows = jdbcTemplate.update("DELETE FROM entity_change WHERE created_at < ?", before);
+        if (rows > 0) {
+            log.debug("ChangeLogService.purge: {} rows", rows);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.ConditionalOrderRequest;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.table.ConditionalOrder;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ParameterException;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.ConditionalOrderRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.TransactionTool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 조건부 주문 (application.conditional-order)
+ * PENDING 주문은 종목별로 trigger 가격 순서의 skip list 에 보관한다.
+ * - falling: 가격이 trigger 이하로 내려가면 실행 (STOP_LOSS, BUY_BELOW)
+ * - rising: 가격이 trigger 이상으로 올라가면 실행 (TAKE_PROFIT)
+ *
+ * 가격 변경은 종목별 [min, max] 구간으로 합쳐 두고 evaluate-interval 마다 한 번만 평가하므로,
+ * 평가 비용은 tick 수가 아니라 O(log n + 지나간 주문 수) 이다.
+ * 실행은 PENDING -> EXECUTED 조건부 UPDATE 와 PlayerService 매수/매도를 한 트랜잭션에서 처리한다.
+ * 주문 목록은 노드마다 따로 보관하며, 다른 노드에서 취소/실행된 주문은 조건부 UPDATE 에서 걸러진다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConditionalOrderService {
+
+    private final ConditionalOrderRepository conditionalOrderRepository;
+    private final StockRepository stockRepository;
+    private final SessionHandler sessionHandler;
+    private final PlayerService playerService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private record Trigger(long price, long orderId) implements Comparable<Trigger> {
+        @Override
+        public int compareTo(Trigger o) {
+            int c = Long.compare(price, o.price);
+            return c != 0 ? c : Long.compare(orderId, o.orderId);
+        }
+    }
+
+    private record PendingOrder(long id, String playerId, long stockId, ConditionalOrder.Type type,
+            long triggerPrice, int quantity) {
+
+        static PendingOrder of(ConditionalOrder order) {
+            return new PendingOrder(order.getId(), order.getPlayerId(), order.getStockId(), order.getOrderType(),
+                    order.getTriggerPrice(), order.getQuantity());
+        }
+    }
+
+    private static final class Book {
+        final NavigableSet<Trigger> falling = new ConcurrentSkipListSet<>();
+        final NavigableSet<Trigger> rising = new ConcurrentSkipListSet<>();
+
+        NavigableSet<Trigger> side(ConditionalOrder.Type type) {
+            return type.isFalling() ? falling : rising;
+        }
+    }
+
+    // 마지막 평가 이후 지나간 가격 구간. lookup 이면 평가 시 현재 가격을 DB 에서 읽어 구간에 더한다.
+    private record PriceRange(long min, long max, boolean lookup) {
+        static final PriceRange LOOKUP = new PriceRange(Long.MAX_VALUE, Long.MIN_VALUE, true);
+        static final PriceRange ALL = new PriceRange(Long.MIN_VALUE, Long.MAX_VALUE, false); // 종목 삭제
+
+        static PriceRange of(long price) {
+            return new PriceRange(price, price, false);
+        }
+
+        static PriceRange merge(PriceRange a, PriceRange b) {
+            return new PriceRange(Math.min(a.min, b.min), Math.max(a.max, b.max), a.lookup || b.lookup);
+        }
+
+        boolean isEmpty() {
+            return min > max;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, PendingOrder> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Book> books = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, PriceRange> ranges = new ConcurrentHashMap<>();
+
+    private Counter executed;
+    private Counter failed;
+
+    @PostConstruct
+    public void load() {
+        executed = Counter.builder("skala.orders.triggered").tag("outcome", "executed").register(meterRegistry);
+        failed = Counter.builder("skala.orders.triggered").tag("outcome", "failed").register(meterRegistry);
+        meterRegistry.gauge("skala.orders.pending", pending, ConcurrentHashMap::size);
+
+        for (ConditionalOrder order : conditionalOrderRepository.findByStatus(ConditionalOrder.Status.PENDING)) {
+            add(PendingOrder.of(order));
+        }
+        // 중지된 동안 지나간 가격은 알 수 없으므로 현재 가격으로 한 번 평가한다.
+        books.keySet().forEach(stockId -> ranges.merge(stockId, PriceRange.LOOKUP, PriceRange::merge));
+        log.info("ConditionalOrderService.load: {} pending orders", pending.size());
+    }
+
+    // =========================
+    // 주문 등록 / 조회 / 취소 (세션 기반 playerId)
+    // =========================
+    @Transactional
+    public Response createOrder(ConditionalOrderRequest request) {
+        String playerId = getSessionPlayerId();
+        if (request.getStockId() == null || request.getOrderType() == null || request.getTriggerPrice() == null
+                || request.getStockQuantity() == null) {
+            throw new ParameterException("stockId", "orderType", "triggerPrice", "stockQuantity");
+        }
+
+        Stock stock = stockRepository.findById(request.getStockId())
+                .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
+
+        ConditionalOrder saved = conditionalOrderRepository.save(new ConditionalOrder(playerId, stock.getId(),
+                request.getOrderType(), request.getTriggerPrice(), request.getStockQuantity()));
+
+        // 이미 조건을 만족하는 주문은 다음 평가에서 바로 실행되도록 현재 가격을 구간에 넣는다.
+        PendingOrder order = PendingOrder.of(saved);
+        long price = stock.getStockPrice();
+        TransactionTool.afterCommit(() -> {
+            add(order);
+            ranges.merge(order.stockId(), PriceRange.of(price), PriceRange::merge);
+        });
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(saved)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public Response getOrders() {
+        String playerId = getSessionPlayerId();
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(conditionalOrderRepository.findByPlayerIdOrderByIdDesc(playerId))
+                .build();
+    }
+
+    @Transactional
+    public Response cancelOrder(Long orderId) {
+        String playerId = getSessionPlayerId();
+        if (orderId == null) {
+            throw new ParameterException("orderId");
+        }
+
+        if (conditionalOrderRepository.cancel(orderId, playerId) == 0) {
+            throw new ResponseException(Error.DATA_NOT_FOUND, "pending order");
+        }
+        TransactionTool.afterCommit(() -> remove(orderId));
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .build();
+    }
+
+    private String getSessionPlayerId() {
+        String playerId = sessionHandler.getPlayerId();
+        if (playerId == null || playerId.isBlank()) {
+            throw new ResponseException(Error.SESSION_NOT_FOUND);
+        }
+        return playerId;
+    }
+
+    // =========================
+    // 가격 변경 수집 (tick 마다 평가하지 않고 구간만 넓힌다)
+    // =========================
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (!books.containsKey(event.stockId())) {
+            return;
+        }
+        ranges.merge(event.stockId(), event.deleted() ? PriceRange.ALL : PriceRange.of(event.stockPrice()),
+                PriceRange::merge);
+    }
+
+    // bulk import 와 다른 노드의 변경은 가격이 없으므로 평가 시 현재 가격을 읽는다.
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.type() != EntityChange.Type.STOCK) {
+            return;
+        }
+        if (event.isAll()) {
+            books.keySet().forEach(stockId -> ranges.merge(stockId, PriceRange.LOOKUP, PriceRange::merge));
+        } else if (event.remote()) {
+            long stockId = Long.parseLong(event.entityId());
+            if (books.containsKey(stockId)) {
+                ranges.merge(stockId, PriceRange.LOOKUP, PriceRange::merge);
+            }
+        }
+    }
+
+    // =========================
+    // 평가 / 실행
+    // =========================
+    @Scheduled(fixedDelayString = "${application.conditional-order.evaluate-interval:200}")
+    public void evaluate() {
+        for (Long stockId : ranges.keySet()) {
+            PriceRange range = ranges.remove(stockId);
+            if (range == null) {
+                continue;
+            }
+            if (range.lookup()) {
+                Optional<Stock> stock = stockRepository.findById(stockId);
+                range = PriceRange.merge(range,
+                        stock.map(s -> PriceRange.of(s.getStockPrice())).orElse(PriceRange.ALL));
+            }
+            if (range.isEmpty()) {
+                continue;
+            }
+
+            for (PendingOrder order : crossed(stockId, range)) {
+                execute(order);
+            }
+        }
+    }
+
+    // 구간이 지나간 trigger 만 꺼낸다. (falling: trigger >= min, rising: trigger <= max)
+    private List<PendingOrder> crossed(long stockId, PriceRange range) {
+        Book book = books.get(stockId);
+        if (book == null) {
+            return List.of();
+        }
+
+        List<PendingOrder> crossed = new ArrayList<>();
+        drain(book.falling.tailSet(new Trigger(range.min(), Long.MIN_VALUE), true), crossed);
+        drain(book.rising.headSet(new Trigger(range.max(), Long.MAX_VALUE), true), crossed);
+        return crossed;
+    }
+
+    private void drain(NavigableSet<Trigger> triggers, List<PendingOrder> crossed) {
+        Trigger trigger;
+        while ((trigger = triggers.pollFirst()) != null) {
+            PendingOrder order = pending.remove(trigger.orderId());
+            if (order != null) {
+                crossed.add(order);
+            }
+        }
+    }
+
+    private void execute(PendingOrder order) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 다른 노드에서 이미 실행되었거나 취소된 주문
+                if (conditionalOrderRepository.claim(order.id(), ConditionalOrder.Status.EXECUTED, null) == 0) {
+                    return;
+                }
+                if (order.type().isBuy()) {
+                    playerService.executeBuy(order.playerId(), order.stockId(), order.quantity());
+                } else {
+                    playerService.executeSell(order.playerId(), order.stockId(), order.quantity());
+                }
+            });
+            executed.increment();
+        } catch (ResponseException e) {
+            // 거래 정지(권리 조정 중): 정지가 풀리면서 발행되는 가격 변경에서 다시 평가한다.
+            if (e.getCode() == Error.TRADING_HALTED.getCode()) {
+                add(order);
+                return;
+            }
+            // 자금/수량 부족, 종목 삭제 등 다시 시도해도 실행할 수 없는 주문
+            failed.increment();
+            log.debug("ConditionalOrderService.execute: order {} failed: {}", order.id(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> conditionalOrderRepository.claim(order.id(),
+                    ConditionalOrder.Status.FAILED, e.getMessage()));
+        } catch (RuntimeException e) {
+            // DB 오류 등: 주문을 되돌려 놓고 다음 가격 변경에서 다시 평가한다.
+            log.error("ConditionalOrderService.execute: order {} error: {}", order.id(), e.getMessage());
+            add(order);
+        }
+    }
+
+    private void add(PendingOrder order) {
+        pending.put(order.id(), order);
+        books.computeIfAbsent(order.stockId(), id -> new Book()).side(order.type())
+                .add(new Trigger(order.triggerPrice(), order.id()));
+    }
+
+    private void remove(long orderId) {
+        PendingOrder order = pending.remove(orderId);
+        if (order == null) {
+            return;
+        }
+        Book book = books.get(order.stockId());
+        if (book != null) {
+            book.side(order.type()).remove(new Trigger(order.triggerPrice(), order.id()));
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.CorporateActionRequest;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.table.CorporateAction;
+import com.sk.skala.stockapi.data.table.CorporateActionChunk;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.exception.ParameterException;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.CorporateActionRepository;
+import com.sk.skala.stockapi.repository.SequenceIdAllocator;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.TransactionTool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 권리 조정 처리 (application.corporate-action)
+ * 1. PENDING -> HALTED: effectiveAt 이후 종목 거래를 정지한다.
+ * 2. HALTED -> RUNNING: halt-grace 동안 진행 중이던 매수/매도가 끝난 뒤, 한 트랜잭션에서 가격을 조정하고
+ *    보유 행(player_stock.id)을 keyset 구간 chunk 로 나눠 기록한다.
+ * 3. chunk 는 여러 worker 가 각각 짧은 트랜잭션의 집합 UPDATE 로 처리하며, 같은 트랜잭션에서 done 으로 표시한다.
+ *    (중단 후에는 남은 chunk 만 이어서 처리하고, 테이블 전체를 오래 잠그지 않는다)
+ * 4. RUNNING -> COMPLETED: 모든 chunk 가 끝나면 거래 정지를 풀고 변경을 알린다.
+ *
+ * 분할/병합으로 생기는 1주 미만은 조정 후 가격으로 현금 지급한다.
+ * 메모리 저장소(application.holdings.in-memory) 사용 중에는 DB 의 보유 수량이 최신이 아니므로 지원하지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CorporateActionService {
+
+    private final CorporateActionRepository corporateActionRepository;
+    private final StockRepository stockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final ChangeLogService changeLogService;
+    private final HoldingsStore holdingsStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties applicationProperties;
+
+    private ExecutorService coordinator;
+    private ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, applicationProperties.getCorporateAction().getParallelism());
+        AtomicInteger sequence = new AtomicInteger();
+        coordinator = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "corporate-action"));
+        workers = Executors.newFixedThreadPool(parallelism,
+                runnable -> daemon(runnable, "corporate-action-" + sequence.incrementAndGet()));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // =========================
+    // 등록 / 조회
+    // =========================
+    public Response createAction(CorporateActionRequest request) {
+        if (holdingsStore.isEnabled()) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "not supported with application.holdings.in-memory");
+        }
+        int ratioFrom = 1;
+        int ratioTo = 1;
+        long dividend = 0;
+        switch (request.getActionType()) {
+            case SPLIT, REVERSE_SPLIT -> {
+                if (request.getRatioFrom() == null || request.getRatioTo() == null) {
+                    throw new ParameterException("ratioFrom", "ratioTo");
+                }
+                ratioFrom = request.getRatioFrom();
+                ratioTo = request.getRatioTo();
+                boolean valid = ratioFrom >= 1 && ratioTo >= 1 && (request.getActionType() == CorporateAction.Type.SPLIT
+                        ? ratioTo > ratioFrom
+                        : ratioTo < ratioFrom);
+                if (!valid) {
+                    throw new ResponseException(Error.INVALID_PARAMETER, "ratioFrom, ratioTo");
+                }
+            }
+            case CASH_DIVIDEND -> {
+                if (request.getDividendPerShare() == null || request.getDividendPerShare() <= 0) {
+                    throw new ResponseException(Error.INVALID_PARAMETER, "dividendPerShare");
+                }
+                dividend = request.getDividendPerShare();
+            }
+        }
+
+        stockRepository.findById(request.getStockId())
+                .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
+        if (corporateActionRepository.existsByStockIdAndStatusIn(request.getStockId(), List.of(
+                CorporateAction.Status.PENDING, CorporateAction.Status.HALTED, CorporateAction.Status.RUNNING))) {
+            throw new ResponseException(Error.DATA_DUPLICATED, "corporate action in progress");
+        }
+
+        long effectiveAt = request.getEffectiveAt() != null ? request.getEffectiveAt() : System.currentTimeMillis();
+        CorporateAction saved = corporateActionRepository.save(new CorporateAction(request.getStockId(),
+                request.getActionType(), ratioFrom, ratioTo, dividend, effectiveAt));
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(saved)
+                .build();
+    }
+
+    public Response getActions() {
+        List<CorporateAction> actions = corporateActionRepository.findAllByOrderByIdDesc();
+        Map<Long, Long> done = new HashMap<>();
+        jdbcTemplate.query("SELECT action_id, COUNT(*) FROM corporate_action_chunk WHERE done = TRUE GROUP BY action_id",
+                rs -> {
+                    done.put(rs.getLong(1), rs.getLong(2));
+                });
+        actions.forEach(action -> action.setCompletedChunks(done.getOrDefault(action.getId(), 0L)));
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(actions)
+                .build();
+    }
+
+    // =========================
+    // 진행 (scheduler thread 를 막지 않도록 전용 thread 에서 실행)
+    // =========================
+    @Scheduled(fixedDelayString = "${application.corporate-action.poll-interval:5000}")
+    public void poll() {
+        if (!applicationProperties.getCorporateAction().isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        coordinator.execute(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                log.error("CorporateActionService.advance: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private void advance() {
+        long now = System.currentTimeMillis();
+        long grace = applicationProperties.getCorporateAction().getHaltGrace();
+
+        for (CorporateAction action : corporateActionRepository.findByStatusOrderById(CorporateAction.Status.PENDING)) {
+            if (action.getEffectiveAt() <= now) {
+                halt(action);
+            }
+        }
+        for (CorporateAction action : corporateActionRepository.findByStatusOrderById(CorporateAction.Status.HALTED)) {
+            if (action.getHaltedAt() + grace <= now) {
+                prepare(action);
+            }
+        }
+        for (CorporateAction action : corporateActionRepository.findByStatusOrderById(CorporateAction.Status.RUNNING)) {
+            process(action);
+        }
+    }
+
+    // 1. 거래 정지
+    private void halt(CorporateAction action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            if (jdbcTemplate.update("UPDATE corporate_action SET status = 'HALTED', halted_at = ?"
+                    + " WHERE id = ? AND status = 'PENDING'", now, action.getId()) == 0) {
+                return;
+            }
+            if (jdbcTemplate.update("UPDATE stock SET trading_halted = TRUE, updated_at = ? WHERE id = ?", now,
+                    action.getStockId()) == 0) {
+                fail(action, "stock not found");
+                return;
+            }
+            changeLogService.stockChanged(action.getStockId());
+            refreshQuote(action.getStockId());
+        });
+        log.info("CorporateActionService.halt: action {} stock {}", action.getId(), action.getStockId());
+    }
+
+    // 2. 가격 조정 + chunk 계획 (한 트랜잭션)
+    private void prepare(CorporateAction action) {
+        int chunkSize = Math.max(1, applicationProperties.getCorporateAction().getChunkSize());
+        transactionTemplate.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            if (jdbcTemplate.update("UPDATE corporate_action SET status = 'RUNNING'"
+                    + " WHERE id = ? AND status = 'HALTED'", action.getId()) == 0) {
+                return;
+            }
+
+            List<Long> prices = jdbcTemplate.queryForList("SELECT stock_price FROM stock WHERE id = ?", Long.class,
+                    action.getStockId());
+            if (prices.isEmpty()) {
+                fail(action, "stock not found");
+                return;
+            }
+            long before = prices.get(0);
+            long after = action.getActionType() == CorporateAction.Type.CASH_DIVIDEND
+                    ? before
+                    : Math.max(1, before * action.getRatioFrom() / action.getRatioTo());
+            jdbcTemplate.update("UPDATE stock SET stock_price = ?, updated_at = ? WHERE id = ?", after, now,
+                    action.getStockId());
+
+            // keyset: (lo, hi] 마다 chunkSize 행. 마지막 chunk 는 상한 없이 둔다.
+            List<Object[]> chunks = new ArrayList<>();
+            long lo = 0;
+            while (true) {
+                List<Long> hi = jdbcTemplate.queryForList("SELECT id FROM player_stock WHERE stock_id = ? AND id > ?"
+                        + " ORDER BY id OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY", Long.class, action.getStockId(), lo,
+                        chunkSize - 1);
+                long upper = hi.isEmpty() ? Long.MAX_VALUE : hi.get(0);
+                chunks.add(new Object[] { sequenceIdAllocator.next(CorporateActionChunk.SEQUENCE), action.getId(),
+                        chunks.size(), lo, upper });
+                if (hi.isEmpty()) {
+                    break;
+                }
+                lo = upper;
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO corporate_action_chunk"
+                    + " (id, action_id, chunk_no, lo_id, hi_id, done, completed_at) VALUES (?, ?, ?, ?, ?, FALSE, 0)",
+                    chunks);
+            jdbcTemplate.update("UPDATE corporate_action SET price_before = ?, price_after = ?, chunks = ? WHERE id = ?",
+                    before, after, chunks.size(), action.getId());
+            changeLogService.stockChanged(action.getStockId());
+            refreshQuote(action.getStockId());
+
+            log.info("CorporateActionService.prepare: action {} price {} -> {}, {} chunks", action.getId(), before,
+                    after, chunks.size());
+        });
+    }
+
+    // 3. 남은 chunk 병렬 처리 후 4. 완료
+    private void process(CorporateAction action) {
+        List<long[]> chunks = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, lo_id, hi_id FROM corporate_action_chunk WHERE action_id = ? AND done = FALSE"
+                + " ORDER BY chunk_no", rs -> {
+                    chunks.add(new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) });
+                }, action.getId());
+
+        List<Future<?>> futures = new ArrayList<>(chunks.size());
+        for (long[] chunk : chunks) {
+            Callable<Void> task = () -> {
+                transactionTemplate.executeWithoutResult(status -> applyChunk(action, chunk[0], chunk[1], chunk[2]));
+                return null;
+            };
+            futures.add(workers.submit(task));
+        }
+
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+                log.error("CorporateActionService.process: action {} chunk failed: {}", action.getId(),
+                        e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failed > 0) {
+            // done 이 아닌 chunk 는 다음 poll 에서 다시 처리한다.
+            jdbcTemplate.update("UPDATE corporate_action SET message = ? WHERE id = ?",
+                    failed + " chunks failed, retrying", action.getId());
+            return;
+        }
+
+        complete(action);
+    }
+
+    private void applyChunk(CorporateAction action, long chunkId, long lo, long hi) {
+        // 처리와 checkpoint 를 같은 트랜잭션에: 다른 worker/노드가 먼저 처리한 chunk 는 0 건
+        long now = System.currentTimeMillis();
+        if (jdbcTemplate.update("UPDATE corporate_action_chunk SET done = TRUE, completed_at = ?"
+                + " WHERE id = ? AND done = FALSE", now, chunkId) == 0) {
+            return;
+        }
+
+        long stockId = action.getStockId();
+        String holders = "SELECT ps.player_id FROM player_stock ps WHERE ps.stock_id = ? AND ps.id > ? AND ps.id <= ?";
+
+        if (action.getActionType() == CorporateAction.Type.CASH_DIVIDEND) {
+            jdbcTemplate.update("UPDATE player p SET player_money = player_money + (SELECT CAST(ps.quantity AS BIGINT) * ?"
+                    + " FROM player_stock ps WHERE ps.player_id = p.player_id AND ps.stock_id = ?), updated_at = ?"
+                    + " WHERE p.player_id IN (" + holders + ")",
+                    action.getDividendPerShare(), stockId, now, stockId, lo, hi);
+            return;
+        }
+
+        long from = action.getRatioFrom();
+        long to = action.getRatioTo();
+        // 1주 미만: (quantity * to mod from) / from 주를 조정 후 가격으로 지급
+        jdbcTemplate.update("UPDATE player p SET player_money = player_money"
+                + " + (SELECT MOD(CAST(ps.quantity AS BIGINT) * ?, ?) * ? / ? FROM player_stock ps"
+                + " WHERE ps.player_id = p.player_id AND ps.stock_id = ?), updated_at = ?"
+                + " WHERE p.player_id IN (" + holders + ")",
+                to, from, action.getPriceAfter(), from, stockId, now, stockId, lo, hi);
+        jdbcTemplate.update("UPDATE player_stock SET quantity = CAST(quantity AS BIGINT) * ? / ?"
+                + " WHERE stock_id = ? AND id > ? AND id <= ?", to, from, stockId, lo, hi);
+        jdbcTemplate.update("DELETE FROM player_stock WHERE stock_id = ? AND id > ? AND id <= ? AND quantity = 0",
+                stockId, lo, hi);
+    }
+
+    private void complete(CorporateAction action) {
+        List<Map<String, Object>> stock = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            if (jdbcTemplate.update("UPDATE corporate_action SET status = 'COMPLETED', completed_at = ?, message = NULL"
+                    + " WHERE id = ? AND status = 'RUNNING' AND NOT EXISTS (SELECT 1 FROM corporate_action_chunk c"
+                    + " WHERE c.action_id = ? AND c.done = FALSE)", now, action.getId(), action.getId()) == 0) {
+                return;
+            }
+            jdbcTemplate.update("UPDATE stock SET trading_halted = FALSE, updated_at = ? WHERE id = ?", now,
+                    action.getStockId());
+            stock.addAll(jdbcTemplate.queryForList("SELECT stock_name, stock_price FROM stock WHERE id = ?",
+                    action.getStockId()));
+
+            changeLogService.stockChanged(action.getStockId());
+            changeLogService.allChanged(EntityChange.Type.PLAYER);
+            refreshQuote(action.getStockId());
+            if (!stock.isEmpty()) {
+                String name = (String) stock.get(0).get("stock_name");
+                long price = ((Number) stock.get(0).get("stock_price")).longValue();
+                TransactionTool.afterCommit(() -> eventPublisher.publishEvent(
+                        new StockChangedEvent(action.getStockId(), name, price, false)));
+            }
+        });
+        log.info("CorporateActionService.complete: action {} stock {}", action.getId(), action.getStockId());
+    }
+
+    // 로컬 변경은 CacheInvalidationListener 가 메모리 저장소에 반영하지 않으므로 커밋 후 직접 다시 읽는다.
+    // (다른 노드에서 등록된 권리 조정도 이 노드의 poll 에서 진행될 수 있음)
+    private void refreshQuote(long stockId) {
+        if (holdingsStore.isEnabled()) {
+            TransactionTool.afterCommit(() -> holdingsStore.refreshStock(stockId));
+        }
+    }
+
+    // 종목이 없어진 경우: 정지 해제 없이 실패로 남긴다.
+    private void fail(CorporateAction action, String message) {
+        jdbcTemplate.update("UPDATE corporate_action SET status = 'FAILED', message = ? WHERE id = ?", message,
+                action.getId());
+        log.warn("CorporateActionService: action {} failed: {}", action.getId(), message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sk.skala.stockapi.service;
+
+import com.sk.skala.stockapi.data.table.EntityChange;
+
+/**
+ * 커밋된 Stock / Player 변경 (ChangeLogService 가 발행)
+ * remote 가 true 이면 다른 노드에서 기록되어 change-log tail 로 전달된 변경이다.
+ */
+public record EntityChangedEvent(EntityChange.Type type, String entityId, boolean remote) {
+
+    public boolean isAll() {
+        return EntityChange.ALL.equals(entityId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sk.skala.stockapi.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.stockapi.data.dto.PlayerHoldingRow;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 전체 데이터 덤프(export) 서비스
+ * forward-only 스트림으로 읽은 행을 그대로 출력 스트림에 기록하므로 heap 사용량은 데이터 크기와 무관하다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class ExportService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int FLUSH_EVERY = 1000;
+
+    private final PlayerRepository playerRepository;
+
+    // =========================
+    // 플레이어 + 보유 주식 NDJSON export (플레이어 1명 = 1줄)
+    // =========================
+    public long exportPlayers(OutputStream out) throws IOException {
+        long players = 0;
+
+        try (Stream<PlayerHoldingRow> rows = playerRepository.streamAllWithHoldings();
+                JsonGenerator gen = MAPPER.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null); // 줄 구분은 endPlayer()에서 '\n'으로 직접 기록
+
+            String current = null;
+            Iterator<PlayerHoldingRow> it = rows.iterator();
+            while (it.hasNext()) {
+                PlayerHoldingRow row = it.next();
+
+                if (!row.getPlayerId().equals(current)) {
+                    if (current != null) {
+                        endPlayer(gen);
+                        if (++players % FLUSH_EVERY == 0) {
+                            gen.flush();
+                        }
+                    }
+                    current = row.getPlayerId();
+                    gen.writeStartObject();
+                    gen.writeStringField("playerId", row.getPlayerId());
+                    gen.writeFieldName("playerMoney");
+                    gen.writeNumber(MoneyTool.toDecimal(row.getPlayerMoney()));
+                    gen.writeArrayFieldStart("stocks");
+                }
+
+                if (row.getStockId() != null) {
+                    gen.writeStartObject();
+                    gen.writeNumberField("stockId", row.getStockId());
+                    gen.writeStringField("stockName", row.getStockName());
+                    gen.writeFieldName("stockPrice");
+                    gen.writeNumber(MoneyTool.toDecimal(row.getStockPrice()));
+                    gen.writeObjectField("quantity", row.getQuantity());
+                    gen.writeEndObject();
+                }
+            }
+
+            if (current != null) {
+                endPlayer(gen);
+                players++;
+            }
+            gen.flush();
+        }
+
+        log.info("ExportService.exportPlayers: {} players", players);
+        return players;
+    }
+
+    private void endPlayer(JsonGenerator gen) throws IOException {
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+}
@@ -0,0 +1,447 @@
+package com.sk.skala.stockapi.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PlayerStockDto;
+import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.SequenceIdAllocator;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.PositionMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메모리 기반 보유 주식 저장소 (application.holdings.in-memory=true 일 때만 사용)
+ * 플레이어별 자금(long)과 보유 수량(PositionMap)을 메모리에서 관리하며, 조회와 주문 검증은 SQL 없이 처리한다.
+ * 변경된 플레이어는 dirty 로 표시되고 flush 주기마다 batch 로 DB 에 반영된다.
+ */
+@Component
+@DependsOn("schemaMigration")
+@RequiredArgsConstructor
+@Slf4j
+public class HoldingsStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final ApplicationProperties applicationProperties;
+    private final MarketSnapshotService marketSnapshotService;
+    private final ChangeLogService changeLogService;
+
+    private final Map<String, PlayerBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, StockQuote> catalog = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // halted: 권리 조정 중 거래 정지 (stock.trading_halted)
+    public record StockQuote(long id, String name, long price, boolean halted) {
+    }
+
+    private static final String QUOTE_COLUMNS = "id, stock_name, stock_price, trading_halted";
+
+    private static StockQuote quote(ResultSet rs) throws SQLException {
+        return new StockQuote(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getBoolean(4));
+    }
+
+    // 플레이어 1명의 자금과 보유 수량. 접근 시 book 자체로 동기화한다.
+    private static class PlayerBook {
+        long cash;
+        final PositionMap positions;
+
+        PlayerBook(long cash, int denseLimit) {
+            this.cash = cash;
+            this.positions = new PositionMap(denseLimit);
+        }
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.getHoldings().isInMemory();
+    }
+
+    // =========================
+    // 적재
+    // =========================
+    @PostConstruct
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        String source = "snapshot";
+        if (!loadSnapshot()) {
+            source = "database";
+            loadAll();
+        }
+
+        long[] positions = new long[1];
+        books.values().forEach(book -> positions[0] += book.positions.size());
+        log.info("HoldingsStore.load: {} stocks, {} players, {} positions from {} ({} ms)", catalog.size(),
+                books.size(), positions[0], source, System.currentTimeMillis() - startedAt);
+    }
+
+    private void clear() {
+        catalog.clear();
+        books.clear();
+        dirty.clear();
+    }
+
+    private void loadAll() {
+        clear();
+        int denseLimit = applicationProperties.getHoldings().getDenseStockIdLimit();
+
+        jdbcTemplate.query("SELECT " + QUOTE_COLUMNS + " FROM stock", rs -> {
+            catalog.put(rs.getLong(1), quote(rs));
+        });
+        jdbcTemplate.query("SELECT player_id, player_money FROM player", rs -> {
+            books.put(rs.getString(1), new PlayerBook(rs.getLong(2), denseLimit));
+        });
+        jdbcTemplate.query("SELECT player_id, stock_id, quantity FROM player_stock", rs -> {
+            addLoaded(rs.getString(1), rs.getLong(2), rs.getInt(3));
+        });
+    }
+
+    // 스냅샷 적재 후 high-water mark - reconcile-window 이후 변경된 행만 DB 에서 다시 읽는다.
+    // 삭제된 행은 updated_at 으로 추적할 수 없으므로 건수/종목 id 가 DB 와 다르면 전체 적재로 돌아간다.
+    private boolean loadSnapshot() {
+        if (!marketSnapshotService.isEnabled()) {
+            return false;
+        }
+
+        clear();
+        int denseLimit = applicationProperties.getHoldings().getDenseStockIdLimit();
+        MarketSnapshotService.Header header = marketSnapshotService.read(new MarketSnapshotService.Visitor() {
+            @Override
+            public void stock(long stockId, String stockName, long stockPrice) {
+                catalog.put(stockId, new StockQuote(stockId, stockName, stockPrice, false));
+            }
+
+            @Override
+            public void player(String playerId, long playerMoney) {
+                books.put(playerId, new PlayerBook(playerMoney, denseLimit));
+            }
+
+            @Override
+            public void position(String playerId, long stockId, int quantity) {
+                addLoaded(playerId, stockId, quantity);
+            }
+        });
+        if (header == null) {
+            clear();
+            return false;
+        }
+
+        long dbMark = marketSnapshotService.highWaterMark();
+        if (dbMark < header.highWaterMark()) {
+            log.warn("HoldingsStore.loadSnapshot: database mark {} is older than snapshot mark {}", dbMark,
+                    header.highWaterMark());
+            clear();
+            return false;
+        }
+
+        long since = header.highWaterMark() - applicationProperties.getSnapshot().getReconcileWindow();
+        int[] changed = new int[2];
+        jdbcTemplate.query("SELECT " + QUOTE_COLUMNS + " FROM stock WHERE updated_at >= ?", rs -> {
+            catalog.put(rs.getLong(1), quote(rs));
+            changed[0]++;
+        }, since);
+        // 스냅샷에는 거래 정지 여부가 없으므로 구간 밖에서 정지된 종목도 표시한다.
+        jdbcTemplate.query("SELECT id FROM stock WHERE trading_halted = TRUE", rs -> {
+            catalog.computeIfPresent(rs.getLong(1), (id, q) -> new StockQuote(id, q.name(), q.price(), true));
+        });
+        jdbcTemplate.query("SELECT player_id, player_money FROM player WHERE updated_at >= ?", rs -> {
+            books.put(rs.getString(1), new PlayerBook(rs.getLong(2), denseLimit));
+            changed[1]++;
+        }, since);
+        jdbcTemplate.query("SELECT ps.player_id, ps.stock_id, ps.quantity FROM player_stock ps"
+                + " JOIN player p ON p.player_id = ps.player_id WHERE p.updated_at >= ?", rs -> {
+                    addLoaded(rs.getString(1), rs.getLong(2), rs.getInt(3));
+                }, since);
+
+        List<Long> stockIds = jdbcTemplate.queryForList("SELECT id FROM stock", Long.class);
+        Long playerCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player", Long.class);
+        if (stockIds.size() != catalog.size() || !catalog.keySet().containsAll(stockIds)
+                || playerCount == null || playerCount != books.size()) {
+            log.info("HoldingsStore.loadSnapshot: rows deleted since snapshot, falling back to full load");
+            clear();
+            return false;
+        }
+
+        log.info("HoldingsStore.loadSnapshot: snapshot mark {}, reconciled {} stocks and {} players",
+                header.highWaterMark(), changed[0], changed[1]);
+        return true;
+    }
+
+    private void addLoaded(String playerId, long stockId, int quantity) {
+        PlayerBook book = books.get(playerId);
+        if (book != null && quantity > 0) {
+            book.positions.add(stockId, quantity);
+        }
+    }
+
+    // =========================
+    // 조회
+    // =========================
+    public PlayerStockListDto getPortfolio(String playerId) {
+        PlayerBook book = books.get(playerId);
+        if (book == null) {
+            return null;
+        }
+
+        List<PlayerStockDto> stocks = new ArrayList<>();
+        long cash;
+        synchronized (book) {
+            cash = book.cash;
+            book.positions.forEach((stockId, quantity) -> {
+                StockQuote quote = catalog.get(stockId);
+                stocks.add(PlayerStockDto.builder()
+                        .stockId(stockId)
+                        .stockName(quote == null ? null : quote.name())
+                        .stockPrice(quote == null ? 0 : quote.price())
+                        .quantity(quantity)
+                        .build());
+            });
+        }
+
+        return PlayerStockListDto.builder()
+                .playerId(playerId)
+                .playerMoney(cash)
+                .stocks(stocks)
+                .build();
+    }
+
+    // =========================
+    // 매수 / 매도
+    // =========================
+    public void buy(String playerId, long stockId, int quantity) {
+        PlayerBook book = requireBook(playerId);
+        long totalPrice = MoneyTool.multiply(requireTradable(stockId).price(), quantity);
+
+        synchronized (book) {
+            if (book.cash < totalPrice) {
+                throw new ResponseException(Error.INSUFFICIENT_FUNDS);
+            }
+            book.positions.add(stockId, quantity);
+            book.cash -= totalPrice;
+        }
+        dirty.add(playerId);
+    }
+
+    public void sell(String playerId, long stockId, int quantity) {
+        PlayerBook book = requireBook(playerId);
+        long totalPrice = MoneyTool.multiply(requireTradable(stockId).price(), quantity);
+
+        synchronized (book) {
+            if (book.positions.get(stockId) < quantity) {
+                throw new ResponseException(Error.INSUFFICIENT_QUANTITY);
+            }
+            book.positions.add(stockId, -quantity);
+            book.cash += totalPrice;
+        }
+        dirty.add(playerId);
+    }
+
+    // 두 book 을 항상 playerId 순서로 잠가 반대 방향 이전이 동시에 와도 교착되지 않게 한다.
+    public void transfer(String fromPlayerId, String toPlayerId, Long stockId, int quantity, long money) {
+        PlayerBook from = requireBook(fromPlayerId);
+        PlayerBook to = requireBook(toPlayerId);
+        if (quantity > 0) {
+            requireTradable(stockId);
+        }
+
+        boolean fromFirst = fromPlayerId.compareTo(toPlayerId) < 0;
+        PlayerBook first = fromFirst ? from : to;
+        PlayerBook second = fromFirst ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                if (quantity > 0 && from.positions.get(stockId) < quantity) {
+                    throw new ResponseException(Error.INSUFFICIENT_QUANTITY);
+                }
+                if (from.cash < money) {
+                    throw new ResponseException(Error.INSUFFICIENT_FUNDS);
+                }
+                if (quantity > 0) {
+                    from.positions.add(stockId, -quantity);
+                    to.positions.add(stockId, quantity);
+                }
+                from.cash -= money;
+                to.cash += money;
+            }
+        }
+        dirty.add(fromPlayerId);
+        dirty.add(toPlayerId);
+    }
+
+    private PlayerBook requireBook(String playerId) {
+        PlayerBook book = books.get(playerId);
+        if (book == null) {
+            throw new ResponseException(Error.DATA_NOT_FOUND);
+        }
+        return book;
+    }
+
+    // 정지 여부는 DB 경로와 같이 주문 시점의 값으로 확인한다. (정지 후 halt-grace 동안 진행 중인 주문이 끝남)
+    private StockQuote requireTradable(long stockId) {
+        StockQuote quote = catalog.get(stockId);
+        if (quote == null) {
+            throw new ResponseException(Error.DATA_NOT_FOUND);
+        }
+        if (quote.halted()) {
+            throw new ResponseException(Error.TRADING_HALTED);
+        }
+        return quote;
+    }
+
+    // =========================
+    // JPA / JDBC 경로에서 DB 에 먼저 반영된 변경 (커밋 후 호출)
+    // =========================
+    public void putPlayer(String playerId, long cash) {
+        PlayerBook book = books.computeIfAbsent(playerId,
+                id -> new PlayerBook(cash, applicationProperties.getHoldings().getDenseStockIdLimit()));
+        synchronized (book) {
+            book.cash = cash;
+        }
+        dirty.add(playerId);
+    }
+
+    public void removePlayer(String playerId) {
+        books.remove(playerId);
+        dirty.remove(playerId);
+    }
+
+    public void addPosition(String playerId, long stockId, int quantity) {
+        PlayerBook book = books.get(playerId);
+        if (book != null) {
+            synchronized (book) {
+                book.positions.add(stockId, quantity);
+            }
+            // flush 가 같은 플레이어의 행을 다시 쓰더라도 메모리 상태와 일치하도록 표시
+            dirty.add(playerId);
+        }
+    }
+
+    // 이름/가격만 바꾸고 거래 정지 여부는 유지한다. (정지/해제는 refreshStock 으로 DB 에서 읽음)
+    public void putStock(long stockId, String stockName, long stockPrice) {
+        catalog.compute(stockId, (id, q) -> new StockQuote(id, stockName, stockPrice, q != null && q.halted()));
+    }
+
+    public void removeStock(long stockId) {
+        catalog.remove(stockId);
+    }
+
+    // 다른 노드에서 바뀐 종목 정보와 권리 조정의 거래 정지/해제를 DB 에서 다시 읽는다.
+    public void refreshStock(long stockId) {
+        List<StockQuote> quotes = jdbcTemplate.query("SELECT " + QUOTE_COLUMNS + " FROM stock WHERE id = ?",
+                (rs, i) -> quote(rs), stockId);
+        if (quotes.isEmpty()) {
+            catalog.remove(stockId);
+        } else {
+            catalog.put(stockId, quotes.get(0));
+        }
+    }
+
+    public void refreshCatalog() {
+        Map<Long, StockQuote> fresh = new HashMap<>();
+        jdbcTemplate.query("SELECT " + QUOTE_COLUMNS + " FROM stock", rs -> {
+            fresh.put(rs.getLong(1), quote(rs));
+        });
+        catalog.putAll(fresh);
+        catalog.keySet().retainAll(fresh.keySet());
+    }
+
+    // =========================
+    // 비동기 DB 반영
+    // =========================
+    @Scheduled(fixedDelayString = "${application.holdings.flush-interval:500}")
+    public void flush() {
+        if (!isEnabled() || dirty.isEmpty()) {
+            return;
+        }
+
+        int batchSize = Math.max(1, applicationProperties.getHoldings().getFlushBatchSize());
+        List<String> batch = new ArrayList<>(batchSize);
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // 플레이어 자금을 갱신하고 보유 주식 행은 삭제 후 다시 insert 한다.
+    private void write(List<String> playerIds) {
+        List<Object[]> money = new ArrayList<>(playerIds.size());
+        List<Object[]> owners = new ArrayList<>(playerIds.size());
+        List<Object[]> positions = new ArrayList<>();
+
+        for (String playerId : playerIds) {
+            PlayerBook book = books.get(playerId);
+            if (book == null) {
+                continue;
+            }
+            synchronized (book) {
+                money.add(new Object[] { book.cash, null, playerId });
+                owners.add(new Object[] { playerId });
+                book.positions.forEach((stockId, quantity) -> {
+                    if (catalog.containsKey(stockId)) {
+                        positions.add(new Object[] { null, playerId, stockId, quantity });
+                    }
+                });
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (Object[] row : money) {
+            row[1] = now;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("UPDATE player SET player_money = ?, updated_at = ? WHERE player_id = ?",
+                        money);
+                jdbcTemplate.batchUpdate("DELETE FROM player_stock WHERE player_id = ?", owners);
+                for (Object[] row : positions) {
+                    row[0] = sequenceIdAllocator.next(PlayerStock.SEQUENCE);
+                }
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO player_stock (id, player_id, stock_id, quantity) VALUES (?, ?, ?, ?)", positions);
+                // 다른 노드에는 DB 에 반영되는 시점에 전달한다.
+                changeLogService.playersChanged(playerIds);
+            });
+        } catch (RuntimeException e) {
+            log.error("HoldingsStore.write: {} players will be retried: {}", playerIds.size(), e.getMessage());
+            dirty.addAll(playerIds);
+        }
+    }
+}
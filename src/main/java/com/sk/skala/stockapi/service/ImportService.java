@@ -0,0 +1,505 @@
+package com.sk.skala.stockapi.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Constant;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.ImportChunkReport;
+import com.sk.skala.stockapi.data.dto.ImportResult;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ParameterException;
+import com.sk.skala.stockapi.repository.SequenceIdAllocator;
+import com.sk.skala.stockapi.tools.CsvTool;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.StringTool;
+import com.sk.skala.stockapi.tools.TransactionTool;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock / Player / PlayerStock 대량 등록 서비스
+ * CSV 또는 NDJSON 스트림을 한 줄씩 읽어 청크 단위로 검증, 중복 제거 후 JDBC batch insert 한다.
+ * 메모리 사용량은 청크 크기에만 비례하며, 청크마다 별도의 트랜잭션으로 커밋된다.
+ * 플레이어 비밀번호는 트랜잭션 밖에서 PasswordHasher 로 해시한 뒤 저장한다. (BCrypt 형식의 값은 그대로 저장)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final HoldingsStore holdingsStore;
+    private final ChangeLogService changeLogService;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationProperties applicationProperties;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        static Format of(String contentType) {
+            if (contentType != null) {
+                String type = contentType.toLowerCase();
+                if (type.startsWith(Constant.CONTENT_TYPE_CSV)) {
+                    return CSV;
+                }
+                if (type.startsWith(Constant.CONTENT_TYPE_NDJSON) || type.startsWith("application/ndjson")) {
+                    return NDJSON;
+                }
+            }
+            throw new ParameterException(Error.INVALID_PARAMETER.getCode(),
+                    Error.INVALID_PARAMETER.getMessage() + ": Content-Type " + contentType);
+        }
+    }
+
+    // =========================
+    // 대량 등록 (stocks | players | holdings)
+    // =========================
+    public Response importRows(String target, String contentType, InputStream in) throws IOException {
+        Format format = Format.of(contentType);
+        Loader<?> loader = switch (target == null ? "" : target.toLowerCase()) {
+            case "stocks" -> new StockLoader();
+            case "players" -> new PlayerLoader();
+            case "holdings" -> new HoldingLoader();
+            default -> throw new ParameterException(Error.INVALID_PARAMETER.getCode(),
+                    Error.INVALID_PARAMETER.getMessage() + ": target " + target);
+        };
+
+        ImportResult result = run(loader, format, in);
+        result.setTarget(target.toLowerCase());
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(result)
+                .build();
+    }
+
+    private <T> ImportResult run(Loader<T> loader, Format format, InputStream in) throws IOException {
+        int chunkSize = Math.max(1, applicationProperties.getBulk().getChunkSize());
+        long startedAt = System.currentTimeMillis();
+
+        ImportResult result = ImportResult.builder().format(format.name()).build();
+        RecordReader records = (format == Format.CSV) ? new CsvRecordReader() : new NdjsonRecordReader();
+
+        List<T> rows = new ArrayList<>(chunkSize);
+        ImportChunkReport report = newReport(0, 1);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || records.accept(line)) {
+                    continue;
+                }
+
+                if (report.getRows() == 0) {
+                    report.setFirstLine(lineNo);
+                }
+                report.setRows(report.getRows() + 1);
+
+                try {
+                    rows.add(loader.parse(records, lineNo));
+                } catch (IllegalArgumentException e) {
+                    reject(report, lineNo, e.getMessage());
+                }
+
+                if (report.getRows() >= chunkSize) {
+                    flush(loader, rows, report, result, startedAt);
+                    report = newReport(report.getChunk() + 1, lineNo + 1);
+                }
+            }
+        }
+
+        if (report.getRows() > 0) {
+            flush(loader, rows, report, result, startedAt);
+        }
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        result.setElapsedMillis(elapsed);
+        result.setRowsPerSecond(result.getRows() * 1000 / Math.max(1, elapsed));
+        return result;
+    }
+
+    private <T> void flush(Loader<T> loader, List<T> rows, ImportChunkReport report, ImportResult result,
+            long startedAt) {
+        long chunkStartedAt = System.currentTimeMillis();
+        if (!rows.isEmpty()) {
+            int failedBefore = report.getFailed();
+            int errorsBefore = report.getErrors().size();
+            try {
+                loader.prepare(rows);
+                transactionTemplate.executeWithoutResult(status -> loader.write(rows, report));
+            } catch (RuntimeException e) {
+                // 청크 전체가 롤백되므로 파싱을 통과한 행은 모두 실패로 집계한다.
+                log.warn("ImportService.flush: chunk {} rolled back: {}", report.getChunk(), e.getMessage());
+                report.setInserted(0);
+                report.setSkipped(0);
+                report.setFailed(failedBefore + rows.size());
+                report.getErrors().subList(errorsBefore, report.getErrors().size()).clear();
+                addError(report, "chunk rolled back: " + e.getMessage());
+            }
+        }
+        report.setElapsedMillis(System.currentTimeMillis() - chunkStartedAt);
+        rows.clear();
+
+        result.setRows(result.getRows() + report.getRows());
+        result.setInserted(result.getInserted() + report.getInserted());
+        result.setSkipped(result.getSkipped() + report.getSkipped());
+        result.setFailed(result.getFailed() + report.getFailed());
+        result.getChunks().add(report);
+
+        log.info("import chunk {}: rows={} inserted={} skipped={} failed={} total={} ({} ms)", report.getChunk(),
+                report.getRows(), report.getInserted(), report.getSkipped(), report.getFailed(), result.getRows(),
+                System.currentTimeMillis() - startedAt);
+    }
+
+    private ImportChunkReport newReport(int chunk, long firstLine) {
+        return ImportChunkReport.builder().chunk(chunk).firstLine(firstLine).build();
+    }
+
+    private void reject(ImportChunkReport report, long lineNo, String reason) {
+        report.setFailed(report.getFailed() + 1);
+        addError(report, "line " + lineNo + ": " + reason);
+    }
+
+    private void addError(ImportChunkReport report, String error) {
+        if (report.getErrors().size() < applicationProperties.getBulk().getMaxErrorsPerChunk()) {
+            report.getErrors().add(error);
+        }
+    }
+
+    private static String required(RecordReader records, String field) {
+        String value = records.get(field);
+        if (StringTool.isEmpty(value)) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static long parseMoney(String field, String value, boolean positive) {
+        long money;
+        try {
+            money = MoneyTool.fromDecimal(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(field + " is not a valid amount: " + value);
+        }
+        if (positive ? money <= 0 : money < 0) {
+            throw new IllegalArgumentException(field + " out of range: " + value);
+        }
+        return money;
+    }
+
+    // =========================
+    // 입력 포맷별 레코드 reader
+    // =========================
+    private interface RecordReader {
+        // 헤더 등 데이터가 아닌 라인이면 true, 데이터 라인이면 현재 레코드로 파싱하고 false
+        boolean accept(String line);
+
+        String get(String field);
+    }
+
+    private static class CsvRecordReader implements RecordReader {
+        private Map<String, Integer> header;
+        private String[] values;
+
+        @Override
+        public boolean accept(String line) {
+            if (header == null) {
+                String[] names = CsvTool.split(line);
+                header = new HashMap<>();
+                for (int i = 0; i < names.length; i++) {
+                    header.put(names[i], i);
+                }
+                return true;
+            }
+            values = CsvTool.split(line);
+            return false;
+        }
+
+        @Override
+        public String get(String field) {
+            Integer index = header.get(field);
+            return (index == null || index >= values.length) ? null : values[index];
+        }
+    }
+
+    private static class NdjsonRecordReader implements RecordReader {
+        private JsonNode node;
+
+        @Override
+        public boolean accept(String line) {
+            try {
+                node = MAPPER.readTree(line);
+            } catch (JsonProcessingException e) {
+                node = null;
+            }
+            return false;
+        }
+
+        @Override
+        public String get(String field) {
+            if (node == null) {
+                throw new IllegalArgumentException("invalid json");
+            }
+            JsonNode value = node.get(field);
+            return (value == null || value.isNull()) ? null : value.asText().trim();
+        }
+    }
+
+    // =========================
+    // 대상 테이블별 loader
+    // =========================
+    private abstract static class Loader<T> {
+        abstract T parse(RecordReader records, long lineNo);
+
+        // 트랜잭션 전에 호출된다. connection 을 잡지 않고 해야 하는 계산(비밀번호 해시 등)
+        void prepare(List<T> rows) {
+        }
+
+        // 트랜잭션 안에서 호출된다. 중복/참조 오류는 report에 기록하고 나머지를 batch insert 한다.
+        abstract void write(List<T> rows, ImportChunkReport report);
+    }
+
+    private record StockRow(long line, String stockName, long stockPrice) {
+    }
+
+    private record PlayerRow(long line, String playerId, String playerPassword, long playerMoney) {
+    }
+
+    private record HoldingRow(long line, String playerId, long stockId, int quantity) {
+    }
+
+    private class StockLoader extends Loader<StockRow> {
+        @Override
+        StockRow parse(RecordReader records, long lineNo) {
+            String name = required(records, "stockName");
+            long price = parseMoney("stockPrice", required(records, "stockPrice"), true);
+            return new StockRow(lineNo, name, price);
+        }
+
+        @Override
+        void write(List<StockRow> rows, ImportChunkReport report) {
+            Map<String, StockRow> unique = new LinkedHashMap<>();
+            for (StockRow row : rows) {
+                if (unique.putIfAbsent(row.stockName(), row) != null) {
+                    report.setSkipped(report.getSkipped() + 1);
+                }
+            }
+
+            List<String> existing = namedParameterJdbcTemplate.queryForList(
+                    "SELECT stock_name FROM stock WHERE stock_name IN (:names)",
+                    Map.of("names", unique.keySet()), String.class);
+            for (String name : existing) {
+                unique.remove(name);
+                report.setSkipped(report.getSkipped() + 1);
+            }
+
+            long now = System.currentTimeMillis();
+            List<Object[]> args = new ArrayList<>(unique.size());
+            for (StockRow row : unique.values()) {
+                args.add(new Object[] { sequenceIdAllocator.next(Stock.SEQUENCE), row.stockName(), row.stockPrice(),
+                        now });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO stock (id, stock_name, stock_price, updated_at) VALUES (?, ?, ?, ?)", args);
+            report.setInserted(args.size());
+            // chunk 단위로 종류 전체 변경을 한 건 기록한다.
+            if (!args.isEmpty()) {
+                changeLogService.allChanged(EntityChange.Type.STOCK);
+            }
+
+            if (holdingsStore.isEnabled()) {
+                TransactionTool.afterCommit(() -> args.forEach(
+                        a -> holdingsStore.putStock((Long) a[0], (String) a[1], (Long) a[2])));
+            }
+        }
+    }
+
+    private class PlayerLoader extends Loader<PlayerRow> {
+        @Override
+        PlayerRow parse(RecordReader records, long lineNo) {
+            String playerId = required(records, "playerId");
+            String password = records.get("playerPassword");
+            String money = records.get("playerMoney");
+            return new PlayerRow(lineNo, playerId, password == null ? "" : password,
+                    StringTool.isEmpty(money) ? MoneyTool.ofMajor(Constant.INITIAL_PLAYER_MONEY)
+                            : parseMoney("playerMoney", money, false));
+        }
+
+        // 새로 저장될 행(chunk 안 첫 행, DB 에 없는 id)의 평문 비밀번호만 해시한다.
+        @Override
+        void prepare(List<PlayerRow> rows) {
+            Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT player_id FROM player WHERE player_id IN (:ids)",
+                    Map.of("ids", rows.stream().map(PlayerRow::playerId).toList()), String.class));
+            List<Integer> indexes = new ArrayList<>();
+            List<String> passwords = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                PlayerRow row = rows.get(i);
+                if (existing.add(row.playerId()) && needsHash(row.playerPassword())) {
+                    indexes.add(i);
+                    passwords.add(row.playerPassword());
+                }
+            }
+
+            List<String> hashed = passwordHasher.hashAll(passwords);
+            for (int i = 0; i < indexes.size(); i++) {
+                PlayerRow row = rows.get(indexes.get(i));
+                rows.set(indexes.get(i), new PlayerRow(row.line(), row.playerId(), hashed.get(i), row.playerMoney()));
+            }
+        }
+
+        // 빈 비밀번호는 로그인할 수 없으므로 그대로 둔다.
+        private boolean needsHash(String password) {
+            return !password.isEmpty() && !passwordHasher.isHashed(password);
+        }
+
+        @Override
+        void write(List<PlayerRow> rows, ImportChunkReport report) {
+            Map<String, PlayerRow> unique = new LinkedHashMap<>();
+            for (PlayerRow row : rows) {
+                if (unique.putIfAbsent(row.playerId(), row) != null) {
+                    report.setSkipped(report.getSkipped() + 1);
+                }
+            }
+
+            List<String> existing = namedParameterJdbcTemplate.queryForList(
+                    "SELECT player_id FROM player WHERE player_id IN (:ids)",
+                    Map.of("ids", unique.keySet()), String.class);
+            for (String playerId : existing) {
+                unique.remove(playerId);
+                report.setSkipped(report.getSkipped() + 1);
+            }
+
+            long now = System.currentTimeMillis();
+            List<Object[]> args = new ArrayList<>(unique.size());
+            for (PlayerRow row : unique.values()) {
+                // prepare 이후 삭제된 id 등 해시되지 않은 행
+                String password = needsHash(row.playerPassword()) ? passwordHasher.hash(row.playerPassword())
+                        : row.playerPassword();
+                args.add(new Object[] { row.playerId(), password, row.playerMoney(), now });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO player (player_id, player_password, player_money, updated_at) VALUES (?, ?, ?, ?)",
+                    args);
+            report.setInserted(args.size());
+            if (!args.isEmpty()) {
+                changeLogService.allChanged(EntityChange.Type.PLAYER);
+            }
+
+            if (holdingsStore.isEnabled()) {
+                TransactionTool.afterCommit(() -> args.forEach(
+                        a -> holdingsStore.putPlayer((String) a[0], (Long) a[2])));
+            }
+        }
+    }
+
+    private class HoldingLoader extends Loader<HoldingRow> {
+        @Override
+        HoldingRow parse(RecordReader records, long lineNo) {
+            String playerId = required(records, "playerId");
+            try {
+                long stockId = Long.parseLong(required(records, "stockId"));
+                int quantity = Integer.parseInt(required(records, "quantity"));
+                if (quantity <= 0) {
+                    throw new IllegalArgumentException("quantity out of range: " + quantity);
+                }
+                return new HoldingRow(lineNo, playerId, stockId, quantity);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("stockId/quantity is not a number");
+            }
+        }
+
+        @Override
+        void write(List<HoldingRow> rows, ImportChunkReport report) {
+            Set<String> playerIds = new HashSet<>();
+            Set<Long> stockIds = new HashSet<>();
+            for (HoldingRow row : rows) {
+                playerIds.add(row.playerId());
+                stockIds.add(row.stockId());
+            }
+
+            Set<String> knownPlayers = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT player_id FROM player WHERE player_id IN (:ids)",
+                    Map.of("ids", playerIds), String.class));
+            Set<Long> knownStocks = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT id FROM stock WHERE id IN (:ids)",
+                    Map.of("ids", stockIds), Long.class));
+
+            Set<String> held = new HashSet<>();
+            namedParameterJdbcTemplate.query(
+                    "SELECT player_id, stock_id FROM player_stock WHERE player_id IN (:players) AND stock_id IN (:stocks)",
+                    Map.of("players", playerIds, "stocks", stockIds),
+                    rs -> {
+                        held.add(rs.getString(1) + "\u0000" + rs.getLong(2));
+                    });
+
+            List<Object[]> args = new ArrayList<>(rows.size());
+            Set<String> touched = new HashSet<>();
+            for (HoldingRow row : rows) {
+                if (!knownPlayers.contains(row.playerId())) {
+                    reject(report, row.line(), "player not found: " + row.playerId());
+                } else if (!knownStocks.contains(row.stockId())) {
+                    reject(report, row.line(), "stock not found: " + row.stockId());
+                } else if (!held.add(row.playerId() + "\u0000" + row.stockId())) {
+                    report.setSkipped(report.getSkipped() + 1);
+                } else {
+                    args.add(new Object[] { sequenceIdAllocator.next(PlayerStock.SEQUENCE), row.playerId(),
+                            row.stockId(), row.quantity() });
+                    touched.add(row.playerId());
+                }
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO player_stock (id, player_id, stock_id, quantity) VALUES (?, ?, ?, ?)", args);
+
+            // 보유 주식 변경은 플레이어의 updated_at 으로 추적한다. (스냅샷 재조정 기준)
+            long now = System.currentTimeMillis();
+            List<Object[]> owners = new ArrayList<>(touched.size());
+            for (String playerId : touched) {
+                owners.add(new Object[] { now, playerId });
+            }
+            jdbcTemplate.batchUpdate("UPDATE player SET updated_at = ? WHERE player_id = ?", owners);
+            if (!touched.isEmpty()) {
+                changeLogService.allChanged(EntityChange.Type.PLAYER);
+            }
+            report.setInserted(args.size());
+
+            if (holdingsStore.isEnabled()) {
+                TransactionTool.afterCommit(() -> args.forEach(
+                        a -> holdingsStore.addPosition((String) a[1], (Long) a[2], (Integer) a[3])));
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.sk.skala.stockapi.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.tools.MappedInput;
+import com.sk.skala.stockapi.tools.MappedOutput;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시장 상태 스냅샷 (application.snapshot.enabled=true 일 때만 사용)
+ * 종목/가격, 플레이어 자금, 보유 주식을 DB 에서 읽어 memory-mapped 파일에 기록하고,
+ * 기동 시 파일을 한 번에 읽어 메모리 뷰를 적재한 뒤 high-water mark 이후 변경분만 DB 에서 재조정한다.
+ *
+ * 파일 형식: header(magic, version, money scale, high-water mark, 생성 시각)
+ *   + record(tag 1: 종목, tag 2: 플레이어, tag 3: 직전 플레이어의 보유 주식) ... + tag 0
+ *   + footer(end magic, 종목 수, 플레이어 수, 보유 주식 수)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarketSnapshotService {
+
+    private static final long MAGIC = 0x534B534E41503031L; // "SKSNAP01"
+    private static final long END_MAGIC = 0x534B534E4150454EL; // "SKSNAPEN"
+    private static final int VERSION = 1;
+
+    private static final int TAG_END = 0;
+    private static final int TAG_STOCK = 1;
+    private static final int TAG_PLAYER = 2;
+    private static final int TAG_POSITION = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationProperties applicationProperties;
+
+    public interface Visitor {
+        void stock(long stockId, String stockName, long stockPrice);
+
+        void player(String playerId, long playerMoney);
+
+        void position(String playerId, long stockId, int quantity);
+    }
+
+    public record Header(long highWaterMark, long createdAt, int stocks, int players, long positions) {
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.getSnapshot().isEnabled();
+    }
+
+    // stock / player 의 마지막 변경 시각. 보유 주식 변경은 player.updated_at 에 반영된다.
+    public long highWaterMark() {
+        Long mark = jdbcTemplate.queryForObject(
+                "SELECT GREATEST((SELECT COALESCE(MAX(updated_at), 0) FROM stock),"
+                        + " (SELECT COALESCE(MAX(updated_at), 0) FROM player))",
+                Long.class);
+        return mark == null ? 0 : mark;
+    }
+
+    // =========================
+    // 기록
+    // =========================
+    @Scheduled(fixedDelayString = "${application.snapshot.interval:60000}",
+            initialDelayString = "${application.snapshot.interval:60000}")
+    public void write() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        Path target = Path.of(applicationProperties.getSnapshot().getPath());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Header header = writeTo(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("MarketSnapshotService.write: {} stocks, {} players, {} positions, mark {} ({} ms)",
+                    header.stocks(), header.players(), header.positions(), header.highWaterMark(),
+                    System.currentTimeMillis() - startedAt);
+        } catch (IOException | RuntimeException e) {
+            log.error("MarketSnapshotService.write: {}", e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 다음 기록 시 덮어쓴다.
+            }
+        }
+    }
+
+    // high-water mark 를 먼저 읽으므로, 이후 변경된 행은 스냅샷에 포함되더라도 기동 시 다시 재조정된다.
+    private Header writeTo(Path path) throws IOException {
+        long mark = highWaterMark();
+        long createdAt = System.currentTimeMillis();
+        int[] stocks = new int[1];
+        int[] players = new int[1];
+        long[] positions = new long[1];
+
+        try (MappedOutput out = new MappedOutput(path, applicationProperties.getSnapshot().getMapWindowSize())) {
+            out.putLong(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(MoneyTool.getScale());
+            out.putLong(mark);
+            out.putLong(createdAt);
+
+            try {
+                jdbcTemplate.query("SELECT id, stock_name, stock_price FROM stock", rs -> {
+                    long stockId = rs.getLong(1);
+                    String stockName = rs.getString(2);
+                    long stockPrice = rs.getLong(3);
+                    put(() -> {
+                        out.putByte(TAG_STOCK);
+                        out.putLong(stockId);
+                        out.putString(stockName);
+                        out.putLong(stockPrice);
+                    });
+                    stocks[0]++;
+                });
+
+                // 플레이어와 보유 주식을 한 문장으로 읽어 두 데이터가 서로 어긋나지 않게 한다.
+                String[] current = new String[1];
+                jdbcTemplate.query("SELECT p.player_id, p.player_money, ps.stock_id, ps.quantity"
+                        + " FROM player p LEFT JOIN player_stock ps ON ps.player_id = p.player_id"
+                        + " ORDER BY p.player_id", rs -> {
+                            String playerId = rs.getString(1);
+                            if (!playerId.equals(current[0])) {
+                                current[0] = playerId;
+                                long money = rs.getLong(2);
+                                put(() -> {
+                                    out.putByte(TAG_PLAYER);
+                                    out.putString(playerId);
+                                    out.putLong(money);
+                                });
+                                players[0]++;
+                            }
+                            long stockId = rs.getLong(3);
+                            int quantity = rs.getInt(4);
+                            if (!rs.wasNull() && quantity > 0) {
+                                put(() -> {
+                                    out.putByte(TAG_POSITION);
+                                    out.putLong(stockId);
+                                    out.putInt(quantity);
+                                });
+                                positions[0]++;
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            out.putByte(TAG_END);
+            out.putLong(END_MAGIC);
+            out.putInt(stocks[0]);
+            out.putInt(players[0]);
+            out.putLong(positions[0]);
+        }
+        return new Header(mark, createdAt, stocks[0], players[0], positions[0]);
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static void put(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =========================
+    // 적재
+    // =========================
+    // 스냅샷을 visitor 로 전달한다. 파일이 없거나 손상/불일치하면 null 을 반환하며,
+    // 이 경우 visitor 에 일부 데이터가 전달되었을 수 있으므로 호출자가 버리고 전체 적재해야 한다.
+    public Header read(Visitor visitor) {
+        Path path = Path.of(applicationProperties.getSnapshot().getPath());
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (MappedInput in = new MappedInput(path, applicationProperties.getSnapshot().getMapWindowSize())) {
+            if (in.getLong() != MAGIC || in.getInt() != VERSION) {
+                log.warn("MarketSnapshotService.read: unknown snapshot format {}", path);
+                return null;
+            }
+            int scale = in.getInt();
+            if (scale != MoneyTool.getScale()) {
+                log.warn("MarketSnapshotService.read: money scale {} != {}", scale, MoneyTool.getScale());
+                return null;
+            }
+            long mark = in.getLong();
+            long createdAt = in.getLong();
+
+            int stocks = 0;
+            int players = 0;
+            long positions = 0;
+            String current = null;
+            for (int tag = in.getByte(); tag != TAG_END; tag = in.getByte()) {
+                switch (tag) {
+                    case TAG_STOCK -> {
+                        visitor.stock(in.getLong(), in.getString(), in.getLong());
+                        stocks++;
+                    }
+                    case TAG_PLAYER -> {
+                        current = in.getString();
+                        visitor.player(current, in.getLong());
+                        players++;
+                    }
+                    case TAG_POSITION -> {
+                        if (current == null) {
+                            throw new IOException("position before player");
+                        }
+                        visitor.position(current, in.getLong(), in.getInt());
+                        positions++;
+                    }
+                    default -> throw new IOException("unknown record tag " + tag);
+                }
+            }
+
+            if (in.getLong() != END_MAGIC || in.getInt() != stocks || in.getInt() != players
+                    || in.getLong() != positions) {
+                throw new IOException("footer mismatch");
+            }
+            return new Header(mark, createdAt, stocks, players, positions);
+        } catch (IOException | RuntimeException e) {
+            log.warn("MarketSnapshotService.read: {} is unusable: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.sk.skala.stockapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.exception.ResponseException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 비밀번호 해시 (BCrypt, application.password)
+ * 해시 계산은 요청 thread 가 아닌 크기가 제한된 전용 executor 에서 실행되며,
+ * queue 가 가득 차거나 timeout 이 지나면 SERVICE_BUSY 로 즉시 거절한다.
+ * BCrypt 형식이 아닌 값은 이전 버전의 평문 비밀번호로 보고 상수 시간 비교 후 다시 해시하도록 알려준다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+    private long timeoutMillis;
+    private Timer hashTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Password config = applicationProperties.getPassword();
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger sequence = new AtomicInteger();
+        encoder = new BCryptPasswordEncoder(config.getStrength());
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        timeoutMillis = config.getTimeout();
+
+        hashTimer = Timer.builder("skala.password.hash").register(meterRegistry);
+        rejected = Counter.builder("skala.password.rejected").register(meterRegistry);
+        meterRegistry.gauge("skala.password.queued", executor, e -> e.getQueue().size());
+        log.info("PasswordHasher.init: strength {}, {} threads, queue {}", config.getStrength(), threads,
+                config.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && BCRYPT.matcher(stored).matches();
+    }
+
+    public String hash(String raw) {
+        return call(() -> encoder.encode(raw));
+    }
+
+    // 대량 등록용. 한 번에 thread 수만큼만 제출해 queue 는 로그인/가입 요청이 쓸 수 있게 남겨 둔다.
+    public List<String> hashAll(List<String> raws) {
+        List<String> hashed = new ArrayList<>(raws.size());
+        int window = executor.getMaximumPoolSize();
+        List<Future<String>> futures = new ArrayList<>(window);
+        for (int from = 0; from < raws.size(); from += window) {
+            for (String raw : raws.subList(from, Math.min(raws.size(), from + window))) {
+                futures.add(submit(() -> encoder.encode(raw)));
+            }
+            for (Future<String> future : futures) {
+                hashed.add(await(future));
+            }
+            futures.clear();
+        }
+        return hashed;
+    }
+
+    public boolean matches(String raw, String stored) {
+        if (raw == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return call(() -> encoder.matches(raw, stored));
+    }
+
+    // 평문이거나 설정보다 낮은 work factor 로 만든 해시
+    public boolean needsRehash(String stored) {
+        return !isHashed(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    private <T> T call(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseException(Error.SERVICE_BUSY, "password queue is full");
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ResponseException(Error.SERVICE_BUSY, "password timeout");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseException(Error.SERVICE_BUSY, "interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("password hashing failed", e.getCause());
+        }
+    }
+}
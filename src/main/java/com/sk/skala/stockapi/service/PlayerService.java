@@ -1,27 +1,45 @@
 package com.sk.skala.stockapi.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.sk.skala.stockapi.aop.SingleFlight;
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Constant;
 import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.BatchItem;
 import com.sk.skala.stockapi.data.dto.PlayerSession;
 import com.sk.skala.stockapi.data.dto.PlayerStockDto;
 import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
 import com.sk.skala.stockapi.data.dto.Response;
 import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.dto.TransferRequest;
+import com.sk.skala.stockapi.data.table.EntityChange;
 import com.sk.skala.stockapi.data.table.Player;
 import com.sk.skala.stockapi.data.table.PlayerStock;
 import com.sk.skala.stockapi.data.table.Stock;
 import com.sk.skala.stockapi.exception.ParameterException;
 import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.FieldProjection;
 import com.sk.skala.stockapi.repository.PlayerRepository;
 import com.sk.skala.stockapi.repository.PlayerStockRepository;
 import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.BatchTool;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.TransactionTool;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,16 +52,29 @@ import lombok.RequiredArgsConstructor;
 @Transactional(readOnly = true)
 public class PlayerService {
 
+    // fields= 로 선택할 수 있는 속성 (비밀번호는 제외)
+    private static final Map<String, FieldProjection.Field> FIELDS = Map.of(
+            "playerId", new FieldProjection.Field("playerId", false),
+            "playerMoney", new FieldProjection.Field("playerMoney", true));
+
     private final StockRepository stockRepository;
     private final PlayerRepository playerRepository;
     private final PlayerStockRepository playerStockRepository;
     private final SessionHandler sessionHandler;
+    private final HoldingsStore holdingsStore;
+    private final ChangeLogService changeLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationProperties applicationProperties;
+    private final FieldProjection fieldProjection;
+    private final PortfolioViewService portfolioViewService;
 
     // =========================
     // 전체 플레이어 목록 조회
     // =========================
     public Response getAllPlayers(int offset, int count) {
-        Pageable pageable = PageRequest.of(offset, count);
+        // playerId 순서로 나눈다. (fields= 조회와 같은 순서)
+        Pageable pageable = PageRequest.of(offset, count, Sort.by("playerId"));
         List<Player> players = playerRepository.findAll(pageable).getContent();
 
         return Response.builder()
@@ -54,10 +85,52 @@ public class PlayerService {
                 .build();
     }
 
+    // 전체 플레이어 목록 조회 (fields 에 지정한 속성만 조회/반환)
+    public Response getAllPlayers(int offset, int count, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return getAllPlayers(offset, count);
+        }
+
+        List<String> selected = FieldProjection.parse(fields, FIELDS);
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(fieldProjection.findPage(Player.class, "playerId", selected, FIELDS, offset, count))
+                .build();
+    }
+
     // =========================
-    // 단일 플레이어 보유 주식 목록 조회
+    // 단일 플레이어 보유 주식 목록 조회 (동시에 들어온 같은 playerId 조회는 한 번만 실행)
     // =========================
+    @SingleFlight("player")
     public Response getPlayerById(String playerId) {
+        if (holdingsStore.isEnabled()) {
+            PlayerStockListDto dto = holdingsStore.getPortfolio(playerId);
+            if (dto == null) {
+                throw new ResponseException(Error.DATA_NOT_FOUND, "Player not found");
+            }
+            return Response.builder()
+                    .result(1)
+                    .code(0)
+                    .message("OK")
+                    .body(dto)
+                    .build();
+        }
+
+        // player_portfolio_view 의 한 행 (없으면 기본 테이블에서 조립하고 view 는 비동기로 만든다)
+        if (portfolioViewService.isEnabled()) {
+            PlayerStockListDto view = portfolioViewService.find(playerId);
+            if (view != null) {
+                return Response.builder()
+                        .result(1)
+                        .code(0)
+                        .message("OK")
+                        .body(view)
+                        .build();
+            }
+        }
+
         Player player = playerRepository.findById(playerId)
                 .orElseThrow(() ->
                         new ResponseException(Error.DATA_NOT_FOUND, "Player not found"));
@@ -79,6 +152,7 @@ public class PlayerService {
                 .playerMoney(player.getPlayerMoney())
                 .stocks(stockDtos)
                 .build();
+        portfolioViewService.requestRefresh(playerId);
 
         return Response.builder()
                 .result(1)
@@ -88,10 +162,50 @@ public class PlayerService {
                 .build();
     }
 
+    // =========================
+    // 여러 플레이어 보유 주식 일괄 조회
+    // chunk 마다 Player + PlayerStock + Stock 을 IN 조회 1회로 읽어 메모리에서 조립한다. (없는 id 는 항목별로 표시)
+    // =========================
+    public Response getPortfolios(List<String> playerIds) {
+        ApplicationProperties.BatchRead config = applicationProperties.getBatchRead();
+        List<String> unique = BatchTool.distinct(playerIds, config.getMaxIds(), "playerIds");
+
+        Map<String, PlayerStockListDto> found = new HashMap<>();
+        if (holdingsStore.isEnabled()) {
+            for (String playerId : unique) {
+                PlayerStockListDto dto = holdingsStore.getPortfolio(playerId);
+                if (dto != null) {
+                    found.put(playerId, dto);
+                }
+            }
+        } else {
+            for (List<String> chunk : BatchTool.chunks(unique, config.getChunkSize())) {
+                found.putAll(portfolioViewService.load(chunk));
+            }
+        }
+
+        List<BatchItem> items = new ArrayList<>(unique.size());
+        for (String playerId : unique) {
+            PlayerStockListDto dto = found.get(playerId);
+            items.add(dto != null
+                    ? BatchItem.builder().id(playerId).result(1).code(0).message("OK").body(dto).build()
+                    : BatchItem.builder().id(playerId).result(0).code(Error.DATA_NOT_FOUND.getCode())
+                            .message(Error.DATA_NOT_FOUND.getMessage()).build());
+        }
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(items)
+                .build();
+    }
+
     // =========================
     // 플레이어 생성
+    // 해시 계산 동안 connection 을 잡지 않도록 트랜잭션 없이 실행하고, 저장은 repository 트랜잭션으로 처리한다.
     // =========================
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Response createPlayer(PlayerSession playerSession) {
         if (playerSession == null
                 || playerSession.getPlayerId() == null
@@ -107,14 +221,27 @@ public class PlayerService {
 
         Player player = new Player(
                 playerSession.getPlayerId(),
-                50000.0
+                MoneyTool.ofMajor(Constant.INITIAL_PLAYER_MONEY)
         );
-        player.setPlayerPassword(playerSession.getPlayerPassword());
-
-        Player saved = playerRepository.save(player);
-
-        // (선택) 응답에 password 노출 방지 - 과제/요구사항에 안전
-        saved.setPlayerPassword("");
+        player.setPlayerPassword(passwordHasher.hash(playerSession.getPlayerPassword()));
+        player.setUpdatedAt(System.currentTimeMillis());
+
+        // 해시 계산 중 같은 id 로 먼저 가입한 요청이 있으면 INSERT 가 키 중복으로 실패한다.
+        Player saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                playerRepository.insert(player);
+                playerChanged(player.getPlayerId());
+
+                if (holdingsStore.isEnabled()) {
+                    TransactionTool.afterCommit(
+                            () -> holdingsStore.putPlayer(player.getPlayerId(), player.getPlayerMoney()));
+                }
+                return player;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseException(Error.DATA_DUPLICATED);
+        }
 
         return Response.builder()
                 .result(1)
@@ -126,8 +253,9 @@ public class PlayerService {
 
     // =========================
     // 플레이어 로그인
+    // 평문으로 저장된 이전 비밀번호나 낮은 work factor 해시는 로그인 성공 시 다시 해시해 저장한다.
     // =========================
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Response loginPlayer(PlayerSession playerSession) {
         if (playerSession == null
                 || playerSession.getPlayerId() == null
@@ -140,9 +268,14 @@ public class PlayerService {
         Player player = playerRepository.findById(playerSession.getPlayerId())
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND, "Player not found"));
 
-        if (!player.getPlayerPassword().equals(playerSession.getPlayerPassword())) {
+        String stored = player.getPlayerPassword();
+        if (!passwordHasher.matches(playerSession.getPlayerPassword(), stored)) {
             throw new ResponseException(Error.NOT_AUTHENTICATED);
         }
+        if (passwordHasher.needsRehash(stored)) {
+            playerRepository.updatePassword(player.getPlayerId(), stored,
+                    passwordHasher.hash(playerSession.getPlayerPassword()));
+        }
 
         // ✅ 사진 요구사항: 인증 성공 시 세션/쿠키에 토큰 저장
         // SessionHandler는 password를 비워서 토큰에 넣고, 쿠키 저장까지 수행
@@ -151,9 +284,7 @@ public class PlayerService {
                 .playerPassword("") // 토큰에 절대 넣지 않음
                 .build());
 
-        // ✅ 사진 요구사항: player 정보를 body에 담아 반환 + password 숨김 처리
-        player.setPlayerPassword("");
-
+        // ✅ 사진 요구사항: player 정보를 body에 담아 반환 (password 는 응답에 포함되지 않음: Player.playerPassword WRITE_ONLY)
         return Response.builder()
                 .result(1)
                 .code(0)
@@ -172,13 +303,21 @@ public class PlayerService {
             throw new ResponseException(Error.DATA_NOT_FOUND);
         }
 
+        if (player.getPlayerMoney() < 0) {
+            throw new ParameterException("playerMoney");
+        }
+
         Player found = playerRepository.findById(player.getPlayerId())
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
 
         found.setPlayerMoney(player.getPlayerMoney());
 
         Player saved = playerRepository.save(found);
-        saved.setPlayerPassword("");
+        playerChanged(saved.getPlayerId());
+
+        if (holdingsStore.isEnabled()) {
+            TransactionTool.afterCommit(() -> holdingsStore.putPlayer(saved.getPlayerId(), saved.getPlayerMoney()));
+        }
 
         return Response.builder()
                 .result(1)
@@ -201,7 +340,11 @@ public class PlayerService {
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
 
         playerRepository.delete(found);
-        found.setPlayerPassword("");
+        playerChanged(found.getPlayerId());
+
+        if (holdingsStore.isEnabled()) {
+            TransactionTool.afterCommit(() -> holdingsStore.removePlayer(found.getPlayerId()));
+        }
 
         return Response.builder()
                 .result(1)
@@ -222,13 +365,33 @@ public class PlayerService {
             throw new ResponseException(Error.SESSION_NOT_FOUND);
         }
 
-        Player player = playerRepository.findById(playerId)
+        return executeBuy(playerId, order.getStockId(), order.getStockQuantity());
+    }
+
+    // 매수 실행 (세션 확인 이후 단계, 조건부 주문 실행에서도 사용)
+    @Transactional
+    public Response executeBuy(String playerId, Long stockId, int quantity) {
+        // 메모리 저장소 사용 시 SQL 없이 검증/반영하고 DB 에는 비동기로 기록된다.
+        if (holdingsStore.isEnabled()) {
+            holdingsStore.buy(playerId, stockId, quantity);
+            changeLogService.publishLocal(EntityChange.Type.PLAYER, playerId);
+            return Response.builder()
+                    .result(1)
+                    .code(0)
+                    .message("OK")
+                    .build();
+        }
+
+        Player player = playerRepository.findByIdForUpdate(playerId)
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
 
-        Stock stock = stockRepository.findById(order.getStockId())
+        Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
+        if (stock.isTradingHalted()) {
+            throw new ResponseException(Error.TRADING_HALTED);
+        }
 
-        double totalPrice = stock.getStockPrice() * order.getStockQuantity();
+        long totalPrice = MoneyTool.multiply(stock.getStockPrice(), quantity);
         if (player.getPlayerMoney() < totalPrice) {
             throw new ResponseException(Error.INSUFFICIENT_FUNDS);
         }
@@ -236,12 +399,14 @@ public class PlayerService {
         PlayerStock playerStock =
                 playerStockRepository.findByPlayerAndStock(player, stock)
                         .orElseGet(() -> new PlayerStock(player, stock, 0));
+        boolean added = playerStock.getQuantity() == 0;
 
-        playerStock.setQuantity(playerStock.getQuantity() + order.getStockQuantity());
+        playerStock.setQuantity(playerStock.getQuantity() + quantity);
         player.setPlayerMoney(player.getPlayerMoney() - totalPrice);
 
         playerStockRepository.save(playerStock);
         playerRepository.save(player);
+        playerChanged(playerId, added ? stockId : null);
 
         return Response.builder()
                 .result(1)
@@ -261,23 +426,42 @@ public class PlayerService {
             throw new ResponseException(Error.SESSION_NOT_FOUND);
         }
 
-        Player player = playerRepository.findById(playerId)
+        return executeSell(playerId, order.getStockId(), order.getStockQuantity());
+    }
+
+    // 매도 실행 (세션 확인 이후 단계, 조건부 주문 실행에서도 사용)
+    @Transactional
+    public Response executeSell(String playerId, Long stockId, int quantity) {
+        if (holdingsStore.isEnabled()) {
+            holdingsStore.sell(playerId, stockId, quantity);
+            changeLogService.publishLocal(EntityChange.Type.PLAYER, playerId);
+            return Response.builder()
+                    .result(1)
+                    .code(0)
+                    .message("OK")
+                    .build();
+        }
+
+        Player player = playerRepository.findByIdForUpdate(playerId)
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
 
-        Stock stock = stockRepository.findById(order.getStockId())
+        Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
+        if (stock.isTradingHalted()) {
+            throw new ResponseException(Error.TRADING_HALTED);
+        }
 
         PlayerStock playerStock =
                 playerStockRepository.findByPlayerAndStock(player, stock)
                         .orElseThrow(() -> new ResponseException(Error.INSUFFICIENT_QUANTITY));
 
-        if (playerStock.getQuantity() < order.getStockQuantity()) {
+        if (playerStock.getQuantity() < quantity) {
             throw new ResponseException(Error.INSUFFICIENT_QUANTITY);
         }
 
-        playerStock.setQuantity(playerStock.getQuantity() - order.getStockQuantity());
+        playerStock.setQuantity(playerStock.getQuantity() - quantity);
 
-        double totalPrice = stock.getStockPrice() * order.getStockQuantity();
+        long totalPrice = MoneyTool.multiply(stock.getStockPrice(), quantity);
         player.setPlayerMoney(player.getPlayerMoney() + totalPrice);
 
         if (playerStock.getQuantity() == 0) {
@@ -287,6 +471,7 @@ public class PlayerService {
         }
 
         playerRepository.save(player);
+        playerChanged(playerId);
 
         return Response.builder()
                 .result(1)
@@ -294,4 +479,118 @@ public class PlayerService {
                 .message("OK")
                 .build();
     }
+
+    // =========================
+    // 플레이어 간 주식/자금 이전 (세션 기반 playerId -> toPlayerId)
+    // =========================
+    @Transactional
+    public Response transfer(TransferRequest request) {
+        String playerId = sessionHandler.getPlayerId();
+        if (playerId == null || playerId.isBlank()) {
+            throw new ResponseException(Error.SESSION_NOT_FOUND);
+        }
+
+        String toPlayerId = request.getToPlayerId();
+        int quantity = request.getStockQuantity() == null ? 0 : request.getStockQuantity();
+        long money = request.getMoney() == null ? 0 : request.getMoney();
+        if (playerId.equals(toPlayerId)) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "toPlayerId");
+        }
+        if (quantity == 0 && money == 0) {
+            throw new ParameterException("stockQuantity", "money");
+        }
+        if (quantity > 0 && request.getStockId() == null) {
+            throw new ParameterException("stockId");
+        }
+
+        if (holdingsStore.isEnabled()) {
+            holdingsStore.transfer(playerId, toPlayerId, request.getStockId(), quantity, money);
+            changeLogService.publishLocal(EntityChange.Type.PLAYER, playerId);
+            changeLogService.publishLocal(EntityChange.Type.PLAYER, toPlayerId);
+            return Response.builder()
+                    .result(1)
+                    .code(0)
+                    .message("OK")
+                    .build();
+        }
+
+        // 두 플레이어 행을 playerId 순서로 잠근다. (A->B, B->A 가 동시에 와도 같은 순서로 대기하므로 교착 없음)
+        Map<String, Player> players = lockPlayers(playerId, toPlayerId);
+        Player from = players.get(playerId);
+        Player to = players.get(toPlayerId);
+        if (from.getPlayerMoney() < money) {
+            throw new ResponseException(Error.INSUFFICIENT_FUNDS);
+        }
+
+        Long addedStockId = null;
+        if (quantity > 0) {
+            Stock stock = stockRepository.findById(request.getStockId())
+                    .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
+            if (stock.isTradingHalted()) {
+                throw new ResponseException(Error.TRADING_HALTED);
+            }
+
+            PlayerStock source = playerStockRepository.findByPlayerAndStock(from, stock)
+                    .orElseThrow(() -> new ResponseException(Error.INSUFFICIENT_QUANTITY));
+            if (source.getQuantity() < quantity) {
+                throw new ResponseException(Error.INSUFFICIENT_QUANTITY);
+            }
+            PlayerStock target = playerStockRepository.findByPlayerAndStock(to, stock)
+                    .orElseGet(() -> new PlayerStock(to, stock, 0));
+            if (target.getQuantity() == 0) {
+                addedStockId = stock.getId();
+            }
+
+            source.setQuantity(source.getQuantity() - quantity);
+            target.setQuantity(target.getQuantity() + quantity);
+            if (source.getQuantity() == 0) {
+                playerStockRepository.delete(source);
+            } else {
+                playerStockRepository.save(source);
+            }
+            playerStockRepository.save(target);
+
+            // 보유 주식만 바뀌면 player 행이 변경되지 않아 updated_at 이 그대로이므로 직접 갱신한다. (스냅샷 재조정 기준)
+            long now = System.currentTimeMillis();
+            from.setUpdatedAt(now);
+            to.setUpdatedAt(now);
+        }
+
+        from.setPlayerMoney(from.getPlayerMoney() - money);
+        to.setPlayerMoney(to.getPlayerMoney() + money);
+
+        playerRepository.save(from);
+        playerRepository.save(to);
+        changeLogService.playersChanged(List.of(playerId, toPlayerId));
+        portfolioViewService.refresh(List.of(playerId, toPlayerId), addedStockId);
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .build();
+    }
+
+    // 여러 플레이어 행을 정렬된 playerId 순서로 잠근다. (잠금 순서가 항상 같아야 교착이 생기지 않음)
+    private Map<String, Player> lockPlayers(String... playerIds) {
+        String[] ordered = playerIds.clone();
+        Arrays.sort(ordered);
+        Map<String, Player> players = new HashMap<>();
+        for (String id : ordered) {
+            players.put(id, playerRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND, "Player not found: " + id)));
+        }
+        return players;
+    }
+
+    // 같은 트랜잭션에 변경을 기록 (커밋 후 ETag 버전/진행 중인 조회 갱신, 다른 노드에 전달)하고 조회용 view 를 갱신
+    private void playerChanged(String playerId) {
+        playerChanged(playerId, null);
+    }
+
+    // addedStockId: 이번 거래로 처음 보유하게 된 종목 (PortfolioViewService.refresh 참고)
+    private void playerChanged(String playerId, Long addedStockId) {
+        changeLogService.playerChanged(playerId);
+        portfolioViewService.refresh(List.of(playerId), addedStockId);
+    }
 }
@@ -0,0 +1,320 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.aop.SingleFlightRegistry;
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PlayerHoldingRow;
+import com.sk.skala.stockapi.data.dto.PlayerStockDto;
+import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.tools.BatchTool;
+import com.sk.skala.stockapi.tools.JsonTool;
+import com.sk.skala.stockapi.tools.TransactionTool;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * player_portfolio_view 관리 (application.portfolio-view)
+ * - 매수/매도/이전/플레이어 변경: PlayerService 가 같은 트랜잭션에서 refresh 를 호출한다.
+ * - 종목 가격/이름 변경: 커밋 후 이벤트로 종목을 모아 두고, 전용 thread 에서 보유 플레이어를 chunk 단위로 갱신한다.
+ * - bulk import / 권리 조정(ALL 변경)과 POST /api/admin/portfolio-view/rebuild: 기본 테이블에서 전체를 다시 만든다.
+ * 비동기 갱신 후에는 ETag 버전과 진행 중인 조회를 직접 갱신한다. (변경 기록을 남기면 다른 노드에서 다시 갱신하게 됨)
+ * 메모리 저장소(application.holdings.in-memory) 사용 중에는 조회가 메모리에서 처리되므로 사용하지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioViewService {
+
+    private final PlayerRepository playerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldingsStore holdingsStore;
+    private final VersionRegistry versionRegistry;
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final ApplicationProperties applicationProperties;
+
+    private final Set<Long> pendingStocks = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "portfolio-view");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.getPortfolioView().isEnabled() && !holdingsStore.isEnabled();
+    }
+
+    // =========================
+    // 조회 / 조립
+    // =========================
+    // view 의 문서 (없으면 null)
+    public PlayerStockListDto find(String playerId) {
+        List<String> documents = jdbcTemplate.queryForList(
+                "SELECT document FROM player_portfolio_view WHERE player_id = ?", String.class, playerId);
+        return documents.isEmpty() ? null : JsonTool.toObject(documents.get(0), PlayerStockListDto.class);
+    }
+
+    // 아직 문서가 없는 플레이어 (view 도입 전 데이터 등): 다음 주기에 만든다.
+    public void requestRefresh(String playerId) {
+        if (isEnabled()) {
+            pendingPlayers.add(playerId);
+        }
+    }
+
+    // Player + PlayerStock + Stock 을 IN 조회 1회로 읽어 플레이어별로 조립한다. (없는 플레이어는 포함하지 않음)
+    public Map<String, PlayerStockListDto> load(Collection<String> playerIds) {
+        Map<String, PlayerStockListDto> found = new LinkedHashMap<>();
+        PlayerStockListDto current = null;
+        for (PlayerHoldingRow row : playerRepository.findAllWithHoldings(playerIds)) {
+            if (current == null || !current.getPlayerId().equals(row.getPlayerId())) {
+                current = PlayerStockListDto.builder()
+                        .playerId(row.getPlayerId())
+                        .playerMoney(row.getPlayerMoney())
+                        .stocks(new ArrayList<>())
+                        .build();
+                found.put(row.getPlayerId(), current);
+            }
+            if (row.getStockId() != null) {
+                current.getStocks().add(PlayerStockDto.builder()
+                        .stockId(row.getStockId())
+                        .stockName(row.getStockName())
+                        .stockPrice(row.getStockPrice())
+                        .quantity(row.getQuantity())
+                        .build());
+            }
+        }
+        return found;
+    }
+
+    // =========================
+    // 갱신 (현재 트랜잭션)
+    // =========================
+    // JPQL 조회 전에 영속성 컨텍스트의 변경이 flush 되므로 같은 트랜잭션의 매수/매도 결과가 반영된다.
+    public void refresh(Collection<String> playerIds) {
+        refresh(playerIds, null);
+    }
+
+    // addedStockId: 이번 트랜잭션에서 처음 보유하게 된 종목 (매수, 이전 받음)
+    // 그 종목의 가격 변경을 비동기로 반영할 때 보유자 조회에는 아직 커밋 전인 이 플레이어가 빠질 수 있으므로,
+    // 커밋 후 종목을 다시 읽어 문서에 넣은 이름/가격과 다르면 다음 주기에 다시 만든다.
+    public void refresh(Collection<String> playerIds, Long addedStockId) {
+        if (!isEnabled() || playerIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, PlayerStockListDto> found = load(playerIds);
+        long now = System.currentTimeMillis();
+        List<Object[]> upserts = new ArrayList<>(found.size());
+        List<Object[]> deletes = new ArrayList<>();
+        for (String playerId : playerIds) {
+            PlayerStockListDto dto = found.get(playerId);
+            if (dto != null) {
+                upserts.add(new Object[] { playerId, JsonTool.toString(dto), now });
+            } else {
+                deletes.add(new Object[] { playerId });
+            }
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("MERGE INTO player_portfolio_view (player_id, document, updated_at)"
+                    + " KEY (player_id) VALUES (?, ?, ?)", upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM player_portfolio_view WHERE player_id = ?", deletes);
+        }
+        if (addedStockId != null) {
+            recheckAfterCommit(found.values(), addedStockId);
+        }
+    }
+
+    private void recheckAfterCommit(Collection<PlayerStockListDto> documents, long stockId) {
+        Map<String, PlayerStockDto> written = new LinkedHashMap<>();
+        for (PlayerStockListDto dto : documents) {
+            dto.getStocks().stream()
+                    .filter(stock -> stock.getStockId() == stockId)
+                    .findFirst()
+                    .ifPresent(stock -> written.put(dto.getPlayerId(), stock));
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+        TransactionTool.afterCommit(() -> {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT stock_name, stock_price FROM stock WHERE id = ?", stockId);
+            if (rows.isEmpty()) {
+                return;
+            }
+            String name = (String) rows.get(0).get("stock_name");
+            long price = ((Number) rows.get(0).get("stock_price")).longValue();
+            written.forEach((playerId, stock) -> {
+                if (stock.getStockPrice() != price || !Objects.equals(stock.getStockName(), name)) {
+                    pendingPlayers.add(playerId);
+                }
+            });
+        });
+    }
+
+    // 비동기 갱신/전체 재생성: 매수/매도/이전과 같은 플레이어 행 잠금을 playerId 순서로 잡은 뒤 읽는다.
+    // 잠금 없이 읽으면 그 사이 커밋된 거래의 문서를 거래 전 상태로 덮어쓸 수 있다.
+    private void refreshLocked(List<String> playerIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            playerIds.stream().sorted().forEach(playerRepository::findByIdForUpdate);
+            refresh(playerIds);
+        });
+    }
+
+    // =========================
+    // 비동기 갱신
+    // =========================
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (isEnabled() && !event.deleted()) {
+            pendingStocks.add(event.stockId());
+        }
+    }
+
+    // 로컬의 전체 변경만 처리한다. (다른 노드의 변경은 그 노드가 이미 view 에 반영함)
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (isEnabled() && event.isAll() && !event.remote()) {
+            rebuildRequested.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.portfolio-view.refresh-interval:500}")
+    public void poll() {
+        if (!isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.error("PortfolioViewService.drain: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private void drain() {
+        if (rebuildRequested.get()) {
+            // 관리자 재생성이 진행 중이면 요청을 남겨 두고 끝난 뒤 다시 만든다. (이미 지나간 플레이어의 변경은 반영되지 않음)
+            if (rebuilding.get()) {
+                return;
+            }
+            rebuildRequested.set(false);
+            pendingStocks.clear();
+            pendingPlayers.clear();
+            try {
+                rebuildAll();
+            } catch (RuntimeException e) {
+                rebuildRequested.set(true);
+                throw e;
+            }
+            return;
+        }
+
+        Set<String> players = new TreeSet<>();
+        for (Long stockId : List.copyOf(pendingStocks)) {
+            pendingStocks.remove(stockId);
+            players.addAll(jdbcTemplate.queryForList("SELECT player_id FROM player_stock WHERE stock_id = ?",
+                    String.class, stockId));
+        }
+        for (String playerId : List.copyOf(pendingPlayers)) {
+            pendingPlayers.remove(playerId);
+            players.add(playerId);
+        }
+        if (players.isEmpty()) {
+            return;
+        }
+
+        for (List<String> chunk : BatchTool.chunks(new ArrayList<>(players),
+                applicationProperties.getPortfolioView().getChunkSize())) {
+            refreshLocked(chunk);
+            for (String playerId : chunk) {
+                versionRegistry.playerChanged(playerId);
+                singleFlightRegistry.invalidate("player", playerId);
+            }
+        }
+        log.debug("PortfolioViewService.drain: {} players", players.size());
+    }
+
+    // =========================
+    // 전체 재생성
+    // =========================
+    public Response rebuild() {
+        if (!isEnabled()) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "portfolio view disabled");
+        }
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(Map.of("players", rebuildAll()))
+                .build();
+    }
+
+    // playerId keyset 순서로 chunk 마다 한 트랜잭션. 끝난 뒤 없는 플레이어의 문서를 지운다.
+    private int rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ResponseException(Error.SERVICE_BUSY, "portfolio view rebuild in progress");
+        }
+        try {
+            int chunkSize = applicationProperties.getPortfolioView().getChunkSize();
+            int total = 0;
+            String last = "";
+            while (true) {
+                List<String> chunk = jdbcTemplate.queryForList("SELECT player_id FROM player WHERE player_id > ?"
+                        + " ORDER BY player_id FETCH FIRST ? ROWS ONLY", String.class, last, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                refreshLocked(chunk);
+                total += chunk.size();
+                last = chunk.get(chunk.size() - 1);
+            }
+            jdbcTemplate.update("DELETE FROM player_portfolio_view v"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM player p WHERE p.player_id = v.player_id)");
+
+            versionRegistry.allPlayersChanged();
+            singleFlightRegistry.invalidateAll("player");
+            log.info("PortfolioViewService.rebuild: {} players", total);
+            return total;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
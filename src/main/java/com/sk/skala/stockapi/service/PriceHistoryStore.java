@@ -0,0 +1,470 @@
+package com.sk.skala.stockapi.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PriceBar;
+import com.sk.skala.stockapi.data.dto.PriceHistory;
+import com.sk.skala.stockapi.data.dto.PriceTick;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.tools.TimeSeriesBlock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 종목별 가격 이력 저장소 (application.price-history)
+ * 종목마다 append-only 파일(<stockId>.ts)에 고정 크기 블록(TimeSeriesBlock)으로 기록한다.
+ * 작성 중인 마지막 블록은 메모리에 두고 flush-interval 마다 파일의 같은 위치에 덮어쓰며,
+ * 가득 찬 블록은 다음 블록 위치에 한 번 기록된 뒤 바뀌지 않는다.
+ *
+ * 조회는 블록별 [first, last] timestamp 목록을 이분 탐색해 필요한 블록 구간만 memory-map 하여 읽고,
+ * step 이 있으면 읽으면서 OHLC 로 묶는다. 이력은 노드별 로컬 디스크에 있으며 DB 를 사용하지 않는다.
+ * 파일은 사용할 때만 열어 두며 열린 파일 수는 max-open-files 로 제한한다.
+ */
+@Service
+@DependsOn("schemaMigration")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryStore {
+
+    private static final String SUFFIX = ".ts";
+
+    private final ApplicationProperties applicationProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    private final AtomicInteger openFiles = new AtomicInteger();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private Path directory;
+
+    // 파일은 기록/조회할 때 열고, idle-timeout 동안 쓰지 않거나 열린 파일이 max-open-files 를 넘으면 닫는다.
+    // (종목 수만큼 파일을 열어 두면 대량 등록 후 file descriptor 가 부족해짐)
+    private final class Series {
+        final Path path;
+        FileChannel channel;
+        volatile long lastUsed;
+        volatile boolean open;
+        boolean removed;
+        long[] blockFirst = new long[16];  // 가득 찬 블록들의 첫 / 마지막 timestamp
+        long[] blockLast = new long[16];
+        int sealed;                        // 파일 앞쪽의 가득 찬 블록 수 (작성 중 블록은 sealed 위치)
+        TimeSeriesBlock.Writer tail;
+        boolean dirty;
+
+        Series(Path path) {
+            this.path = path;
+        }
+
+        synchronized void append(long timestamp, long price) throws IOException {
+            if (tail == null) {
+                tail = TimeSeriesBlock.Writer.start(timestamp, price);
+            } else {
+                // 시계가 뒤로 가도 블록 안의 timestamp 는 증가 순서를 유지한다.
+                long ts = Math.max(timestamp, tail.lastTimestamp());
+                if (!tail.append(ts, price)) {
+                    write(tail, sealed);
+                    seal(tail.firstTimestamp(), tail.lastTimestamp());
+                    tail = TimeSeriesBlock.Writer.start(ts, price);
+                }
+            }
+            dirty = true;
+        }
+
+        synchronized void flush() throws IOException {
+            if (dirty) {
+                write(tail, sealed);
+                dirty = false;
+            }
+        }
+
+        // 매핑은 channel 을 닫은 뒤에도 유효하다.
+        synchronized MappedByteBuffer map(long position, long size) throws IOException {
+            return channel().map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+
+        synchronized void close() throws IOException {
+            flush();
+            if (channel != null) {
+                FileChannel closing = channel;
+                channel = null;
+                open = false;
+                openFiles.decrementAndGet();
+                closing.close();
+            }
+        }
+
+        // 삭제된 종목은 다시 열지 않는다. (파일을 다시 만들지 않도록)
+        synchronized void remove() throws IOException {
+            dirty = false;
+            close();
+            removed = true;
+        }
+
+        void seal(long first, long last) {
+            if (sealed == blockFirst.length) {
+                blockFirst = Arrays.copyOf(blockFirst, sealed * 2);
+                blockLast = Arrays.copyOf(blockLast, sealed * 2);
+            }
+            blockFirst[sealed] = first;
+            blockLast[sealed] = last;
+            sealed++;
+        }
+
+        private void write(TimeSeriesBlock.Writer block, int index) throws IOException {
+            FileChannel target = channel();
+            ByteBuffer buffer = ByteBuffer.wrap(block.bytes());
+            long position = (long) index * TimeSeriesBlock.BLOCK_SIZE;
+            while (buffer.hasRemaining()) {
+                position += target.write(buffer, position);
+            }
+        }
+
+        private FileChannel channel() throws IOException {
+            if (removed) {
+                throw new ClosedChannelException();
+            }
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                open = true;
+                openFiles.incrementAndGet();
+            }
+            lastUsed = System.currentTimeMillis();
+            return channel;
+        }
+
+        synchronized Long lastPrice() {
+            return tail == null ? null : tail.lastPrice();
+        }
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.getPriceHistory().isEnabled();
+    }
+
+    // =========================
+    // 적재
+    // =========================
+    @PostConstruct
+    public void load() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        directory = Paths.get(applicationProperties.getPriceHistory().getPath());
+        Files.createDirectories(directory);
+
+        // 이 노드가 삭제 이벤트를 받지 못한 종목(중지 중 삭제 등)의 파일은 열지 않고 지운다.
+        Set<Long> stockIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM stock", Long.class));
+        long blocks = 0;
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long stockId;
+                try {
+                    stockId = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (!stockIds.contains(stockId)) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                    continue;
+                }
+                Series s = open(file);
+                series.put(stockId, s);
+                blocks += s.sealed + (s.tail != null ? 1 : 0);
+            }
+        }
+        log.info("PriceHistoryStore.load: {} series, {} blocks in {} ({} removed)", series.size(), blocks, directory,
+                removed);
+    }
+
+    // 마지막 블록은 작성 중 블록으로 이어서 기록하고 나머지는 header 만 읽어 목록을 만든다. (읽은 뒤 파일은 닫음)
+    private Series open(Path file) throws IOException {
+        Series s = new Series(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int blocks = (int) (channel.size() / TimeSeriesBlock.BLOCK_SIZE);
+            if (blocks == 0) {
+                return s;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    (long) blocks * TimeSeriesBlock.BLOCK_SIZE);
+            for (int i = 0; i < blocks - 1; i++) {
+                int offset = i * TimeSeriesBlock.BLOCK_SIZE;
+                s.seal(TimeSeriesBlock.firstTimestamp(buffer, offset), TimeSeriesBlock.lastTimestamp(buffer, offset));
+            }
+            int lastOffset = (blocks - 1) * TimeSeriesBlock.BLOCK_SIZE;
+            if (TimeSeriesBlock.count(buffer, lastOffset) > 0) {
+                byte[] block = new byte[TimeSeriesBlock.BLOCK_SIZE];
+                buffer.get(lastOffset, block);
+                s.tail = TimeSeriesBlock.Writer.resume(block);
+            }
+        }
+        return s;
+    }
+
+    @Scheduled(fixedDelayString = "${application.price-history.flush-interval:1000}")
+    public void flush() {
+        long idleBefore = System.currentTimeMillis() - applicationProperties.getPriceHistory().getIdleTimeout();
+        int maxOpenFiles = applicationProperties.getPriceHistory().getMaxOpenFiles();
+        for (Map.Entry<Long, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            try {
+                // 기록하려고 연 파일은 상한을 넘으면 바로 닫는다.
+                boolean wasOpen = s.open;
+                s.flush();
+                if (s.open && (s.lastUsed < idleBefore || (!wasOpen && openFiles.get() > maxOpenFiles))) {
+                    s.close();
+                }
+            } catch (IOException e) {
+                log.error("PriceHistoryStore.flush: stock {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        trim();
+    }
+
+    // 열린 파일이 max-open-files 를 넘으면 오래 사용하지 않은 것부터 3/4 까지 닫는다.
+    // (series 잠금을 잡지 않은 상태에서 호출한다)
+    private void trim() {
+        int maxOpenFiles = applicationProperties.getPriceHistory().getMaxOpenFiles();
+        if (openFiles.get() <= maxOpenFiles || !trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Series> open = series.values().stream()
+                    .filter(s -> s.open)
+                    .sorted(Comparator.comparingLong(s -> s.lastUsed))
+                    .toList();
+            int excess = open.size() - maxOpenFiles * 3 / 4;
+            for (int i = 0; i < excess; i++) {
+                try {
+                    open.get(i).close();
+                } catch (IOException e) {
+                    log.warn("PriceHistoryStore.trim: {} {}", open.get(i).path, e.getMessage());
+                }
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    int openFiles() {
+        return openFiles.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Series s : series.values()) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                log.warn("PriceHistoryStore.shutdown: {} {}", s.path, e.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // 기록 (커밋된 가격 변경)
+    // =========================
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (event.deleted()) {
+            delete(event.stockId());
+        } else {
+            append(event.stockId(), System.currentTimeMillis(), event.stockPrice());
+        }
+    }
+
+    // 다른 노드의 변경과 bulk import 는 가격이 없으므로 현재 가격을 읽어 기록한다.
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!isEnabled() || event.type() != EntityChange.Type.STOCK || !(event.remote() || event.isAll())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (event.isAll()) {
+            jdbcTemplate.query("SELECT id, stock_price FROM stock",
+                    rs -> { append(rs.getLong(1), now, rs.getLong(2)); });
+        } else {
+            long stockId = Long.parseLong(event.entityId());
+            List<Long> prices = jdbcTemplate.queryForList("SELECT stock_price FROM stock WHERE id = ?", Long.class,
+                    stockId);
+            if (prices.isEmpty()) {
+                delete(stockId);
+            } else {
+                append(stockId, now, prices.get(0));
+            }
+        }
+    }
+
+    // 가격이 그대로인 변경(이름 수정 등)은 기록하지 않는다.
+    void append(long stockId, long timestamp, long price) {
+        try {
+            Series s = series.computeIfAbsent(stockId, id -> new Series(directory.resolve(id + SUFFIX)));
+            Long last = s.lastPrice();
+            if (last != null && last == price) {
+                return;
+            }
+            s.append(timestamp, price);
+        } catch (IOException e) {
+            log.error("PriceHistoryStore.append: stock {} failed: {}", stockId, e.getMessage());
+        }
+        trim();
+    }
+
+    private void delete(long stockId) {
+        Series s = series.remove(stockId);
+        if (s == null) {
+            return;
+        }
+        try {
+            s.remove();
+            Files.deleteIfExists(s.path);
+        } catch (IOException e) {
+            log.warn("PriceHistoryStore.delete: {} {}", s.path, e.getMessage());
+        }
+    }
+
+    // =========================
+    // 조회
+    // =========================
+    public Response getHistory(long stockId, long from, long to, long step) {
+        if (!isEnabled()) {
+            throw new ResponseException(Error.DATA_NOT_FOUND, "price history is disabled");
+        }
+        int maxPoints = applicationProperties.getPriceHistory().getMaxPoints();
+        if (from > to || step < 0 || (step > 0 && (to - from) / step >= maxPoints)) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "from, to, step");
+        }
+
+        PriceHistory history = PriceHistory.builder().stockId(stockId).from(from).to(to).step(step).build();
+        Series s = series.get(stockId);
+        if (s != null) {
+            try {
+                if (step > 0) {
+                    readBars(s, from, to, step, history.getBars());
+                } else {
+                    history.setTruncated(!scan(s, from, to, (timestamp, price) -> {
+                        history.getTicks().add(new PriceTick(timestamp, price));
+                        return history.getTicks().size() < maxPoints;
+                    }));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            trim();
+        }
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(history)
+                .build();
+    }
+
+    // 읽는 순서대로 step 구간별 OHLC 를 만든다.
+    private void readBars(Series s, long from, long to, long step, List<PriceBar> bars) throws IOException {
+        PriceBar[] current = { null };
+        scan(s, from, to, (timestamp, price) -> {
+            long bucket = from + (timestamp - from) / step * step;
+            PriceBar bar = current[0];
+            if (bar == null || bar.getTimestamp() != bucket) {
+                bar = new PriceBar(bucket, price, price, price, price, 0);
+                bars.add(bar);
+                current[0] = bar;
+            }
+            bar.setHigh(Math.max(bar.getHigh(), price));
+            bar.setLow(Math.min(bar.getLow(), price));
+            bar.setClose(price);
+            bar.setCount(bar.getCount() + 1);
+            return true;
+        });
+    }
+
+    // false: visitor 가 중단
+    private boolean scan(Series s, long from, long to, TimeSeriesBlock.Visitor visitor) throws IOException {
+        long[] blockLast;
+        long[] blockFirst;
+        int sealed;
+        byte[] tail;
+        synchronized (s) {
+            blockFirst = s.blockFirst;
+            blockLast = s.blockLast;
+            sealed = s.sealed;
+            tail = s.tail == null ? null : s.tail.bytes().clone();
+        }
+
+        // last >= from 인 첫 블록부터 first > to 인 블록 전까지
+        int start = lowerBound(blockLast, sealed, from);
+        int end = start;
+        while (end < sealed && blockFirst[end] <= to) {
+            end++;
+        }
+
+        if (start < end) {
+            MappedByteBuffer buffer = s.map((long) start * TimeSeriesBlock.BLOCK_SIZE,
+                    (long) (end - start) * TimeSeriesBlock.BLOCK_SIZE);
+            for (int i = 0; i < end - start; i++) {
+                if (!TimeSeriesBlock.read(buffer, i * TimeSeriesBlock.BLOCK_SIZE, from, to, visitor)) {
+                    return false;
+                }
+            }
+        }
+        if (tail != null && end == sealed) {
+            return TimeSeriesBlock.read(ByteBuffer.wrap(tail), 0, from, to, visitor);
+        }
+        return true;
+    }
+
+    private static int lowerBound(long[] values, int size, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
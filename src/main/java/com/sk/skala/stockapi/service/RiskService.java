@@ -0,0 +1,398 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.sk.skala.stockapi.aop.SingleFlight;
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PlayerConcentration;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.dto.RiskReport;
+import com.sk.skala.stockapi.data.dto.ShockResult;
+import com.sk.skala.stockapi.data.dto.StockExposure;
+import com.sk.skala.stockapi.exception.ResponseException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시장 전체 위험/노출 분석 (application.risk)
+ * 플레이어 + 보유 주식 + 가격을 한 번의 SELECT 로 읽어 (MVCC 스냅샷, 잠금 없음) 원시 배열에 적재한 뒤,
+ * 플레이어 구간으로 나눈 fork/join task 가 종목별 노출, 플레이어별 집중도, 가격 충격 시나리오를 한 번의 순회로 계산한다.
+ *
+ * 보유 주식은 플레이어 순서의 CSR 배열(offsets -> stockIndex/quantity)로 보관한다.
+ * 메모리 저장소(application.holdings.in-memory) 사용 시에는 DB 에 반영된(flush 된) 상태 기준이다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RiskService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationProperties applicationProperties;
+
+    private JdbcTemplate snapshotTemplate;
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        ApplicationProperties.Risk config = applicationProperties.getRisk();
+        snapshotTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        snapshotTemplate.setFetchSize(config.getFetchSize());
+        int parallelism = config.getParallelism() > 0
+                ? config.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // =========================
+    // 스냅샷 (원시 배열)
+    // =========================
+    private static final class Snapshot {
+        String[] playerIds = new String[1024];
+        long[] cash = new long[1024];
+        int[] offsets = new int[1025];   // 플레이어 i 의 보유 주식: [offsets[i], offsets[i + 1])
+        int[] stockIndex = new int[4096];
+        int[] quantity = new int[4096];
+        long[] stockIds = new long[64];
+        long[] prices = new long[64];
+        int players;
+        int positions;
+        int stocks;
+
+        private final Map<Long, Integer> stockIndexById = new HashMap<>();
+
+        void addPlayer(String playerId, long money) {
+            if (players == playerIds.length) {
+                playerIds = Arrays.copyOf(playerIds, players * 2);
+                cash = Arrays.copyOf(cash, players * 2);
+                offsets = Arrays.copyOf(offsets, players * 2 + 1);
+            }
+            playerIds[players] = playerId;
+            cash[players] = money;
+            offsets[players] = positions;
+            offsets[++players] = positions;
+        }
+
+        void addPosition(long stockId, long price, int qty) {
+            if (positions == stockIndex.length) {
+                stockIndex = Arrays.copyOf(stockIndex, positions * 2);
+                quantity = Arrays.copyOf(quantity, positions * 2);
+            }
+            stockIndex[positions] = stockIndexById.computeIfAbsent(stockId, id -> {
+                if (stocks == stockIds.length) {
+                    stockIds = Arrays.copyOf(stockIds, stocks * 2);
+                    prices = Arrays.copyOf(prices, stocks * 2);
+                }
+                stockIds[stocks] = id;
+                prices[stocks] = price;
+                return stocks++;
+            });
+            quantity[positions++] = qty;
+            offsets[players] = positions;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        String[] current = { null };
+        // 한 문장으로 읽어야 가격과 보유 수량이 같은 시점이 된다. (player_id 순서로 플레이어별 행이 연속)
+        snapshotTemplate.query("SELECT p.player_id, p.player_money, ps.stock_id, ps.quantity, s.stock_price"
+                + " FROM player p LEFT JOIN player_stock ps ON ps.player_id = p.player_id"
+                + " LEFT JOIN stock s ON s.id = ps.stock_id ORDER BY p.player_id", rs -> {
+                    String playerId = rs.getString(1);
+                    if (!playerId.equals(current[0])) {
+                        current[0] = playerId;
+                        snapshot.addPlayer(playerId, rs.getLong(2));
+                    }
+                    long stockId = rs.getLong(3);
+                    if (!rs.wasNull()) {
+                        snapshot.addPosition(stockId, rs.getLong(5), rs.getInt(4));
+                    }
+                });
+        return snapshot;
+    }
+
+    // =========================
+    // 시나리오
+    // =========================
+    private record Scenario(String name, long stockId, double factor) {
+        static final long ALL_STOCKS = -1;
+
+        // "-10" : 전체 종목 -10%, "3:-30" : stockId 3 만 -30%
+        // NaN / Infinity (와 범위를 넘는 "1e400") 는 모든 합계와 최대 손실 비교를 망가뜨리므로 거절한다.
+        static Scenario parse(String value) {
+            try {
+                int colon = value.indexOf(':');
+                long stockId = colon < 0 ? ALL_STOCKS : Long.parseLong(value.substring(0, colon).trim());
+                double percent = Double.parseDouble(value.substring(colon + 1).trim());
+                if (!Double.isFinite(percent) || percent < -100) {
+                    throw new NumberFormatException();
+                }
+                return new Scenario(value.trim(), stockId, 1 + percent / 100);
+            } catch (NumberFormatException e) {
+                throw new ResponseException(Error.INVALID_PARAMETER, "shocks: " + value);
+            }
+        }
+
+        double[] factors(Snapshot snapshot) {
+            double[] factors = new double[snapshot.stocks];
+            for (int k = 0; k < snapshot.stocks; k++) {
+                factors[k] = (stockId == ALL_STOCKS || stockId == snapshot.stockIds[k]) ? factor : 1;
+            }
+            return factors;
+        }
+    }
+
+    // =========================
+    // fork/join 계산
+    // =========================
+    private static final class Partial {
+        final long[] stockQuantity;
+        final double[] wealthAfter;
+        final double[] maxLoss;
+        final int[] maxLossPlayer;
+        final int[] overThreshold;
+        long cash;
+        long holdings;
+
+        Partial(int stocks, int scenarios) {
+            stockQuantity = new long[stocks];
+            wealthAfter = new double[scenarios];
+            maxLoss = new double[scenarios];
+            maxLossPlayer = new int[scenarios];
+            overThreshold = new int[scenarios];
+            Arrays.fill(maxLossPlayer, -1);
+        }
+
+        Partial merge(Partial o) {
+            for (int k = 0; k < stockQuantity.length; k++) {
+                stockQuantity[k] += o.stockQuantity[k];
+            }
+            for (int s = 0; s < wealthAfter.length; s++) {
+                wealthAfter[s] += o.wealthAfter[s];
+                overThreshold[s] += o.overThreshold[s];
+                if (o.maxLossPlayer[s] >= 0 && (maxLossPlayer[s] < 0 || o.maxLoss[s] > maxLoss[s])) {
+                    maxLoss[s] = o.maxLoss[s];
+                    maxLossPlayer[s] = o.maxLossPlayer[s];
+                }
+            }
+            cash += o.cash;
+            holdings += o.holdings;
+            return this;
+        }
+    }
+
+    // 플레이어 구간 [from, to) 계산. 플레이어별 집중도는 공유 배열의 자기 구간에만 기록한다.
+    private static final class RiskTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Snapshot snapshot;
+        private final double[][] factors;
+        private final double lossThreshold;
+        private final int partitionSize;
+        private final double[] concentration;
+        private final long[] wealth;
+        private final int[] topStock;
+        private final long[] topValue;
+        private final int from;
+        private final int to;
+
+        RiskTask(Snapshot snapshot, double[][] factors, double lossThreshold, int partitionSize,
+                double[] concentration, long[] wealth, int[] topStock, long[] topValue, int from, int to) {
+            this.snapshot = snapshot;
+            this.factors = factors;
+            this.lossThreshold = lossThreshold;
+            this.partitionSize = partitionSize;
+            this.concentration = concentration;
+            this.wealth = wealth;
+            this.topStock = topStock;
+            this.topValue = topValue;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > partitionSize) {
+                int mid = (from + to) >>> 1;
+                RiskTask left = split(from, mid);
+                left.fork();
+                Partial right = split(mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            int scenarios = factors.length;
+            Partial partial = new Partial(snapshot.stocks, scenarios);
+            double[] after = new double[scenarios];
+            for (int i = from; i < to; i++) {
+                long holdings = 0;
+                long maxValue = 0;
+                int maxStock = -1;
+                Arrays.fill(after, 0);
+
+                for (int j = snapshot.offsets[i]; j < snapshot.offsets[i + 1]; j++) {
+                    int k = snapshot.stockIndex[j];
+                    long value = snapshot.prices[k] * snapshot.quantity[j];
+                    holdings += value;
+                    partial.stockQuantity[k] += snapshot.quantity[j];
+                    if (value > maxValue) {
+                        maxValue = value;
+                        maxStock = k;
+                    }
+                    for (int s = 0; s < scenarios; s++) {
+                        after[s] += value * factors[s][k];
+                    }
+                }
+
+                long total = snapshot.cash[i] + holdings;
+                partial.cash += snapshot.cash[i];
+                partial.holdings += holdings;
+                wealth[i] = total;
+                topStock[i] = maxStock;
+                topValue[i] = maxValue;
+                concentration[i] = total > 0 ? (double) maxValue / total : 0;
+
+                for (int s = 0; s < scenarios; s++) {
+                    double loss = holdings - after[s];
+                    partial.wealthAfter[s] += snapshot.cash[i] + after[s];
+                    if (partial.maxLossPlayer[s] < 0 || loss > partial.maxLoss[s]) {
+                        partial.maxLoss[s] = loss;
+                        partial.maxLossPlayer[s] = i;
+                    }
+                    if (total > 0 && loss * 100 >= lossThreshold * total) {
+                        partial.overThreshold[s]++;
+                    }
+                }
+            }
+            return partial;
+        }
+
+        private RiskTask split(int from, int to) {
+            return new RiskTask(snapshot, factors, lossThreshold, partitionSize, concentration, wealth, topStock,
+                    topValue, from, to);
+        }
+    }
+
+    // =========================
+    // 보고서
+    // =========================
+    @SingleFlight("risk")
+    public Response getRiskReport(List<String> shocks, int top, double lossThreshold) {
+        if (top < 0 || top > 1000 || lossThreshold <= 0) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "top, lossThreshold");
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String shock : shocks == null ? List.<String>of() : shocks) {
+            scenarios.add(Scenario.parse(shock));
+        }
+
+        long snapshotAt = System.currentTimeMillis();
+        Snapshot snapshot = snapshot();
+        long loadedAt = System.currentTimeMillis();
+
+        int n = snapshot.players;
+        double[][] factors = new double[scenarios.size()][];
+        for (int s = 0; s < factors.length; s++) {
+            factors[s] = scenarios.get(s).factors(snapshot);
+        }
+        double[] concentration = new double[n];
+        long[] wealth = new long[n];
+        int[] topStock = new int[n];
+        long[] topValue = new long[n];
+        int partitionSize = Math.max(1, applicationProperties.getRisk().getPartitionSize());
+
+        Partial total = pool.invoke(new RiskTask(snapshot, factors, lossThreshold, partitionSize, concentration,
+                wealth, topStock, topValue, 0, n));
+        long computedAt = System.currentTimeMillis();
+
+        RiskReport report = RiskReport.builder()
+                .snapshotAt(snapshotAt)
+                .snapshotMillis(loadedAt - snapshotAt)
+                .computeMillis(computedAt - loadedAt)
+                .partitions(Math.max(1, (n + partitionSize - 1) / partitionSize))
+                .players(n)
+                .positions(snapshot.positions)
+                .totalCash(total.cash)
+                .totalHoldingsValue(total.holdings)
+                .build();
+
+        for (int k = 0; k < snapshot.stocks; k++) {
+            long value = snapshot.prices[k] * total.stockQuantity[k];
+            report.getExposures().add(StockExposure.builder()
+                    .stockId(snapshot.stockIds[k])
+                    .quantity(total.stockQuantity[k])
+                    .stockPrice(snapshot.prices[k])
+                    .value(value)
+                    .share(total.holdings > 0 ? (double) value / total.holdings : 0)
+                    .build());
+        }
+        report.getExposures().sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+        // 상위 top 명: 크기 top 의 min-heap 으로 O(n log top)
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, top),
+                (a, b) -> Double.compare(concentration[a], concentration[b]));
+        for (int i = 0; i < n && top > 0; i++) {
+            if (topStock[i] < 0) {
+                continue;
+            }
+            if (heap.size() < top) {
+                heap.add(i);
+            } else if (concentration[i] > concentration[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        while (!heap.isEmpty()) {
+            int i = heap.poll();
+            report.getConcentrations().add(0, PlayerConcentration.builder()
+                    .playerId(snapshot.playerIds[i])
+                    .wealth(wealth[i])
+                    .stockId(snapshot.stockIds[topStock[i]])
+                    .positionValue(topValue[i])
+                    .share(concentration[i])
+                    .build());
+        }
+
+        long wealthBefore = total.cash + total.holdings;
+        for (int s = 0; s < scenarios.size(); s++) {
+            long wealthAfter = Math.round(total.wealthAfter[s]);
+            int worst = total.maxLossPlayer[s];
+            report.getScenarios().add(ShockResult.builder()
+                    .scenario(scenarios.get(s).name())
+                    .wealthAfter(wealthAfter)
+                    .change(wealthAfter - wealthBefore)
+                    .maxLossPlayerId(worst >= 0 ? snapshot.playerIds[worst] : null)
+                    .maxLoss(worst >= 0 ? Math.round(total.maxLoss[s]) : 0)
+                    .playersOverThreshold(total.overThreshold[s])
+                    .build());
+        }
+
+        log.info("RiskService.getRiskReport: {} players, {} positions, snapshot {} ms, compute {} ms", n,
+                snapshot.positions, report.getSnapshotMillis(), report.getComputeMillis());
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(report)
+                .build();
+    }
+}
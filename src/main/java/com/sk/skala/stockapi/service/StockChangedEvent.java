@@ -0,0 +1,8 @@
+package com.sk.skala.stockapi.service;
+
+/**
+ * 커밋된 종목 변경 (StockService 가 커밋 후 발행)
+ * bulk import 와 다른 노드의 변경은 이름/가격 없이 EntityChangedEvent 로만 전달된다.
+ */
+public record StockChangedEvent(long stockId, String stockName, long stockPrice, boolean deleted) {
+}
@@ -0,0 +1,320 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.Response;
+import com.sk.skala.stockapi.data.dto.StockSearchResult;
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.exception.ResponseException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 종목 이름 검색 색인 (메모리, 조회 시 DB 를 사용하지 않음)
+ * - prefix: 이름의 각 단어 시작 위치부터의 문자열을 정렬 map 에 두고 subMap 으로 찾는다.
+ * - 오타 허용: 이름의 3-gram 으로 후보를 모으고 공유 gram 수로 거른 뒤 편집 거리(1, 긴 검색어는 2)로 확인한다.
+ * 이름은 소문자로 정규화하며, 종목 등록/수정/삭제는 커밋 후 이벤트로 바로 반영된다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSearchIndex {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_PREFIX_SCAN = 1000;
+    private static final int MAX_FUZZY_CANDIDATES = 200;
+    private static final char ID_SEPARATOR = '\u0001';
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Entry(long id, String name, String normalized, String[] words, long price) {
+    }
+
+    private record Hit(Entry entry, String match, int score) {
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // "<단어 시작부터의 이름>\u0001<id>" -> id
+    private final ConcurrentSkipListMap<String, Long> prefixes = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        reloadAll();
+        log.info("StockSearchIndex.load: {} stocks", entries.size());
+    }
+
+    // =========================
+    // 갱신
+    // =========================
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.stockId());
+        } else {
+            put(event.stockId(), event.stockName(), event.stockPrice());
+        }
+    }
+
+    // 다른 노드의 변경과 bulk import 는 DB 에서 다시 읽는다.
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.type() != EntityChange.Type.STOCK || !(event.remote() || event.isAll())) {
+            return;
+        }
+        if (event.isAll()) {
+            reloadAll();
+            return;
+        }
+
+        reload(Long.parseLong(event.entityId()));
+    }
+
+    // DB 를 읽는 동안 들어온 커밋 후 이벤트가 읽기 전 값으로 덮어써지지 않도록 put/remove 와 같은 lock 에서 읽는다.
+    private synchronized void reload(long stockId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT stock_name, stock_price FROM stock WHERE id = ?", stockId);
+        if (rows.isEmpty()) {
+            remove(stockId);
+        } else {
+            Map<String, Object> row = rows.get(0);
+            put(stockId, (String) row.get("stock_name"), ((Number) row.get("stock_price")).longValue());
+        }
+    }
+
+    // 다시 읽는 동안 들어온 등록/삭제 이벤트는 끝난 뒤 반영되어, 먼저 읽은 행이나 삭제 판단이 그 변경을 되돌리지 않는다.
+    private synchronized void reloadAll() {
+        Set<Long> found = new HashSet<>();
+        jdbcTemplate.query("SELECT id, stock_name, stock_price FROM stock", rs -> {
+            found.add(rs.getLong(1));
+            put(rs.getLong(1), rs.getString(2), rs.getLong(3));
+        });
+        for (Long id : entries.keySet()) {
+            if (!found.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    private synchronized void put(long id, String name, long price) {
+        Entry old = entries.get(id);
+        if (old != null && old.name().equals(name)) {
+            entries.put(id, new Entry(id, name, old.normalized(), old.words(), price));
+            return;
+        }
+        if (old != null) {
+            unindex(old);
+        }
+
+        String normalized = normalize(name);
+        Entry entry = new Entry(id, name, normalized, normalized.split(" "), price);
+        entries.put(id, entry);
+        for (int start : wordStarts(normalized)) {
+            prefixes.put(normalized.substring(start) + ID_SEPARATOR + id, id);
+        }
+        for (String gram : grams(normalized)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private synchronized void remove(long id) {
+        Entry old = entries.remove(id);
+        if (old != null) {
+            unindex(old);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (int start : wordStarts(entry.normalized())) {
+            prefixes.remove(entry.normalized().substring(start) + ID_SEPARATOR + entry.id());
+        }
+        for (String gram : grams(entry.normalized())) {
+            Set<Long> ids = grams.get(gram);
+            if (ids != null) {
+                ids.remove(entry.id());
+            }
+        }
+    }
+
+    // =========================
+    // 검색
+    // =========================
+    public Response search(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseException(Error.INVALID_PARAMETER, "limit");
+        }
+        String q = normalize(query == null ? "" : query);
+        if (q.isEmpty()) {
+            throw new ResponseException(Error.PARAMETER_MISSED, "q");
+        }
+
+        Map<Long, Hit> hits = new HashMap<>();
+
+        // 1. 이름 / 단어 prefix
+        int scanned = 0;
+        for (Long id : prefixes.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            Hit hit;
+            if (entry.normalized().equals(q)) {
+                hit = new Hit(entry, "EXACT", 1000);
+            } else if (entry.normalized().startsWith(q)) {
+                hit = new Hit(entry, "PREFIX", 800 - Math.min(100, entry.normalized().length() - q.length()));
+            } else {
+                hit = new Hit(entry, "WORD", 600 - Math.min(100, entry.normalized().length() - q.length()));
+            }
+            hits.merge(id, hit, (a, b) -> a.score() >= b.score() ? a : b);
+            if (++scanned >= MAX_PREFIX_SCAN) {
+                break;
+            }
+        }
+
+        // 2. 오타 허용 (prefix 결과가 부족할 때)
+        if (hits.size() < limit && q.length() >= 3) {
+            int maxEdits = q.length() <= 5 ? 1 : 2;
+            Set<String> queryGrams = grams(q);
+            Map<Long, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Long> ids = grams.get(gram);
+                if (ids != null) {
+                    ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+                }
+            }
+
+            // q-gram lemma: 편집 1번은 gram 을 최대 4개(인접 문자 교환) 바꾸고, 입력 중인 단어의 앞부분과 비교할 때는
+            // 검색어 끝 gram 하나가 이름에 없다. 이보다 적게 공유하는 이름은 편집 거리 안에 들 수 없다.
+            int minShared = Math.max(1, queryGrams.size() - 4 * maxEdits - 1);
+            List<Map.Entry<Long, Integer>> candidates = new ArrayList<>();
+            for (Map.Entry<Long, Integer> candidate : shared.entrySet()) {
+                if (candidate.getValue() >= minShared && !hits.containsKey(candidate.getKey())) {
+                    candidates.add(candidate);
+                }
+            }
+            // 편집 거리 계산은 공유 gram 이 많은 후보부터 MAX_FUZZY_CANDIDATES 개까지만
+            if (candidates.size() > MAX_FUZZY_CANDIDATES) {
+                candidates.sort(Map.Entry.<Long, Integer> comparingByValue().reversed());
+                candidates = candidates.subList(0, MAX_FUZZY_CANDIDATES);
+            }
+
+            for (Map.Entry<Long, Integer> candidate : candidates) {
+                Entry entry = entries.get(candidate.getKey());
+                if (entry == null) {
+                    continue;
+                }
+                int distance = distance(q, entry, maxEdits);
+                if (distance <= maxEdits) {
+                    hits.put(entry.id(), new Hit(entry, "FUZZY", 400 - 100 * distance + candidate.getValue()));
+                }
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(hits.values());
+        ranked.sort((a, b) -> a.score() != b.score()
+                ? Integer.compare(b.score(), a.score())
+                : a.entry().name().compareTo(b.entry().name()));
+
+        List<StockSearchResult> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Hit hit : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            results.add(StockSearchResult.builder()
+                    .id(hit.entry().id())
+                    .stockName(hit.entry().name())
+                    .stockPrice(hit.entry().price())
+                    .match(hit.match())
+                    .score(hit.score())
+                    .build());
+        }
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(results)
+                .build();
+    }
+
+    // 전체 이름, 각 단어, 입력 중인 단어(검색어 길이만큼의 앞부분) 중 가장 가까운 편집 거리
+    private static int distance(String q, Entry entry, int maxEdits) {
+        int best = editDistance(q, entry.normalized(), maxEdits);
+        for (String word : entry.words()) {
+            best = Math.min(best, editDistance(q, word, maxEdits));
+            if (word.length() > q.length()) {
+                best = Math.min(best, editDistance(q, word.substring(0, q.length()), maxEdits));
+            }
+        }
+        return best;
+    }
+
+    // Damerau-Levenshtein (인접 문자 교환 포함). max 를 넘으면 max + 1
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], prevPrev[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static List<Integer> wordStarts(String normalized) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    // 앞뒤에 공백을 붙인 3-gram (짧은 이름도 gram 을 갖도록)
+    private static Set<String> grams(String normalized) {
+        String padded = " " + normalized + " ";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+}
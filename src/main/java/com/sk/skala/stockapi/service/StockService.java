@@ -1,18 +1,29 @@
 package com.sk.skala.stockapi.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sk.skala.stockapi.aop.SingleFlight;
+import com.sk.skala.stockapi.config.ApplicationProperties;
 import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.BatchItem;
 import com.sk.skala.stockapi.data.dto.Response;
 import com.sk.skala.stockapi.data.table.Stock;
 import com.sk.skala.stockapi.exception.ParameterException;
 import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.FieldProjection;
 import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.BatchTool;
+import com.sk.skala.stockapi.tools.TransactionTool;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,11 +32,23 @@ import lombok.RequiredArgsConstructor;
 @Transactional(readOnly = true)
 public class StockService {
 
+    // fields= 로 선택할 수 있는 속성
+    private static final Map<String, FieldProjection.Field> FIELDS = Map.of(
+            "id", new FieldProjection.Field("id", false),
+            "stockName", new FieldProjection.Field("stockName", false),
+            "stockPrice", new FieldProjection.Field("stockPrice", true));
+
     private final StockRepository stockRepository;
+    private final HoldingsStore holdingsStore;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties applicationProperties;
+    private final FieldProjection fieldProjection;
 
     // 전체 주식 목록 조회 (페이지)
     public Response getAllStocks(int offset, int count) {
-        Pageable pageable = PageRequest.of(offset, count);
+        // id 순서 (fields= 조회와 같음). 정렬하지 않으면 페이지마다 순서가 달라 행이 빠지거나 겹칠 수 있다.
+        Pageable pageable = PageRequest.of(offset, count, Sort.by("id"));
         List<Stock> stocks = stockRepository.findAll(pageable).getContent();
 
         return Response.builder()
@@ -36,7 +59,23 @@ public class StockService {
                 .build();
     }
 
-    // 개별 주식 상세 조회
+    // 전체 주식 목록 조회 (페이지, fields 에 지정한 속성만 조회/반환)
+    public Response getAllStocks(int offset, int count, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return getAllStocks(offset, count);
+        }
+
+        List<String> selected = FieldProjection.parse(fields, FIELDS);
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(fieldProjection.findPage(Stock.class, "id", selected, FIELDS, offset, count))
+                .build();
+    }
+
+    // 개별 주식 상세 조회 (동시에 들어온 같은 id 조회는 한 번만 실행)
+    @SingleFlight("stock")
     public Response getStockById(Long id) {
         if (id == null) {
             throw new ParameterException("id");
@@ -53,6 +92,33 @@ public class StockService {
                 .build();
     }
 
+    // 여러 주식 일괄 조회 (chunk 마다 IN 조회 1회, 없는 id 는 항목별로 표시)
+    public Response getStocksByIds(List<Long> ids) {
+        ApplicationProperties.BatchRead config = applicationProperties.getBatchRead();
+        List<Long> unique = BatchTool.distinct(ids, config.getMaxIds(), "ids");
+
+        Map<Long, Stock> found = new HashMap<>();
+        for (List<Long> chunk : BatchTool.chunks(unique, config.getChunkSize())) {
+            stockRepository.findAllById(chunk).forEach(stock -> found.put(stock.getId(), stock));
+        }
+
+        List<BatchItem> items = new ArrayList<>(unique.size());
+        for (Long id : unique) {
+            Stock stock = found.get(id);
+            items.add(stock != null
+                    ? BatchItem.builder().id(id).result(1).code(0).message("OK").body(stock).build()
+                    : BatchItem.builder().id(id).result(0).code(Error.DATA_NOT_FOUND.getCode())
+                            .message(Error.DATA_NOT_FOUND.getMessage()).build());
+        }
+
+        return Response.builder()
+                .result(1)
+                .code(0)
+                .message("OK")
+                .body(items)
+                .build();
+    }
+
     // 주식 등록
     @Transactional
     public Response createStock(Stock stock) {
@@ -62,6 +128,7 @@ public class StockService {
                 .ifPresent(s -> { throw new ResponseException(Error.DATA_DUPLICATED); });
 
         Stock saved = stockRepository.save(stock);
+        putQuote(saved);
 
         return Response.builder()
                 .result(1)
@@ -88,6 +155,7 @@ public class StockService {
         found.setStockPrice(stock.getStockPrice());
 
         Stock saved = stockRepository.save(found);
+        putQuote(saved);
 
         return Response.builder()
                 .result(1)
@@ -108,6 +176,14 @@ public class StockService {
                 .orElseThrow(() -> new ResponseException(Error.DATA_NOT_FOUND));
 
         stockRepository.delete(found);
+        changeLogService.stockChanged(found.getId());
+        long deletedId = found.getId();
+        TransactionTool.afterCommit(
+                () -> eventPublisher.publishEvent(new StockChangedEvent(deletedId, null, 0, true)));
+
+        if (holdingsStore.isEnabled()) {
+            TransactionTool.afterCommit(() -> holdingsStore.removeStock(found.getId()));
+        }
 
         return Response.builder()
                 .result(1)
@@ -117,12 +193,26 @@ public class StockService {
                 .build();
     }
 
+    // 변경 기록(커밋 후 ETag 버전 등 갱신), 가격 변경 이벤트와 메모리 저장소의 종목 정보(이름, 가격) 갱신
+    private void putQuote(Stock stock) {
+        changeLogService.stockChanged(stock.getId());
+        long id = stock.getId();
+        String name = stock.getStockName();
+        long price = stock.getStockPrice();
+        TransactionTool.afterCommit(() -> {
+            if (holdingsStore.isEnabled()) {
+                holdingsStore.putStock(id, name, price);
+            }
+            eventPublisher.publishEvent(new StockChangedEvent(id, name, price, false));
+        });
+    }
+
     private void validateStock(Stock stock) {
         if (stock == null) {
             throw new ParameterException("stockName", "stockPrice");
         }
         if (stock.getStockName() == null || stock.getStockName().isBlank()
-                || stock.getStockPrice() == null || stock.getStockPrice() <= 0) {
+                || stock.getStockPrice() <= 0) {
             throw new ParameterException("stockName", "stockPrice");
         }
     }
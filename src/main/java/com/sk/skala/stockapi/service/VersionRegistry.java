@@ -0,0 +1,58 @@
+package com.sk.skala.stockapi.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 조회 API 의 ETag 생성을 위한 메모리 버전 카운터
+ * 종목 목록(catalog) 버전 1개와 플레이어별 버전(playerId hash 로 나눈 stripe)을 관리한다.
+ * 응답 본문을 직렬화하지 않고 ETag 를 만들 수 있으며, 변경은 커밋 후 EntityChangedEvent 로 반영된다.
+ * 재기동 시 카운터가 초기화되므로 노드 epoch 를 ETag 에 포함해 이전 ETag 와 겹치지 않게 한다.
+ */
+@Component
+public class VersionRegistry {
+
+    private static final int PLAYER_STRIPES = 4096; // 2의 거듭제곱
+
+    private final String epoch = Long.toString(
+            System.currentTimeMillis() ^ ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX);
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLongArray players = new AtomicLongArray(PLAYER_STRIPES);
+
+    // =========================
+    // ETag
+    // =========================
+    public String catalogETag() {
+        return epoch + "-" + catalog.get();
+    }
+
+    // 플레이어 조회 응답에는 종목 이름/가격이 포함되므로 catalog 버전도 함께 사용한다.
+    public String playerETag(String playerId) {
+        return epoch + "-" + catalog.get() + "-" + players.get(stripe(playerId));
+    }
+
+    // =========================
+    // 변경 (CacheInvalidationListener 가 커밋 후 호출)
+    // =========================
+    public void catalogChanged() {
+        catalog.incrementAndGet();
+    }
+
+    public void playerChanged(String playerId) {
+        players.incrementAndGet(stripe(playerId));
+    }
+
+    public void allPlayersChanged() {
+        for (int i = 0; i < PLAYER_STRIPES; i++) {
+            players.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(String playerId) {
+        int h = playerId == null ? 0 : playerId.hashCode();
+        return (h ^ (h >>> 16)) & (PLAYER_STRIPES - 1);
+    }
+}
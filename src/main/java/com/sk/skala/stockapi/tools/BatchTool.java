@@ -0,0 +1,41 @@
+package com.sk.skala.stockapi.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.exception.ParameterException;
+import com.sk.skala.stockapi.exception.ResponseException;
+
+public class BatchTool {
+
+	// null 제거 + 중복 제거 (요청 순서 유지). 비어 있거나 max 를 넘으면 오류
+	public static <T> List<T> distinct(List<T> ids, int max, String name) {
+		if (ids == null) {
+			throw new ParameterException(name);
+		}
+		LinkedHashSet<T> unique = new LinkedHashSet<>();
+		for (T id : ids) {
+			if (id != null) {
+				unique.add(id);
+			}
+		}
+		if (unique.isEmpty()) {
+			throw new ParameterException(name);
+		}
+		if (unique.size() > max) {
+			throw new ResponseException(Error.INVALID_PARAMETER, name + " (max " + max + ")");
+		}
+		return new ArrayList<>(unique);
+	}
+
+	// IN (...) 목록 크기를 제한하기 위해 size 단위로 나눈다.
+	public static <T> List<List<T>> chunks(List<T> list, int size) {
+		List<List<T>> chunks = new ArrayList<>();
+		for (int i = 0; i < list.size(); i += size) {
+			chunks.add(list.subList(i, Math.min(list.size(), i + size)));
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,66 @@
+package com.sk.skala.stockapi.tools;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 실행 수 제한 (semaphore) + 대기열 길이 제한 + 대기 시간 제한
+ * 대기열이 가득 찼거나 timeout 안에 자리가 나지 않으면 즉시 false 를 반환한다.
+ */
+public class Bulkhead {
+
+	private final String name;
+	private final int maxConcurrent;
+	private final int maxQueue;
+	private final long timeoutMillis;
+
+	private final Semaphore permits;
+	private final AtomicInteger queued = new AtomicInteger();
+
+	public Bulkhead(String name, int maxConcurrent, int maxQueue, long timeoutMillis) {
+		if (maxConcurrent < 1 || maxQueue < 0 || timeoutMillis < 0) {
+			throw new IllegalArgumentException("invalid bulkhead " + name);
+		}
+		this.name = name;
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueue = maxQueue;
+		this.timeoutMillis = timeoutMillis;
+		this.permits = new Semaphore(maxConcurrent, true);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public int getActive() {
+		return maxConcurrent - permits.availablePermits();
+	}
+
+	public int getQueued() {
+		return queued.get();
+	}
+
+	public boolean tryAcquire() throws InterruptedException {
+		if (permits.tryAcquire()) {
+			return true;
+		}
+		if (queued.incrementAndGet() > maxQueue) {
+			queued.decrementAndGet();
+			return false;
+		}
+		try {
+			return permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+		} finally {
+			queued.decrementAndGet();
+		}
+	}
+
+	public void release() {
+		permits.release();
+	}
+}
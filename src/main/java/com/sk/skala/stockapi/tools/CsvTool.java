@@ -0,0 +1,39 @@
+package com.sk.skala.stockapi.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvTool {
+
+	// RFC 4180 형식의 한 줄을 분리한다. (따옴표 안의 콤마/이중 따옴표 지원, 줄바꿈 포함 필드는 미지원)
+	public static String[] split(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(field.toString().trim());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		values.add(field.toString().trim());
+		return values.toArray(new String[0]);
+	}
+}
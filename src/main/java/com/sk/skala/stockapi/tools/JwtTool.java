@@ -30,4 +30,10 @@ public class JwtTool {
 		log.debug("JwtTool.getValidPayload: {} {}", claims.getIssuer(), claims.getAudience());
 		return claims.getAudience();
 	}
+
+	// 서명/만료를 검증한 뒤 token id(playerId)를 반환한다. payload JSON 은 해석하지 않는다.
+	public static String getValidId(String token) {
+		return Jwts.parserBuilder().setSigningKey(Constant.JWT_SECRET.getBytes()).build().parseClaimsJws(token)
+				.getBody().getId();
+	}
 }
@@ -0,0 +1,87 @@
+package com.sk.skala.stockapi.tools;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * memory-mapped 파일 순차 읽기 (MappedOutput 으로 기록한 파일)
+ * 2GB 를 넘는 파일도 읽을 수 있도록 window 단위로 map 한다.
+ */
+public class MappedInput implements Closeable {
+
+	private final FileChannel channel;
+	private final long size;
+	private final int windowSize;
+
+	private MappedByteBuffer buffer;
+	private long base;
+
+	public MappedInput(Path path, int windowSize) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.windowSize = windowSize;
+		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, windowSize));
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public long position() {
+		return base + buffer.position();
+	}
+
+	public int getByte() throws IOException {
+		return ensure(1).get();
+	}
+
+	public int getInt() throws IOException {
+		return ensure(Integer.BYTES).getInt();
+	}
+
+	public long getLong() throws IOException {
+		return ensure(Long.BYTES).getLong();
+	}
+
+	public String getString() throws IOException {
+		int length = getInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > size - position()) {
+			throw new EOFException("string length " + length + " exceeds file");
+		}
+		byte[] bytes = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			int n = Math.min(length - offset, Math.max(1, buffer.remaining()));
+			ensure(n).get(bytes, offset, n);
+			offset += n;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private MappedByteBuffer ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			long next = position();
+			if (next + bytes > size) {
+				throw new EOFException("unexpected end of mapped file at " + next);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(size - next, Math.max(windowSize, bytes)));
+			base = next;
+		}
+		return buffer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+	}
+}
@@ -0,0 +1,80 @@
+package com.sk.skala.stockapi.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * memory-mapped 파일 순차 쓰기
+ * 파일을 window 크기 단위로 map 하여 기록하고, 공간이 부족하면 다음 위치에서 다시 map 한다.
+ * close 시 실제 기록한 길이로 truncate 하고 디스크에 force 한다.
+ */
+public class MappedOutput implements Closeable {
+
+	private final FileChannel channel;
+	private final int windowSize;
+
+	private MappedByteBuffer buffer;
+	private long base; // buffer 시작 위치 (파일 offset)
+
+	public MappedOutput(Path path, int windowSize) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.windowSize = windowSize;
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, windowSize);
+	}
+
+	public long position() {
+		return base + buffer.position();
+	}
+
+	public void putByte(int value) throws IOException {
+		ensure(1).put((byte) value);
+	}
+
+	public void putInt(int value) throws IOException {
+		ensure(Integer.BYTES).putInt(value);
+	}
+
+	public void putLong(long value) throws IOException {
+		ensure(Long.BYTES).putLong(value);
+	}
+
+	public void putString(String value) throws IOException {
+		byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+		putInt(value == null ? -1 : bytes.length);
+		int offset = 0;
+		while (offset < bytes.length) {
+			int n = Math.min(bytes.length - offset, Math.max(1, buffer.remaining()));
+			ensure(n).put(bytes, offset, n);
+			offset += n;
+		}
+	}
+
+	private MappedByteBuffer ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			long next = position();
+			buffer.force();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, next, Math.max(windowSize, bytes));
+			base = next;
+		}
+		return buffer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			long length = position();
+			buffer.force();
+			buffer = null;
+			channel.truncate(length);
+			channel.force(true);
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.sk.skala.stockapi.tools;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+// JSON decimal number (또는 문자열) -> minor unit long (100.25 -> 10025)
+public class MoneyDeserializer extends JsonDeserializer<Long> {
+
+	@Override
+	public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		try {
+			if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+				return MoneyTool.fromDecimal(p.getDecimalValue());
+			}
+			return MoneyTool.fromDecimal(p.getValueAsString());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidFormatException(p, "invalid money value", p.getText(), Long.class);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.sk.skala.stockapi.tools;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+// minor unit long -> JSON decimal number (10025 -> 100.25)
+public class MoneySerializer extends JsonSerializer<Long> {
+
+	@Override
+	public void serialize(Long value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		gen.writeNumber(MoneyTool.toDecimal(value));
+	}
+}
@@ -0,0 +1,65 @@
+package com.sk.skala.stockapi.tools;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 금액/가격은 최소 단위(minor unit)의 long 으로 저장하고 계산한다.
+ * scale 2 이면 100.25 -> 10025. JSON 에서는 소수(decimal)로 주고받는다.
+ */
+public class MoneyTool {
+
+	private static volatile int scale = 2;
+	private static volatile long factor = 100;
+
+	public static void setScale(int newScale) {
+		if (newScale < 0 || newScale > 8) {
+			throw new IllegalArgumentException("money scale out of range: " + newScale);
+		}
+		long f = 1;
+		for (int i = 0; i < newScale; i++) {
+			f *= 10;
+		}
+		factor = f;
+		scale = newScale;
+	}
+
+	public static int getScale() {
+		return scale;
+	}
+
+	public static long getFactor() {
+		return factor;
+	}
+
+	// 정수 금액(major unit) -> minor unit
+	public static long ofMajor(long major) {
+		return Math.multiplyExact(major, factor);
+	}
+
+	// 소수 금액 -> minor unit (scale 보다 작은 단위가 있으면 IllegalArgumentException)
+	public static long fromDecimal(BigDecimal value) {
+		try {
+			return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("invalid money value: " + value.toPlainString());
+		}
+	}
+
+	public static long fromDecimal(String value) {
+		try {
+			return fromDecimal(new BigDecimal(value.trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid money value: " + value);
+		}
+	}
+
+	public static BigDecimal toDecimal(long minor) {
+		return BigDecimal.valueOf(minor, scale);
+	}
+
+	// 가격 x 수량 (overflow 시 ArithmeticException)
+	public static long multiply(long price, int quantity) {
+		return Math.multiplyExact(price, quantity);
+	}
+}
@@ -0,0 +1,210 @@
+package com.sk.skala.stockapi.tools;
+
+import java.util.Arrays;
+
+/**
+ * stockId(long) -> 보유 수량(int) primitive map
+ * stockId 가 모두 denseLimit 미만이면 stockId 를 index 로 쓰는 int[] 로, 그 이상이 나오면
+ * open addressing(linear probing) hash 로 전환한다. 수량이 0 이 되면 항목을 제거한다.
+ * stockId 0 은 빈 슬롯 표시로 사용하므로 키로 쓸 수 없다. 동기화는 호출자가 담당한다.
+ */
+public class PositionMap {
+
+	private static final long EMPTY = 0L;
+	private static final int MIN_CAPACITY = 4;
+
+	private final int denseLimit;
+
+	private int[] dense = new int[0]; // dense 모드 (keys == null)
+	private long[] keys;               // hash 모드
+	private int[] values;
+	private int size;
+
+	public interface Visitor {
+		void visit(long stockId, int quantity);
+	}
+
+	public PositionMap(int denseLimit) {
+		this.denseLimit = denseLimit;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int get(long stockId) {
+		if (keys == null) {
+			return (stockId > 0 && stockId < dense.length) ? dense[(int) stockId] : 0;
+		}
+		int slot = find(stockId);
+		return slot < 0 ? 0 : values[slot];
+	}
+
+	// 수량을 delta 만큼 더하고 결과 수량을 반환한다. (음수가 되면 IllegalArgumentException)
+	public int add(long stockId, int delta) {
+		int quantity = Math.addExact(get(stockId), delta);
+		put(stockId, quantity);
+		return quantity;
+	}
+
+	public void put(long stockId, int quantity) {
+		if (stockId == EMPTY) {
+			throw new IllegalArgumentException("stockId 0 is reserved");
+		}
+		if (quantity < 0) {
+			throw new IllegalArgumentException("negative quantity: " + quantity);
+		}
+
+		if (keys == null) {
+			if (stockId > 0 && stockId < denseLimit) {
+				putDense((int) stockId, quantity);
+				return;
+			}
+			if (quantity == 0) {
+				return;
+			}
+			toHash();
+		}
+
+		if (quantity == 0) {
+			remove(stockId);
+		} else {
+			putHash(stockId, quantity);
+		}
+	}
+
+	public void forEach(Visitor visitor) {
+		if (keys == null) {
+			for (int i = 1; i < dense.length; i++) {
+				if (dense[i] != 0) {
+					visitor.visit(i, dense[i]);
+				}
+			}
+		} else {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] != EMPTY) {
+					visitor.visit(keys[i], values[i]);
+				}
+			}
+		}
+	}
+
+	public void clear() {
+		dense = new int[0];
+		keys = null;
+		values = null;
+		size = 0;
+	}
+
+	// =========================
+	// dense 모드
+	// =========================
+	private void putDense(int index, int quantity) {
+		if (index >= dense.length) {
+			if (quantity == 0) {
+				return;
+			}
+			dense = Arrays.copyOf(dense, Math.min(denseLimit, Math.max(index + 1, dense.length * 2)));
+		}
+		int before = dense[index];
+		dense[index] = quantity;
+		if (before == 0 && quantity != 0) {
+			size++;
+		} else if (before != 0 && quantity == 0) {
+			size--;
+		}
+	}
+
+	private void toHash() {
+		int[] old = dense;
+		int capacity = MIN_CAPACITY;
+		while (capacity < (size + 1) * 2) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		values = new int[capacity];
+		dense = null;
+		size = 0;
+		for (int i = 1; i < old.length; i++) {
+			if (old[i] != 0) {
+				putHash(i, old[i]);
+			}
+		}
+	}
+
+	// =========================
+	// hash 모드 (linear probing, load factor 0.5)
+	// =========================
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+	}
+
+	private int find(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key);; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return i;
+			}
+			if (keys[i] == EMPTY) {
+				return -1;
+			}
+		}
+	}
+
+	private void putHash(long key, int value) {
+		if ((size + 1) * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		for (int i = slot(key);; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				values[i] = value;
+				return;
+			}
+			if (keys[i] == EMPTY) {
+				keys[i] = key;
+				values[i] = value;
+				size++;
+				return;
+			}
+		}
+	}
+
+	private void remove(long key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return;
+		}
+		int mask = keys.length - 1;
+		keys[slot] = EMPTY;
+		values[slot] = 0;
+		size--;
+
+		// backward shift: 이후 probe 체인의 항목을 빈 슬롯으로 당긴다.
+		int hole = slot;
+		for (int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+			int home = slot(keys[i]);
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				keys[i] = EMPTY;
+				values[i] = 0;
+				hole = i;
+			}
+		}
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				putHash(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.sk.skala.stockapi.tools;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * key 별 token bucket (GCRA: generic cell rate algorithm)
+ * bucket 상태는 "다음 토큰이 채워지는 이론적 시각(tat)" 하나뿐이므로 AtomicLong CAS 로 lock 없이 갱신한다.
+ * key 수는 maxKeys 로 제한하며, 가득 차면 토큰이 모두 채워진(idle) bucket 을 제거한다.
+ * 그래도 공간이 없으면 가장 많이 채워진(tat 가 가장 이른) bucket 부터 maxKeys 의 10% 를 한 번에 제거한다.
+ * (새 key 들이 하나의 bucket 을 함께 쓰면 한 client 가 다른 client 의 요청을 막을 수 있음)
+ */
+public class RateLimiter {
+
+	private final long intervalNanos; // 토큰 1개가 채워지는 간격
+	private final long toleranceNanos; // burst 만큼 미리 사용할 수 있는 시간
+	private final int maxKeys;
+
+	private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final AtomicBoolean sweeping = new AtomicBoolean();
+
+	public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+		if (permitsPerSecond <= 0 || burst < 1 || maxKeys < 1) {
+			throw new IllegalArgumentException("invalid rate limit: " + permitsPerSecond + "/s burst " + burst);
+		}
+		this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+		this.toleranceNanos = intervalNanos * burst;
+		this.maxKeys = maxKeys;
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+
+	// 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 시간(nanos)을 반환한다.
+	public long tryAcquire(String key) {
+		AtomicLong tat = bucket(key);
+		while (true) {
+			long now = System.nanoTime();
+			long current = tat.get();
+			long next = Math.max(current, now) + intervalNanos;
+			long wait = next - now - toleranceNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (tat.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	private AtomicLong bucket(String key) {
+		AtomicLong tat = buckets.get(key);
+		if (tat != null) {
+			return tat;
+		}
+		if (buckets.size() >= maxKeys) {
+			sweep();
+		}
+		// 다른 thread 가 정리 중이면 잠시 maxKeys 를 넘을 수 있다. (다음 정리에서 줄어듦)
+		return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+	}
+
+	// tat 가 현재 시각 이전인 bucket 은 토큰이 가득 찬 상태와 같으므로 제거해도 동작이 바뀌지 않는다.
+	// 부족하면 tat 가 이른 순서로 더 제거한다. 제거된 key 는 다음 요청에서 토큰이 가득 찬 bucket 으로 다시 시작한다.
+	private void sweep() {
+		if (!sweeping.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.nanoTime();
+			buckets.values().removeIf(tat -> tat.get() - now <= 0);
+
+			int excess = buckets.size() - maxKeys + Math.max(1, maxKeys / 10);
+			if (buckets.size() < maxKeys) {
+				return;
+			}
+			long[] tats = buckets.values().stream().mapToLong(tat -> tat.get() - now).sorted().toArray();
+			long threshold = tats[Math.min(tats.length, excess) - 1];
+			buckets.values().removeIf(tat -> tat.get() - now <= threshold);
+		} finally {
+			sweeping.set(false);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.sk.skala.stockapi.tools;
+
+/**
+ * 현재 thread(요청)에서 실행한 SQL 문 수, 읽거나 변경한 행 수, DB 시간
+ * StatementCountingDataSource 가 기록하고 SqlStatisticsFilter 가 요청 단위로 시작/종료한다.
+ * 다른 thread 에서 실행한 SQL(비동기 작업, fork/join 등)은 포함하지 않는다.
+ */
+public class SqlCounter {
+
+	private static final ThreadLocal<SqlCounter> CURRENT = new ThreadLocal<>();
+
+	private long statements;
+	private long rows;
+	private long nanos;
+
+	public static SqlCounter begin() {
+		SqlCounter counter = new SqlCounter();
+		CURRENT.set(counter);
+		return counter;
+	}
+
+	public static void end() {
+		CURRENT.remove();
+	}
+
+	// 요청 밖이면 null
+	public static SqlCounter current() {
+		return CURRENT.get();
+	}
+
+	public static void statement(long nanos, long rows) {
+		SqlCounter counter = CURRENT.get();
+		if (counter != null) {
+			counter.statements++;
+			counter.rows += Math.max(0, rows);
+			counter.nanos += nanos;
+		}
+	}
+
+	public static void rows(long rows) {
+		SqlCounter counter = CURRENT.get();
+		if (counter != null) {
+			counter.rows += rows;
+		}
+	}
+
+	public long getStatements() {
+		return statements;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+}
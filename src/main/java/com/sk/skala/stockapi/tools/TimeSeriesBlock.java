@@ -0,0 +1,254 @@
+package com.sk.skala.stockapi.tools;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 고정 크기 시계열 블록 (timestamp, price) 인코딩
+ * - timestamp: delta-of-delta 를 0 / 7 / 9 / 12 / 32 bit 구간으로 기록 (일정한 간격이면 1 bit)
+ * - price: 이전 가격과의 차이를 zigzag 후 0 / 6 / 14 / 30 / 64 bit 구간으로 기록
+ * 첫 tick 은 header 에 그대로 두고 이후 tick 만 bit stream 에 기록한다.
+ *
+ * header (big endian): firstTimestamp, firstPrice, lastTimestamp, lastPrice, lastDelta (long), count, bits (int)
+ */
+public class TimeSeriesBlock {
+
+	public static final int BLOCK_SIZE = 4096;
+
+	private static final int FIRST_TIMESTAMP = 0;
+	private static final int FIRST_PRICE = 8;
+	private static final int LAST_TIMESTAMP = 16;
+	private static final int LAST_PRICE = 24;
+	private static final int LAST_DELTA = 32;
+	private static final int COUNT = 40;
+	private static final int BITS = 44;
+	private static final int HEADER = 48;
+
+	private static final long CAPACITY_BITS = (long) (BLOCK_SIZE - HEADER) * 8;
+	private static final int MAX_TICK_BITS = 36 + 68;
+
+	public interface Visitor {
+		// false 를 반환하면 읽기를 멈춘다.
+		boolean tick(long timestamp, long price);
+	}
+
+	// header 만 읽기 (블록 목록 적재용)
+	public static long firstTimestamp(ByteBuffer buffer, int offset) {
+		return buffer.getLong(offset + FIRST_TIMESTAMP);
+	}
+
+	public static long lastTimestamp(ByteBuffer buffer, int offset) {
+		return buffer.getLong(offset + LAST_TIMESTAMP);
+	}
+
+	public static int count(ByteBuffer buffer, int offset) {
+		return buffer.getInt(offset + COUNT);
+	}
+
+	// =========================
+	// 기록
+	// =========================
+	public static class Writer {
+		private final byte[] bytes;
+		private final ByteBuffer header;
+		private long lastTimestamp;
+		private long lastPrice;
+		private long lastDelta;
+		private int count;
+		private long bits;
+
+		private Writer(byte[] bytes) {
+			this.bytes = bytes;
+			this.header = ByteBuffer.wrap(bytes);
+		}
+
+		public static Writer start(long timestamp, long price) {
+			Writer writer = new Writer(new byte[BLOCK_SIZE]);
+			writer.header.putLong(FIRST_TIMESTAMP, timestamp);
+			writer.header.putLong(FIRST_PRICE, price);
+			writer.lastTimestamp = timestamp;
+			writer.lastPrice = price;
+			writer.count = 1;
+			writer.writeHeader();
+			return writer;
+		}
+
+		// 디스크의 마지막(작성 중) 블록에 이어서 기록
+		public static Writer resume(byte[] block) {
+			Writer writer = new Writer(block);
+			writer.lastTimestamp = writer.header.getLong(LAST_TIMESTAMP);
+			writer.lastPrice = writer.header.getLong(LAST_PRICE);
+			writer.lastDelta = writer.header.getLong(LAST_DELTA);
+			writer.count = writer.header.getInt(COUNT);
+			writer.bits = writer.header.getInt(BITS);
+			return writer;
+		}
+
+		// 블록에 자리가 없거나 간격이 32 bit 를 넘으면 false (새 블록으로 시작)
+		public boolean append(long timestamp, long price) {
+			long delta = timestamp - lastTimestamp;
+			long dod = delta - lastDelta;
+			if (bits + MAX_TICK_BITS > CAPACITY_BITS || dod < Integer.MIN_VALUE || dod > Integer.MAX_VALUE) {
+				return false;
+			}
+
+			if (dod == 0) {
+				writeBits(0b0, 1);
+			} else if (fits(dod, 7)) {
+				writeBits(0b10, 2);
+				writeBits(dod, 7);
+			} else if (fits(dod, 9)) {
+				writeBits(0b110, 3);
+				writeBits(dod, 9);
+			} else if (fits(dod, 12)) {
+				writeBits(0b1110, 4);
+				writeBits(dod, 12);
+			} else {
+				writeBits(0b1111, 4);
+				writeBits(dod, 32);
+			}
+
+			long zigzag = zigzag(price - lastPrice);
+			if (zigzag == 0) {
+				writeBits(0b0, 1);
+			} else if (zigzag >>> 6 == 0) {
+				writeBits(0b10, 2);
+				writeBits(zigzag, 6);
+			} else if (zigzag >>> 14 == 0) {
+				writeBits(0b110, 3);
+				writeBits(zigzag, 14);
+			} else if (zigzag >>> 30 == 0) {
+				writeBits(0b1110, 4);
+				writeBits(zigzag, 30);
+			} else {
+				writeBits(0b1111, 4);
+				writeBits(zigzag, 64);
+			}
+
+			lastTimestamp = timestamp;
+			lastPrice = price;
+			lastDelta = delta;
+			count++;
+			writeHeader();
+			return true;
+		}
+
+		public byte[] bytes() {
+			return bytes;
+		}
+
+		public long firstTimestamp() {
+			return header.getLong(FIRST_TIMESTAMP);
+		}
+
+		public long lastTimestamp() {
+			return lastTimestamp;
+		}
+
+		public long lastPrice() {
+			return lastPrice;
+		}
+
+		public int count() {
+			return count;
+		}
+
+		private void writeHeader() {
+			header.putLong(LAST_TIMESTAMP, lastTimestamp);
+			header.putLong(LAST_PRICE, lastPrice);
+			header.putLong(LAST_DELTA, lastDelta);
+			header.putInt(COUNT, count);
+			header.putInt(BITS, (int) bits);
+		}
+
+		private void writeBits(long value, int n) {
+			for (int i = n - 1; i >= 0; i--) {
+				if (((value >>> i) & 1) != 0) {
+					int position = HEADER + (int) (bits >>> 3);
+					bytes[position] |= (byte) (0x80 >>> (bits & 7));
+				}
+				bits++;
+			}
+		}
+	}
+
+	// =========================
+	// 읽기
+	// =========================
+	// offset 위치의 블록에서 [from, to] 구간의 tick 을 순서대로 전달한다. false: visitor 가 중단
+	public static boolean read(ByteBuffer buffer, int offset, long from, long to, Visitor visitor) {
+		int count = buffer.getInt(offset + COUNT);
+		if (count == 0) {
+			return true;
+		}
+
+		long timestamp = buffer.getLong(offset + FIRST_TIMESTAMP);
+		long price = buffer.getLong(offset + FIRST_PRICE);
+		long delta = 0;
+		long[] bit = { (long) (offset + HEADER) * 8 };
+
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				long dod;
+				if (readBits(buffer, bit, 1) == 0) {
+					dod = 0;
+				} else if (readBits(buffer, bit, 1) == 0) {
+					dod = signed(readBits(buffer, bit, 7), 7);
+				} else if (readBits(buffer, bit, 1) == 0) {
+					dod = signed(readBits(buffer, bit, 9), 9);
+				} else if (readBits(buffer, bit, 1) == 0) {
+					dod = signed(readBits(buffer, bit, 12), 12);
+				} else {
+					dod = signed(readBits(buffer, bit, 32), 32);
+				}
+				delta += dod;
+				timestamp += delta;
+
+				long zigzag;
+				if (readBits(buffer, bit, 1) == 0) {
+					zigzag = 0;
+				} else if (readBits(buffer, bit, 1) == 0) {
+					zigzag = readBits(buffer, bit, 6);
+				} else if (readBits(buffer, bit, 1) == 0) {
+					zigzag = readBits(buffer, bit, 14);
+				} else if (readBits(buffer, bit, 1) == 0) {
+					zigzag = readBits(buffer, bit, 30);
+				} else {
+					zigzag = readBits(buffer, bit, 64);
+				}
+				price += (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+
+			if (timestamp > to) {
+				return true;
+			}
+			if (timestamp >= from && !visitor.tick(timestamp, price)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long readBits(ByteBuffer buffer, long[] bit, int n) {
+		long value = 0;
+		long position = bit[0];
+		for (int i = 0; i < n; i++) {
+			int b = buffer.get((int) (position >>> 3));
+			value = (value << 1) | ((b >>> (7 - (position & 7))) & 1);
+			position++;
+		}
+		bit[0] = position;
+		return value;
+	}
+
+	private static boolean fits(long value, int n) {
+		return value >= -(1L << (n - 1)) && value < (1L << (n - 1));
+	}
+
+	private static long signed(long value, int n) {
+		return (value << (64 - n)) >> (64 - n);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+}
@@ -0,0 +1,122 @@
+package com.sk.skala.stockapi.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sk.skala.stockapi.config.BulkheadRoutingDataSource;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.tools.Bulkhead;
+import com.sk.skala.stockapi.tools.JsonTool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+// 처리 중에만 BulkheadRoutingDataSource 에 class 가 표시되고, 거절/예외 후에는 thread 에 남지 않는다.
+class BulkheadFilterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		BulkheadRoutingDataSource.clear();
+	}
+
+	private BulkheadFilter.Route route(Bulkhead bulkhead) {
+		return BulkheadFilter.route(bulkhead, List.of("/api/players/**"), meterRegistry);
+	}
+
+	private MockHttpServletRequest request(String path) {
+		return new MockHttpServletRequest("POST", path);
+	}
+
+	@Test
+	void routesDuringChainAndClearsAfter() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("trading", 1, 0, 0);
+		BulkheadFilter filter = new BulkheadFilter(List.of(route(bulkhead)));
+		List<String> seen = new ArrayList<>();
+		FilterChain chain = (request, response) -> seen
+				.add(BulkheadRoutingDataSource.current() + "/" + bulkhead.getActive());
+
+		filter.doFilter(request("/api/players/buy"), new MockHttpServletResponse(), chain);
+		// 일치하는 class 가 없으면 default pool
+		filter.doFilter(request("/api/stocks/1"), new MockHttpServletResponse(), chain);
+
+		assertEquals(List.of("trading/1", "null/0"), seen);
+		assertNull(BulkheadRoutingDataSource.current());
+		assertEquals(0, bulkhead.getActive());
+	}
+
+	// chain 에서 예외가 나도 class 표시를 지우고 자리를 돌려준다.
+	@Test
+	void clearsAfterException() {
+		Bulkhead bulkhead = new Bulkhead("trading", 1, 0, 0);
+		BulkheadFilter filter = new BulkheadFilter(List.of(route(bulkhead)));
+
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(request("/api/players/buy"),
+				new MockHttpServletResponse(), (request, response) -> {
+					throw new IllegalStateException("failed");
+				}));
+		assertThrows(ServletException.class, () -> filter.doFilter(request("/api/players/buy"),
+				new MockHttpServletResponse(), (request, response) -> {
+					throw new ServletException("failed");
+				}));
+
+		assertNull(BulkheadRoutingDataSource.current());
+		assertEquals(0, bulkhead.getActive());
+	}
+
+	// 자리가 없으면 chain 을 부르지 않고 503 + SERVICE_BUSY, class 표시도 남기지 않는다.
+	@Test
+	void rejectsWithoutRouting() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("trading", 1, 0, 0);
+		BulkheadFilter filter = new BulkheadFilter(List.of(route(bulkhead)));
+		assertTrue(bulkhead.tryAcquire());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request("/api/players/buy"), response, (req, res) -> {
+			throw new AssertionError("chain called");
+		});
+
+		assertEquals(503, response.getStatus());
+		assertEquals(Error.SERVICE_BUSY.getCode(), JsonTool.toMap(response.getContentAsString()).get("code"));
+		assertNull(BulkheadRoutingDataSource.current());
+		assertEquals(1, bulkhead.getActive());
+		assertEquals(1, meterRegistry.get("skala.bulkhead.rejected").tag("bulkhead", "trading").counter().count());
+		bulkhead.release();
+	}
+
+	// 대기 중 interrupt 되면 거절하고 interrupt 상태를 유지한다.
+	@Test
+	void rejectsWhenInterruptedWhileQueued() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("trading", 1, 1, 60_000);
+		BulkheadFilter filter = new BulkheadFilter(List.of(route(bulkhead)));
+		assertTrue(bulkhead.tryAcquire());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		Thread.currentThread().interrupt();
+		try {
+			filter.doFilter(request("/api/players/buy"), response, (req, res) -> {
+				throw new AssertionError("chain called");
+			});
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertEquals(503, response.getStatus());
+		assertNull(BulkheadRoutingDataSource.current());
+		assertEquals(0, bulkhead.getQueued());
+		bulkhead.release();
+	}
+}
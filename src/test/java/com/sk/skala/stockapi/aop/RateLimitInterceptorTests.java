@@ -0,0 +1,48 @@
+package com.sk.skala.stockapi.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitInterceptorTests {
+
+	private RateLimitInterceptor interceptor(String... trustedProxies) {
+		ApplicationProperties.RateLimit rateLimit = new ApplicationProperties.RateLimit();
+		rateLimit.setTrustedProxies(List.of(trustedProxies));
+		return new RateLimitInterceptor("test", new ApplicationProperties.RateLimitGroup(), rateLimit,
+				new SimpleMeterRegistry());
+	}
+
+	private MockHttpServletRequest request(String remoteAddr, String forwarded) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remoteAddr);
+		if (forwarded != null) {
+			request.addHeader("X-Forwarded-For", forwarded);
+		}
+		return request;
+	}
+
+	@Test
+	void forwardedHeaderIgnoredFromUntrustedPeer() {
+		RateLimitInterceptor interceptor = interceptor("10.0.0.1");
+		assertEquals("203.0.113.7", interceptor.clientAddress(request("203.0.113.7", "198.51.100.1")));
+		assertEquals("203.0.113.7", interceptor().clientAddress(request("203.0.113.7", "198.51.100.1")));
+	}
+
+	// client 가 앞에 넣은 값은 무시하고 trusted proxy 가 덧붙인 마지막 주소를 사용한다.
+	@Test
+	void forwardedHeaderReadFromRightBehindTrustedProxies() {
+		RateLimitInterceptor interceptor = interceptor("10.0.0.1", "10.0.0.2");
+		assertEquals("198.51.100.1", interceptor.clientAddress(request("10.0.0.1", "198.51.100.1")));
+		assertEquals("198.51.100.1",
+				interceptor.clientAddress(request("10.0.0.1", "1.2.3.4, 198.51.100.1, 10.0.0.2")));
+		assertEquals("10.0.0.1", interceptor.clientAddress(request("10.0.0.1", null)));
+	}
+}
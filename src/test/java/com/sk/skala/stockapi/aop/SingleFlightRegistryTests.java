@@ -0,0 +1,83 @@
+package com.sk.skala.stockapi.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightRegistryTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SingleFlightRegistry registry(long timeout) {
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.getSingleFlight().setTimeout(timeout);
+		return new SingleFlightRegistry(meterRegistry, applicationProperties);
+	}
+
+	@Test
+	void followerSharesLeaderResult() throws Exception {
+		SingleFlightRegistry registry = registry(5_000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> execute(registry, () -> {
+			calls.incrementAndGet();
+			started.countDown();
+			release.await();
+			return "leader";
+		}));
+		started.await();
+
+		CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> execute(registry, () -> {
+			calls.incrementAndGet();
+			return "follower";
+		}));
+		Thread.sleep(200);  // follower 가 합류할 때까지
+		release.countDown();
+
+		assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+		assertEquals("leader", follower.get(5, TimeUnit.SECONDS));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void followerRunsDirectlyWhenLeaderStalls() throws Exception {
+		SingleFlightRegistry registry = registry(100);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> execute(registry, () -> {
+			started.countDown();
+			release.await();
+			return "leader";
+		}));
+		started.await();
+
+		try {
+			// 먼저 시작한 호출이 끝나지 않아도 timeout 후 직접 실행한 결과를 받는다.
+			assertEquals("follower", execute(registry, () -> "follower"));
+			assertEquals(1.0, meterRegistry.get("skala.singleflight.calls").tag("outcome", "timeout").counter().count());
+		} finally {
+			release.countDown();
+		}
+		assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+	}
+
+	private Object execute(SingleFlightRegistry registry, SingleFlightRegistry.Call call) {
+		try {
+			return registry.execute("test", new Object[] { 1L }, call);
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.sk.skala.stockapi.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.SqlCounter;
+
+// budget 을 넘는 요청은 fail-on-budget 으로 예외가 되어 테스트가 실패한다.
+@SpringBootTest(properties = {
+		"application.sql-statistics.fail-on-budget=true",
+		"application.sql-statistics.budgets[StockController.getStockById]=2"
+})
+@AutoConfigureMockMvc
+class SqlStatisticsTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void countsStatementsAndRows() {
+		SqlCounter counter = SqlCounter.begin();
+		try {
+			jdbcTemplate.queryForList("SELECT X FROM SYSTEM_RANGE(1, 5)");
+			jdbcTemplate.update("UPDATE stock SET updated_at = updated_at WHERE 1 = 0");
+		} finally {
+			SqlCounter.end();
+		}
+
+		assertEquals(2, counter.getStatements());
+		assertEquals(5, counter.getRows());
+		assertTrue(counter.getNanos() > 0);
+	}
+
+	@Test
+	void stockLookupStaysWithinBudget() throws Exception {
+		Stock stock = stockRepository.save(new Stock("SQL-BUDGET-" + System.nanoTime(), MoneyTool.ofMajor(100)));
+		try {
+			mockMvc.perform(get("/api/stocks/" + stock.getId())).andExpect(status().isOk());
+		} finally {
+			stockRepository.delete(stock);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.sk.skala.stockapi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * DOUBLE(major unit) 금액 컬럼 -> BIGINT(minor unit) 변환
+ * 애플리케이션 DB 와 분리된 H2 DB 에 이전 스키마를 만들어 실행한다. (시퀀스가 없으면 정렬은 건너뜀)
+ */
+class SchemaMigrationTests {
+
+	private SingleConnectionDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private SchemaMigration schemaMigration;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new SingleConnectionDataSource("jdbc:h2:mem:migration-" + System.nanoTime(), "sa", "", true);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		schemaMigration = new SchemaMigration(jdbcTemplate, new ApplicationProperties());
+		jdbcTemplate.execute("CREATE TABLE stock (id BIGINT PRIMARY KEY, stock_price DOUBLE)");
+		jdbcTemplate.execute("CREATE TABLE player (player_id VARCHAR(64) PRIMARY KEY, player_money DOUBLE)");
+	}
+
+	@AfterEach
+	void tearDown() {
+		MoneyTool.setScale(2);
+		dataSource.destroy();
+	}
+
+	// 부동소수 오차는 가장 가까운 minor unit 으로 반올림하고, NULL 은 0 이 된다.
+	@Test
+	void convertsWithRounding() {
+		stocks(100.25, 0.29, 19.999999999, 0.005, -1.005);
+		jdbcTemplate.update("INSERT INTO stock VALUES (99, NULL)");
+		jdbcTemplate.update("INSERT INTO player VALUES ('A', 1234.56)");
+
+		schemaMigration.migrate();
+
+		assertEquals("BIGINT", type("stock", "stock_price"));
+		assertEquals("NO", nullable("stock", "stock_price"));
+		assertEquals(List.of(10025L, 29L, 2000L, 1L, -100L, 0L), prices());
+		assertEquals(123456L, jdbcTemplate.queryForObject("SELECT player_money FROM player", Long.class));
+	}
+
+	// scale 3 이면 x1000, 다시 실행해도 이미 BIGINT 인 컬럼은 그대로 둔다.
+	@Test
+	void usesScaleAndRunsOnce() {
+		MoneyTool.setScale(3);
+		stocks(1.2345, 7);
+
+		schemaMigration.migrate();
+		schemaMigration.migrate();
+
+		assertEquals(List.of(1235L, 7000L), prices());
+	}
+
+	// 원래 컬럼을 지운 뒤 중단되었으면 임시 컬럼 이름만 바꿔 마무리한다.
+	@Test
+	void resumesAfterInterruption() {
+		stocks(2.5);
+		jdbcTemplate.execute("ALTER TABLE stock ADD COLUMN stock_price_minor BIGINT");
+		jdbcTemplate.update("UPDATE stock SET stock_price_minor = 250");
+		jdbcTemplate.execute("ALTER TABLE stock DROP COLUMN stock_price");
+		// 임시 컬럼을 채우는 중에 중단된 경우: 처음부터 다시 채운다.
+		jdbcTemplate.execute("ALTER TABLE player ADD COLUMN player_money_minor BIGINT");
+		jdbcTemplate.update("INSERT INTO player VALUES ('A', 3.5, 1)");
+
+		schemaMigration.migrate();
+
+		assertEquals(List.of(250L), prices());
+		assertEquals("BIGINT", type("stock", "stock_price"));
+		assertEquals(null, type("stock", "stock_price_minor"));
+		assertEquals(350L, jdbcTemplate.queryForObject("SELECT player_money FROM player", Long.class));
+		assertEquals(null, type("player", "player_money_minor"));
+	}
+
+	private void stocks(double... prices) {
+		for (int i = 0; i < prices.length; i++) {
+			jdbcTemplate.update("INSERT INTO stock VALUES (?, ?)", i + 1, prices[i]);
+		}
+	}
+
+	private List<Long> prices() {
+		return jdbcTemplate.queryForList("SELECT stock_price FROM stock ORDER BY id", Long.class);
+	}
+
+	private String type(String table, String column) {
+		return column(table, column, "DATA_TYPE");
+	}
+
+	private String nullable(String table, String column) {
+		return column(table, column, "IS_NULLABLE");
+	}
+
+	private String column(String table, String column, String attribute) {
+		List<String> values = jdbcTemplate.queryForList("SELECT " + attribute + " FROM INFORMATION_SCHEMA.COLUMNS"
+				+ " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ? AND COLUMN_NAME = ?", String.class,
+				table.toUpperCase(), column.toUpperCase());
+		return values.isEmpty() ? null : values.get(0);
+	}
+}
@@ -0,0 +1,43 @@
+package com.sk.skala.stockapi.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StockRepositoryTests {
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void insertsAreBatched() {
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Stock> stocks = IntStream.range(0, 200).mapToObj(i -> new Stock("BATCH-" + i, MoneyTool.ofMajor(100))).toList();
+		stockRepository.saveAll(stocks);
+		entityManager.flush();
+
+		assertEquals(200, statistics.getEntityInsertCount());
+		// 시퀀스 조회 (200 / allocation size) + insert batch (200 / batch_size) 수준이어야 한다. IDENTITY 라면 200 이상.
+		long statements = statistics.getPrepareStatementCount();
+		assertTrue(statements <= 20, "expected batched inserts but " + statements + " statements were prepared");
+	}
+}
@@ -0,0 +1,163 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.ConditionalOrderRequest;
+import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.table.ConditionalOrder;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.ConditionalOrderRepository;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 조건부 주문 등록 -> 가격 변경으로 trigger -> 실행 / 취소
+ * 평가는 스케줄러와 별개로 evaluate() 를 직접 호출해 확인한다. (상태 변경은 조건부 UPDATE 라 중복 실행되지 않음)
+ */
+@SpringBootTest
+class ConditionalOrderServiceTests {
+
+	@Autowired
+	private ConditionalOrderService conditionalOrderService;
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private ConditionalOrderRepository conditionalOrderRepository;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private SessionHandler sessionHandler;
+
+	private String playerId;
+	private Long stockId;
+
+	@BeforeEach
+	void setUp() {
+		String prefix = "ORDER-" + System.nanoTime();
+		stockId = stockRepository.save(new Stock(prefix, MoneyTool.ofMajor(100))).getId();
+		playerId = playerRepository.save(new Player(prefix, MoneyTool.ofMajor(10_000))).getPlayerId();
+		when(sessionHandler.getPlayerId()).thenReturn(playerId);
+
+		playerService.buyPlayerStock(new StockOrder(playerId, stockId, 10));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM conditional_order WHERE player_id = ?", playerId);
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id = ?", playerId);
+		jdbcTemplate.update("DELETE FROM player WHERE player_id = ?", playerId);
+		jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stockId);
+	}
+
+	@Test
+	void stopLossExecutesWhenPriceFallsThroughTrigger() throws Exception {
+		long stopLoss = create(ConditionalOrder.Type.STOP_LOSS, 90, 4);
+		long buyBelow = create(ConditionalOrder.Type.BUY_BELOW, 80, 3);
+		long takeProfit = create(ConditionalOrder.Type.TAKE_PROFIT, 120, 2);
+
+		// 생성 시점 가격(100)으로는 어느 주문도 실행되지 않는다.
+		conditionalOrderService.evaluate();
+		assertEquals(ConditionalOrder.Status.PENDING, status(stopLoss));
+		assertEquals(ConditionalOrder.Status.PENDING, status(buyBelow));
+		assertEquals(ConditionalOrder.Status.PENDING, status(takeProfit));
+
+		// 85: STOP_LOSS(90) 만 지나간다.
+		changePrice(85);
+		conditionalOrderService.evaluate();
+		awaitStatus(stopLoss, ConditionalOrder.Status.EXECUTED);
+		assertEquals(ConditionalOrder.Status.PENDING, status(buyBelow));
+		assertEquals(ConditionalOrder.Status.PENDING, status(takeProfit));
+
+		assertEquals(6, quantity());
+		assertEquals(MoneyTool.ofMajor(10_000 - 100 * 10 + 85 * 4), money());
+	}
+
+	@Test
+	void cancelledOrderIsNotExecuted() throws Exception {
+		long takeProfit = create(ConditionalOrder.Type.TAKE_PROFIT, 120, 2);
+
+		conditionalOrderService.cancelOrder(takeProfit);
+		assertEquals(ConditionalOrder.Status.CANCELLED, status(takeProfit));
+
+		// 이미 취소된 주문은 다시 취소할 수 없다.
+		ResponseException e = assertThrows(ResponseException.class, () -> conditionalOrderService.cancelOrder(takeProfit));
+		assertEquals(Error.DATA_NOT_FOUND.getCode(), e.getCode());
+
+		changePrice(130);
+		conditionalOrderService.evaluate();
+		Thread.sleep(300);  // 스케줄러 평가까지 기다린다.
+		assertEquals(ConditionalOrder.Status.CANCELLED, status(takeProfit));
+		assertEquals(10, quantity());
+	}
+
+	@Test
+	void otherPlayerCannotCancel() {
+		long stopLoss = create(ConditionalOrder.Type.STOP_LOSS, 90, 1);
+
+		when(sessionHandler.getPlayerId()).thenReturn(playerId + "-other");
+		ResponseException e = assertThrows(ResponseException.class, () -> conditionalOrderService.cancelOrder(stopLoss));
+		assertEquals(Error.DATA_NOT_FOUND.getCode(), e.getCode());
+		assertEquals(ConditionalOrder.Status.PENDING, status(stopLoss));
+	}
+
+	private long create(ConditionalOrder.Type type, long triggerPrice, int quantity) {
+		ConditionalOrderRequest request = new ConditionalOrderRequest(stockId, type, MoneyTool.ofMajor(triggerPrice),
+				quantity);
+		return ((ConditionalOrder) conditionalOrderService.createOrder(request).getBody()).getId();
+	}
+
+	private void changePrice(long price) {
+		Stock stock = stockRepository.findById(stockId).orElseThrow();
+		stock.setStockPrice(MoneyTool.ofMajor(price));
+		stockService.updateStock(stock);
+	}
+
+	private ConditionalOrder.Status status(long orderId) {
+		return conditionalOrderRepository.findById(orderId).orElseThrow().getStatus();
+	}
+
+	// 스케줄러가 먼저 꺼내 실행 중일 수 있으므로 잠시 기다린다.
+	private void awaitStatus(long orderId, ConditionalOrder.Status expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (status(orderId) != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(expected, status(orderId));
+	}
+
+	private int quantity() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM player_stock WHERE player_id = ?",
+				Integer.class, playerId);
+	}
+
+	private long money() {
+		return jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class, playerId);
+	}
+}
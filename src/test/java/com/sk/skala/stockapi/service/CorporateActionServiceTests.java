@@ -0,0 +1,279 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.CorporateActionRequest;
+import com.sk.skala.stockapi.data.table.CorporateAction;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.CorporateActionRepository;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.PlayerStockRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 권리 조정: 분할/병합 수량과 1주 미만 현금 지급, 배당, 실패한 chunk 이어서 처리, 거래 정지/해제
+ * chunk-size 2 로 보유 행을 여러 chunk 로 나누고, 진행은 스케줄러 대신 poll() 을 직접 호출한다.
+ */
+@SpringBootTest(properties = {
+		"application.corporate-action.chunk-size=2",
+		"application.corporate-action.poll-interval=3600000" })
+class CorporateActionServiceTests {
+
+	@Autowired
+	private CorporateActionService corporateActionService;
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private CorporateActionRepository corporateActionRepository;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private PlayerStockRepository playerStockRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String prefix;
+	private Stock stock;
+	private long haltGrace;
+
+	@BeforeEach
+	void setUp() {
+		prefix = "ACTION-" + System.nanoTime();
+		haltGrace = applicationProperties.getCorporateAction().getHaltGrace();
+		applicationProperties.getCorporateAction().setHaltGrace(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		applicationProperties.getCorporateAction().setHaltGrace(haltGrace);
+		if (stock != null) {
+			jdbcTemplate.update("DELETE FROM corporate_action_chunk WHERE action_id IN"
+					+ " (SELECT id FROM corporate_action WHERE stock_id = ?)", stock.getId());
+			jdbcTemplate.update("DELETE FROM corporate_action WHERE stock_id = ?", stock.getId());
+		}
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", prefix + "%");
+		if (stock != null) {
+			jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stock.getId());
+		}
+	}
+
+	// 3:2 분할 (2주 -> 3주): 가격 101.00 -> 67.33, 홀수 수량의 0.5주는 조정 후 가격의 절반(33.66)으로 지급
+	@Test
+	void splitPaysFractionalSharesInCash() throws Exception {
+		stock("101");
+		String odd = holder("odd", 3);
+		String even = holder("even", 4);
+		String one = holder("one", 1);
+
+		long actionId = run(CorporateAction.Type.SPLIT, 2, 3, null);
+
+		assertEquals(6733, price());
+		assertEquals(2, chunks(actionId));
+		assertEquals(4, quantity(odd));
+		assertEquals(6, quantity(even));
+		assertEquals(1, quantity(one));
+		assertEquals(3366, money(odd));
+		assertEquals(0, money(even));
+		assertEquals(3366, money(one));
+	}
+
+	// 1:10 병합: 0 주가 되는 보유 행은 지우고 남는 주식은 모두 현금으로 지급
+	@Test
+	void reverseSplitDeletesEmptyHoldings() throws Exception {
+		stock("5");
+		String kept = holder("kept", 25);
+		String emptied = holder("emptied", 7);
+
+		run(CorporateAction.Type.REVERSE_SPLIT, 10, 1, null);
+
+		assertEquals(MoneyTool.ofMajor(50), price());
+		assertEquals(2, quantity(kept));
+		assertEquals(MoneyTool.ofMajor(25), money(kept));  // 0.5주 x 50.00
+		assertFalse(holds(emptied));
+		assertEquals(MoneyTool.ofMajor(35), money(emptied));  // 0.7주 x 50.00
+	}
+
+	@Test
+	void cashDividendCreditsEveryHolder() throws Exception {
+		stock("10");
+		String a = holder("a", 3);
+		String b = holder("b", 10);
+		String c = holder("c", 1);
+
+		run(CorporateAction.Type.CASH_DIVIDEND, null, null, MoneyTool.fromDecimal("0.5"));
+
+		assertEquals(MoneyTool.ofMajor(10), price());
+		assertEquals(150, money(a));
+		assertEquals(500, money(b));
+		assertEquals(50, money(c));
+		assertEquals(3, quantity(a));
+	}
+
+	// 실패한 chunk 는 done 이 아니므로 다음 poll 에서 그 chunk 만 다시 처리한다. (끝난 chunk 는 다시 지급하지 않음)
+	@Test
+	void resumesOnlyChunksThatAreNotDone() throws Exception {
+		stock("10");
+		String a = holder("a", 1);
+		String b = holder("b", 2);
+		String overflow = holder("overflow", 4);
+		jdbcTemplate.update("UPDATE player SET player_money = ? WHERE player_id = ?", Long.MAX_VALUE, overflow);
+
+		long actionId = create(CorporateAction.Type.CASH_DIVIDEND, null, null, MoneyTool.ofMajor(1));
+		corporateActionService.poll();
+		await(() -> message(actionId) != null);
+
+		assertEquals(CorporateAction.Status.RUNNING, status(actionId));
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM corporate_action_chunk WHERE action_id = ? AND done = TRUE", Integer.class,
+				actionId));
+		assertEquals(MoneyTool.ofMajor(1), money(a));
+		assertEquals(MoneyTool.ofMajor(2), money(b));
+		assertTrue(halted());
+
+		jdbcTemplate.update("UPDATE player SET player_money = 0 WHERE player_id = ?", overflow);
+		corporateActionService.poll();
+		await(() -> status(actionId) == CorporateAction.Status.COMPLETED);
+
+		assertEquals(MoneyTool.ofMajor(1), money(a));
+		assertEquals(MoneyTool.ofMajor(2), money(b));
+		assertEquals(MoneyTool.ofMajor(4), money(overflow));
+		assertFalse(halted());
+	}
+
+	// halt-grace 동안 거래 정지 상태로 남고 매수가 거절된다. 완료되면 정지가 풀린다.
+	@Test
+	void haltsTradingUntilCompleted() throws Exception {
+		stock("10");
+		String buyer = holder("buyer", 1);
+		jdbcTemplate.update("UPDATE player SET player_money = ? WHERE player_id = ?", MoneyTool.ofMajor(100), buyer);
+		applicationProperties.getCorporateAction().setHaltGrace(3_600_000);
+
+		long actionId = create(CorporateAction.Type.SPLIT, 1, 2, null);
+		corporateActionService.poll();
+		await(() -> status(actionId) == CorporateAction.Status.HALTED);
+
+		assertTrue(halted());
+		ResponseException e = assertThrows(ResponseException.class,
+				() -> playerService.executeBuy(buyer, stock.getId(), 1));
+		assertEquals(Error.TRADING_HALTED.getCode(), e.getCode());
+		assertEquals(MoneyTool.ofMajor(10), price());
+
+		applicationProperties.getCorporateAction().setHaltGrace(0);
+		corporateActionService.poll();
+		await(() -> status(actionId) == CorporateAction.Status.COMPLETED);
+
+		assertFalse(halted());
+		assertEquals(MoneyTool.ofMajor(5), price());
+		playerService.executeBuy(buyer, stock.getId(), 1);
+		assertEquals(3, quantity(buyer));
+	}
+
+	private void stock(String price) {
+		stock = stockRepository.save(new Stock(prefix, MoneyTool.fromDecimal(price)));
+	}
+
+	private String holder(String name, int quantity) {
+		Player player = playerRepository.save(new Player(prefix + "-" + name, 0));
+		playerStockRepository.save(new PlayerStock(player, stock, quantity));
+		return player.getPlayerId();
+	}
+
+	private long create(CorporateAction.Type type, Integer from, Integer to, Long dividend) {
+		CorporateActionRequest request = CorporateActionRequest.builder()
+				.stockId(stock.getId())
+				.actionType(type)
+				.ratioFrom(from)
+				.ratioTo(to)
+				.dividendPerShare(dividend)
+				.build();
+		return ((CorporateAction) corporateActionService.createAction(request).getBody()).getId();
+	}
+
+	private long run(CorporateAction.Type type, Integer from, Integer to, Long dividend) throws Exception {
+		long actionId = create(type, from, to, dividend);
+		corporateActionService.poll();
+		await(() -> status(actionId) == CorporateAction.Status.COMPLETED);
+		return actionId;
+	}
+
+	private interface Condition {
+		boolean met();
+	}
+
+	// poll() 은 진행 중이면 아무것도 하지 않으므로 조건을 만족할 때까지 다시 호출한다.
+	private void await(Condition condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.met() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			corporateActionService.poll();
+		}
+		assertTrue(condition.met());
+	}
+
+	private CorporateAction.Status status(long actionId) {
+		return corporateActionRepository.findById(actionId).orElseThrow().getStatus();
+	}
+
+	private String message(long actionId) {
+		return corporateActionRepository.findById(actionId).orElseThrow().getMessage();
+	}
+
+	private int chunks(long actionId) {
+		return corporateActionRepository.findById(actionId).orElseThrow().getChunks();
+	}
+
+	private long price() {
+		return jdbcTemplate.queryForObject("SELECT stock_price FROM stock WHERE id = ?", Long.class, stock.getId());
+	}
+
+	private boolean halted() {
+		return jdbcTemplate.queryForObject("SELECT trading_halted FROM stock WHERE id = ?", Boolean.class,
+				stock.getId());
+	}
+
+	private long money(String playerId) {
+		return jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class, playerId);
+	}
+
+	private boolean holds(String playerId) {
+		List<Integer> found = jdbcTemplate.queryForList(
+				"SELECT quantity FROM player_stock WHERE player_id = ? AND stock_id = ?", Integer.class, playerId,
+				stock.getId());
+		return !found.isEmpty();
+	}
+
+	private int quantity(String playerId) {
+		return jdbcTemplate.queryForObject("SELECT quantity FROM player_stock WHERE player_id = ? AND stock_id = ?",
+				Integer.class, playerId, stock.getId());
+	}
+}
@@ -0,0 +1,158 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 메모리 저장소: 권리 조정 중(trading_halted) 종목의 거래 거절, flush 후 DB 와 메모리 상태 일치
+ * flush 는 스케줄러 대신 직접 호출한다.
+ */
+@SpringBootTest(properties = {
+		"application.holdings.in-memory=true",
+		"application.holdings.flush-interval=3600000" })
+class HoldingsStoreTests {
+
+	@Autowired
+	private HoldingsStore holdingsStore;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String from;
+	private String to;
+	private long stockId;
+	private long otherStockId;
+
+	@BeforeEach
+	void setUp() {
+		String prefix = "HOLDINGS-" + System.nanoTime();
+		stockId = stockRepository.save(new Stock(prefix, MoneyTool.ofMajor(100))).getId();
+		otherStockId = stockRepository.save(new Stock(prefix + "-2", MoneyTool.fromDecimal("12.34"))).getId();
+		from = playerRepository.save(new Player(prefix + "-A", MoneyTool.ofMajor(10_000))).getPlayerId();
+		to = playerRepository.save(new Player(prefix + "-B", MoneyTool.ofMajor(10_000))).getPlayerId();
+		holdingsStore.refreshStock(stockId);
+		holdingsStore.refreshStock(otherStockId);
+		holdingsStore.putPlayer(from, MoneyTool.ofMajor(10_000));
+		holdingsStore.putPlayer(to, MoneyTool.ofMajor(10_000));
+		holdingsStore.buy(from, stockId, 10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		holdingsStore.removePlayer(from);
+		holdingsStore.removePlayer(to);
+		holdingsStore.removeStock(stockId);
+		holdingsStore.removeStock(otherStockId);
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id IN (?, ?)", from, to);
+		jdbcTemplate.update("DELETE FROM player WHERE player_id IN (?, ?)", from, to);
+		jdbcTemplate.update("DELETE FROM stock WHERE id IN (?, ?)", stockId, otherStockId);
+	}
+
+	@Test
+	void haltedStockRejectsBuySellAndTransfer() {
+		setHalted(true);
+		// 이름/가격 변경이 정지 여부를 덮어쓰지 않는다.
+		holdingsStore.putStock(stockId, "renamed", MoneyTool.ofMajor(120));
+
+		assertHalted(() -> holdingsStore.buy(from, stockId, 1));
+		assertHalted(() -> holdingsStore.sell(from, stockId, 1));
+		assertHalted(() -> holdingsStore.transfer(from, to, stockId, 1, 0));
+		// 자금만 보내는 이전은 종목과 무관하다.
+		holdingsStore.transfer(from, to, null, 0, MoneyTool.ofMajor(1));
+
+		setHalted(false);
+		holdingsStore.sell(from, stockId, 1);
+		holdingsStore.transfer(from, to, stockId, 1, 0);
+		assertEquals(8, quantity(from));
+		assertEquals(1, quantity(to));
+	}
+
+	// 매수/매도/이전 후 flush 하면 player_money 와 player_stock 이 메모리와 같다.
+	// 다 판 종목의 행은 삭제 후 다시 insert 할 때 빠지고, 다시 바뀐 플레이어는 다음 flush 에 또 반영된다.
+	@Test
+	void flushWritesMemoryStateToDatabase() {
+		holdingsStore.buy(from, otherStockId, 3);
+		holdingsStore.sell(from, stockId, 4);
+		holdingsStore.transfer(from, to, stockId, 2, 0);
+		holdingsStore.transfer(to, from, null, 0, MoneyTool.fromDecimal("0.01"));
+		holdingsStore.flush();
+
+		assertFlushed(from);
+		assertFlushed(to);
+		assertEquals(Map.of(stockId, 4, otherStockId, 3), positions(from));
+		assertEquals(MoneyTool.ofMajor(10_000 - 1_000 + 400) - 3_702 + 1, money(from));
+
+		holdingsStore.sell(from, otherStockId, 3);
+		holdingsStore.transfer(from, to, stockId, 4, 0);
+		holdingsStore.flush();
+
+		assertFlushed(from);
+		assertFlushed(to);
+		assertEquals(Map.of(), positions(from));
+		assertEquals(Map.of(stockId, 6), positions(to));
+	}
+
+	private void assertFlushed(String playerId) {
+		PlayerStockListDto portfolio = holdingsStore.getPortfolio(playerId);
+		Map<Long, Integer> memory = new HashMap<>();
+		portfolio.getStocks().forEach(stock -> memory.put(stock.getStockId(), stock.getQuantity()));
+
+		assertEquals(portfolio.getPlayerMoney(), money(playerId));
+		assertEquals(memory, positions(playerId));
+	}
+
+	private long money(String playerId) {
+		return jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class, playerId);
+	}
+
+	private Map<Long, Integer> positions(String playerId) {
+		Map<Long, Integer> positions = new HashMap<>();
+		jdbcTemplate.query("SELECT stock_id, quantity FROM player_stock WHERE player_id = ?", rs -> {
+			positions.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+		}, playerId);
+		return positions;
+	}
+
+	private void setHalted(boolean halted) {
+		jdbcTemplate.update("UPDATE stock SET trading_halted = ? WHERE id = ?", halted, stockId);
+		holdingsStore.refreshStock(stockId);
+	}
+
+	private void assertHalted(Executable executable) {
+		ResponseException e = assertThrows(ResponseException.class, executable);
+		assertEquals(Error.TRADING_HALTED.getCode(), e.getCode());
+	}
+
+	private int quantity(String playerId) {
+		return holdingsStore.getPortfolio(playerId).getStocks().stream()
+				.filter(stock -> stock.getStockId() == stockId)
+				.mapToInt(stock -> stock.getQuantity())
+				.sum();
+	}
+}
@@ -0,0 +1,76 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.Constant;
+import com.sk.skala.stockapi.data.dto.ImportResult;
+
+/**
+ * 대량 등록 처리량 측정 (목표: 100k rows/s 이상)
+ * stocks -> players -> holdings 순서로 CSV 를 메모리에서 만들어 등록하고 대상별 rows/s 를 출력한다.
+ * 비밀번호 해시는 BCrypt 비용이 지배하므로 players 는 빈 비밀번호로 측정한다.
+ * mvn test -Dtest=ImportBenchmarkTests -Dbenchmark=true [-Dbenchmark.rows=200000]
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ImportBenchmarkTests {
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String prefix = "BENCH-" + System.nanoTime() + "-";
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", prefix + "%");
+	}
+
+	@Test
+	void rowsPerSecond() throws Exception {
+		int rows = Integer.getInteger("benchmark.rows", 200_000);
+		int stocks = Math.max(1, rows / 100);
+
+		System.out.printf("%-10s %10s %10s %12s%n", "target", "rows", "ms", "rows/sec");
+		run("stocks", stocks, "stockName,stockPrice", i -> prefix + i + "," + (1 + i % 1000) + ".25");
+
+		List<Long> stockIds = jdbcTemplate.queryForList("SELECT id FROM stock WHERE stock_name LIKE ? ORDER BY id",
+				Long.class, prefix + "%");
+		run("players", rows, "playerId,playerPassword,playerMoney", i -> prefix + i + ",,10000");
+		run("holdings", rows, "playerId,stockId,quantity",
+				i -> prefix + i + "," + stockIds.get(i % stockIds.size()) + "," + (1 + i % 50));
+	}
+
+	private interface Line {
+		String of(int i);
+	}
+
+	private void run(String target, int rows, String header, Line line) throws Exception {
+		StringBuilder csv = new StringBuilder(rows * 32).append(header).append('\n');
+		for (int i = 0; i < rows; i++) {
+			csv.append(line.of(i)).append('\n');
+		}
+		InputStream in = new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+
+		ImportResult result = (ImportResult) importService.importRows(target, Constant.CONTENT_TYPE_CSV, in).getBody();
+		assertEquals(rows, result.getInserted(), target);
+		System.out.printf("%-10s %10d %10d %12d%n", target, result.getRows(), result.getElapsedMillis(),
+				result.getRowsPerSecond());
+	}
+}
@@ -0,0 +1,180 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.Constant;
+import com.sk.skala.stockapi.data.dto.ImportResult;
+
+/**
+ * 대량 등록: CSV/NDJSON 파싱, 중복 처리, 청크 롤백
+ * chunk-size 3 으로 여러 청크를 만든다.
+ */
+@SpringBootTest(properties = "application.bulk.chunk-size=3")
+class ImportServiceTests {
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private PasswordHasher passwordHasher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String prefix = "IMPORT-" + System.nanoTime() + "-";
+	private final List<String> playerIds = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		for (String playerId : playerIds) {
+			jdbcTemplate.update("DELETE FROM player_stock WHERE player_id = ?", playerId);
+			jdbcTemplate.update("DELETE FROM player WHERE player_id = ?", playerId);
+		}
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", prefix + "%");
+	}
+
+	// 헤더 순서와 관계없이 이름으로 읽고, 따옴표 안의 콤마를 지원한다. 잘못된 행은 줄 번호와 함께 거절된다.
+	@Test
+	void parsesCsvByHeaderAndRejectsInvalidRows() throws Exception {
+		ImportResult result = importCsv("stocks", "stockPrice,stockName",
+				"12.50," + stock("A"),
+				"7,\"" + stock("B, Inc.") + "\"",
+				"abc," + stock("C"),
+				"-1," + stock("D"),
+				"10,");
+
+		assertEquals(5, result.getRows());
+		assertEquals(2, result.getInserted());
+		assertEquals(3, result.getFailed());
+		assertEquals(1250L, price("A"));
+		assertEquals(700L, price("B, Inc."));
+		List<String> errors = result.getChunks().stream().flatMap(chunk -> chunk.getErrors().stream()).toList();
+		assertTrue(errors.contains("line 4: stockPrice is not a valid amount: abc"), errors.toString());
+		assertTrue(errors.contains("line 5: stockPrice out of range: -1"), errors.toString());
+		assertTrue(errors.contains("line 6: stockName is required"), errors.toString());
+	}
+
+	@Test
+	void parsesNdjson() throws Exception {
+		byte[] body = String.join("\n",
+				"{\"stockName\":\"" + stock("N1") + "\",\"stockPrice\":\"3\"}",
+				"{\"stockName\":\"" + stock("N2") + "\",\"stockPrice\":4.5}",
+				"not json").getBytes(StandardCharsets.UTF_8);
+		ImportResult result = (ImportResult) importService.importRows("stocks", Constant.CONTENT_TYPE_NDJSON,
+				new ByteArrayInputStream(body)).getBody();
+
+		assertEquals(2, result.getInserted());
+		assertEquals(1, result.getFailed());
+		assertEquals(300L, price("N1"));
+		assertEquals(450L, price("N2"));
+	}
+
+	// 파일 안의 중복과 이미 있는 행은 건너뛴다. (처음 나온 행이 저장됨)
+	@Test
+	void skipsDuplicates() throws Exception {
+		ImportResult first = importCsv("stocks", "stockName,stockPrice",
+				stock("X") + ",1",
+				stock("Y") + ",2",
+				stock("X") + ",3");
+		assertEquals(2, first.getInserted());
+		assertEquals(1, first.getSkipped());
+		assertEquals(100L, price("X"));
+
+		ImportResult second = importCsv("stocks", "stockName,stockPrice",
+				stock("X") + ",4",
+				stock("Z") + ",5");
+		assertEquals(1, second.getInserted());
+		assertEquals(1, second.getSkipped());
+		assertEquals(100L, price("X"));
+
+		long stockId = jdbcTemplate.queryForObject("SELECT id FROM stock WHERE stock_name = ?", Long.class,
+				prefix + "X");
+		importCsv("players", "playerId,playerPassword", player("holder") + ",");
+		ImportResult holdings = importCsv("holdings", "playerId,stockId,quantity",
+				prefix + "holder," + stockId + ",10",
+				prefix + "holder," + stockId + ",20",
+				prefix + "missing," + stockId + ",5");
+		assertEquals(1, holdings.getInserted());
+		assertEquals(1, holdings.getSkipped());
+		assertEquals(1, holdings.getFailed());
+		assertEquals(10, jdbcTemplate.queryForObject("SELECT quantity FROM player_stock WHERE player_id = ?",
+				Integer.class, prefix + "holder"));
+	}
+
+	// 저장 중 오류(컬럼 길이 초과)가 난 청크는 전체가 롤백되고, 다른 청크는 저장된다.
+	@Test
+	void rollsBackOnlyFailingChunk() throws Exception {
+		ImportResult result = importCsv("stocks", "stockName,stockPrice",
+				stock("R1") + ",1",
+				stock("R2") + ",1",
+				stock("R3") + ",1",
+				stock("R4") + ",1",
+				stock("R5".repeat(200)) + ",1",
+				stock("R6") + ",1",
+				stock("R7") + ",1");
+
+		assertEquals(3, result.getChunks().size());
+		assertEquals(4, result.getInserted());
+		assertEquals(3, result.getFailed());
+		assertEquals(3, result.getChunks().get(1).getFailed());
+		assertEquals(0, result.getChunks().get(1).getInserted());
+		assertTrue(result.getChunks().get(1).getErrors().get(0).startsWith("chunk rolled back"));
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock WHERE stock_name IN (?, ?)",
+				Integer.class, prefix + "R4", prefix + "R6"));
+		assertEquals(100L, price("R7"));
+	}
+
+	// 평문 비밀번호는 해시해 저장하고, 이미 BCrypt 형식인 값과 빈 값은 그대로 저장한다.
+	@Test
+	void playerPasswordsAreHashed() throws Exception {
+		String hashed = passwordHasher.hash("exported");
+		ImportResult result = importCsv("players", "playerId,playerPassword,playerMoney",
+				player("plain") + ",secret,100",
+				player("hashed") + "," + hashed + ",100",
+				player("empty") + ",,100");
+
+		assertEquals(3, result.getInserted());
+		assertTrue(passwordHasher.isHashed(password("plain")));
+		assertTrue(passwordHasher.matches("secret", password("plain")));
+		assertEquals(hashed, password("hashed"));
+		assertEquals("", password("empty"));
+	}
+
+	private ImportResult importCsv(String target, String... lines) throws Exception {
+		byte[] body = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+		return (ImportResult) importService.importRows(target, Constant.CONTENT_TYPE_CSV, new ByteArrayInputStream(body))
+				.getBody();
+	}
+
+	private String stock(String name) {
+		return prefix + name;
+	}
+
+	private long price(String name) {
+		return jdbcTemplate.queryForObject("SELECT stock_price FROM stock WHERE stock_name = ?", Long.class,
+				prefix + name);
+	}
+
+	private String player(String name) {
+		String playerId = prefix + name;
+		playerIds.add(playerId);
+		return playerId;
+	}
+
+	private String password(String name) {
+		return jdbcTemplate.queryForObject("SELECT player_password FROM player WHERE player_id = ?", String.class,
+				prefix + name);
+	}
+}
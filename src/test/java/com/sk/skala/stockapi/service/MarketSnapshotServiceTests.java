@@ -0,0 +1,239 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
+import com.sk.skala.stockapi.data.dto.TransferRequest;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.PlayerStockRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 시장 상태 스냅샷: DB 와 같은 내용으로 다시 읽히는지, 손상/잘린 파일 거절, 스냅샷 + mark 이후 변경분 재조정
+ * window 를 작게 두어 레코드와 문자열이 window 경계에 걸치게 하고, 스냅샷/메모리 저장소 설정은 테스트 동안만 바꾼다.
+ */
+@SpringBootTest
+class MarketSnapshotServiceTests {
+
+	@Autowired
+	private MarketSnapshotService marketSnapshotService;
+
+	@Autowired
+	private HoldingsStore holdingsStore;
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private PlayerStockRepository playerStockRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private SessionHandler sessionHandler;
+
+	@TempDir
+	Path directory;
+
+	private ApplicationProperties.Snapshot saved;
+	private String prefix;
+	private Path path;
+
+	@BeforeEach
+	void setUp() {
+		ApplicationProperties.Snapshot snapshot = applicationProperties.getSnapshot();
+		saved = new ApplicationProperties.Snapshot();
+		saved.setEnabled(snapshot.isEnabled());
+		saved.setPath(snapshot.getPath());
+		saved.setReconcileWindow(snapshot.getReconcileWindow());
+		saved.setMapWindowSize(snapshot.getMapWindowSize());
+
+		prefix = "SNAPSHOT-" + System.nanoTime();
+		path = directory.resolve("skala-stock.snapshot");
+		snapshot.setEnabled(true);
+		snapshot.setPath(path.toString());
+		snapshot.setMapWindowSize(16);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ApplicationProperties.Snapshot snapshot = applicationProperties.getSnapshot();
+		snapshot.setEnabled(saved.isEnabled());
+		snapshot.setPath(saved.getPath());
+		snapshot.setReconcileWindow(saved.getReconcileWindow());
+		snapshot.setMapWindowSize(saved.getMapWindowSize());
+		applicationProperties.getHoldings().setInMemory(false);
+
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", prefix + "%");
+	}
+
+	// 다양한 길이의 이름(한글, window 보다 긴 이름)과 보유 주식이 DB 와 같은 내용으로 다시 읽힌다.
+	@Test
+	void roundTripsDatabaseContents() {
+		Stock korean = stock(prefix + "-삼성전자 우선주", "71000");
+		stock(prefix + "-" + "x".repeat(100), "0.01");
+		String a = player("A", "1234.56");
+		player("B", "0");
+		hold(a, korean, 7);
+
+		marketSnapshotService.write();
+		Contents read = new Contents();
+		MarketSnapshotService.Header header = marketSnapshotService.read(read);
+
+		assertNotNull(header);
+		Contents expected = database();
+		assertEquals(expected.stocks, read.stocks);
+		assertEquals(expected.players, read.players);
+		assertEquals(expected.positions, read.positions);
+		assertEquals(expected.stocks.size(), header.stocks());
+		assertEquals(expected.players.size(), header.players());
+		assertEquals(expected.positions.size(), header.positions());
+		assertEquals(marketSnapshotService.highWaterMark(), header.highWaterMark());
+	}
+
+	// footer 건수가 맞지 않거나, 파일이 잘렸거나, 형식이 다르면 null 을 반환한다.
+	@Test
+	void rejectsCorruptFiles() throws Exception {
+		hold(player("A", "10"), stock(prefix, "10"), 1);
+		marketSnapshotService.write();
+		byte[] bytes = Files.readAllBytes(path);
+		assertNotNull(marketSnapshotService.read(new Contents()));
+
+		// footer: end magic(8) + 종목 수(4) + 플레이어 수(4) + 보유 주식 수(8)
+		byte[] footer = bytes.clone();
+		ByteBuffer.wrap(footer).putLong(footer.length - 8, ByteBuffer.wrap(bytes).getLong(bytes.length - 8) + 1);
+		assertUnusable(footer);
+
+		assertUnusable(Arrays.copyOf(bytes, bytes.length - 1));
+		assertUnusable(Arrays.copyOf(bytes, bytes.length - 24));
+		assertUnusable(Arrays.copyOf(bytes, bytes.length / 2));
+		assertUnusable(Arrays.copyOf(bytes, 10));
+
+		byte[] magic = bytes.clone();
+		magic[0] ^= 1;
+		assertUnusable(magic);
+
+		Files.delete(path);
+		assertNull(marketSnapshotService.read(new Contents()));
+	}
+
+	// 스냅샷 mark 이후 커밋된 주식만의 이전은 player.updated_at 으로 재조정된다.
+	// 재조정 구간 밖에서 updated_at 없이 바뀐 자금은 스냅샷 값이 남으므로 전체 적재가 아니라 스냅샷으로 적재한 것을 확인할 수 있다.
+	@Test
+	void reconcilesStockOnlyTransferAfterMark() {
+		Stock stock = stock(prefix, "10");
+		String from = player("A", "1000");
+		String to = player("B", "1000");
+		String untouched = player("C", "1000");
+		hold(from, stock, 5);
+		jdbcTemplate.update("UPDATE player SET updated_at = 1 WHERE player_id LIKE ?", prefix + "%");
+		applicationProperties.getSnapshot().setReconcileWindow(0);
+		marketSnapshotService.write();
+
+		when(sessionHandler.getPlayerId()).thenReturn(from);
+		playerService.transfer(new TransferRequest(to, stock.getId(), 2, null));
+		jdbcTemplate.update("UPDATE player SET player_money = 1 WHERE player_id = ?", untouched);
+
+		applicationProperties.getHoldings().setInMemory(true);
+		holdingsStore.load();
+
+		assertEquals(3, quantity(holdingsStore.getPortfolio(from), stock.getId()));
+		assertEquals(2, quantity(holdingsStore.getPortfolio(to), stock.getId()));
+		assertEquals(MoneyTool.ofMajor(1000), holdingsStore.getPortfolio(untouched).getPlayerMoney());
+	}
+
+	private Stock stock(String name, String price) {
+		return stockRepository.save(new Stock(name, MoneyTool.fromDecimal(price)));
+	}
+
+	private String player(String name, String money) {
+		return playerRepository.save(new Player(prefix + "-" + name, MoneyTool.fromDecimal(money))).getPlayerId();
+	}
+
+	private void hold(String playerId, Stock stock, int quantity) {
+		playerStockRepository.save(new PlayerStock(playerRepository.findById(playerId).orElseThrow(), stock, quantity));
+	}
+
+	private void assertUnusable(byte[] bytes) throws Exception {
+		Files.write(path, bytes);
+		assertNull(marketSnapshotService.read(new Contents()));
+	}
+
+	private static int quantity(PlayerStockListDto portfolio, long stockId) {
+		return portfolio.getStocks().stream()
+				.filter(stock -> stock.getStockId() == stockId)
+				.mapToInt(stock -> stock.getQuantity())
+				.sum();
+	}
+
+	private Contents database() {
+		Contents contents = new Contents();
+		jdbcTemplate.query("SELECT id, stock_name, stock_price FROM stock", rs -> {
+			contents.stock(rs.getLong(1), rs.getString(2), rs.getLong(3));
+		});
+		jdbcTemplate.query("SELECT player_id, player_money FROM player", rs -> {
+			contents.player(rs.getString(1), rs.getLong(2));
+		});
+		jdbcTemplate.query("SELECT player_id, stock_id, quantity FROM player_stock WHERE quantity > 0", rs -> {
+			contents.position(rs.getString(1), rs.getLong(2), rs.getInt(3));
+		});
+		return contents;
+	}
+
+	private static class Contents implements MarketSnapshotService.Visitor {
+		final Map<Long, String> stocks = new HashMap<>();
+		final Map<String, Long> players = new HashMap<>();
+		final Map<String, Integer> positions = new HashMap<>();
+
+		@Override
+		public void stock(long stockId, String stockName, long stockPrice) {
+			stocks.put(stockId, stockName + "@" + stockPrice);
+		}
+
+		@Override
+		public void player(String playerId, long playerMoney) {
+			players.put(playerId, playerMoney);
+		}
+
+		@Override
+		public void position(String playerId, long stockId, int quantity) {
+			positions.put(playerId + "/" + stockId, quantity);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * work factor 별 로그인(비밀번호 검증) 처리량 측정
+ * mvn test -Dtest=PasswordHasherBenchmarkTests -Dbenchmark=true [-Dbenchmark.strengths=8,10,12] [-Dbenchmark.seconds=3]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHasherBenchmarkTests {
+
+	@Test
+	void loginsPerSecondPerCore() throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		long seconds = Long.getLong("benchmark.seconds", 3);
+
+		System.out.printf("%-8s %12s %14s%n", "strength", "logins/sec", "logins/sec/core");
+		for (String value : System.getProperty("benchmark.strengths", "4,6,8,10,12").split(",")) {
+			int strength = Integer.parseInt(value.trim());
+			PasswordHasher hasher = hasher(strength, cores);
+			try {
+				String stored = hasher.hash("benchmark-password");
+				assertTrue(hasher.matches("benchmark-password", stored));
+
+				double perSecond = measure(hasher, stored, cores, seconds);
+				System.out.printf("%-8d %12.1f %14.1f%n", strength, perSecond, perSecond / cores);
+			} finally {
+				hasher.shutdown();
+			}
+		}
+	}
+
+	// 요청 thread 를 hasher thread 수만큼 두고 일정 시간 동안 검증을 반복한다.
+	private double measure(PasswordHasher hasher, String stored, int clients, long seconds) throws Exception {
+		ExecutorService requests = Executors.newFixedThreadPool(clients);
+		try {
+			long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+			long startedAt = System.nanoTime();
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(requests.submit(() -> {
+					int count = 0;
+					while (System.nanoTime() < deadline) {
+						assertTrue(hasher.matches("benchmark-password", stored));
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Integer> future : futures) {
+				total += future.get();
+			}
+			double elapsed = (System.nanoTime() - startedAt) / 1e9;
+			return total / elapsed;
+		} finally {
+			requests.shutdownNow();
+		}
+	}
+
+	private PasswordHasher hasher(int strength, int threads) {
+		ApplicationProperties properties = new ApplicationProperties();
+		properties.getPassword().setStrength(strength);
+		properties.getPassword().setThreads(threads);
+		properties.getPassword().setQueueCapacity(threads * 4);
+		properties.getPassword().setTimeout(60_000);
+
+		PasswordHasher hasher = new PasswordHasher(properties, new SimpleMeterRegistry());
+		hasher.init();
+		return hasher;
+	}
+}
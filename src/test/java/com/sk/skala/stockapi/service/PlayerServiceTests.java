@@ -0,0 +1,232 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.BatchItem;
+import com.sk.skala.stockapi.data.dto.PlayerSession;
+import com.sk.skala.stockapi.data.dto.PlayerStockListDto;
+import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.dto.TransferRequest;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.PlayerStockRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.SqlCounter;
+
+@SpringBootTest
+class PlayerServiceTests {
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private PasswordHasher passwordHasher;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private PlayerStockRepository playerStockRepository;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private SessionHandler sessionHandler;
+
+	private final String playerId = "SIGNUP-" + System.nanoTime();
+	private final int chunkSize = new ApplicationProperties.BatchRead().getChunkSize();
+
+	@AfterEach
+	void tearDown() {
+		applicationProperties.getBatchRead().setChunkSize(chunkSize);
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", playerId + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", playerId + "%");
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", playerId + "%");
+	}
+
+	// 주식만 이전해도 두 플레이어의 updated_at 이 바뀐다. (스냅샷 재조정이 player.updated_at 기준)
+	@Test
+	void stockOnlyTransferTouchesBothPlayers() {
+		long stockId = stockRepository.save(new Stock(playerId, MoneyTool.ofMajor(10))).getId();
+		String from = playerRepository.save(new Player(playerId + "-A", MoneyTool.ofMajor(1_000))).getPlayerId();
+		String to = playerRepository.save(new Player(playerId + "-B", MoneyTool.ofMajor(1_000))).getPlayerId();
+		when(sessionHandler.getPlayerId()).thenReturn(from);
+		playerService.buyPlayerStock(new StockOrder(from, stockId, 5));
+
+		jdbcTemplate.update("UPDATE player SET updated_at = 0 WHERE player_id IN (?, ?)", from, to);
+		playerService.transfer(new TransferRequest(to, stockId, 2, null));
+
+		assertTrue(updatedAt(from) > 0);
+		assertTrue(updatedAt(to) > 0);
+	}
+
+	// 같은 id 로 동시에 가입하면 하나만 성공하고, 나머지는 먼저 저장된 비밀번호를 덮어쓰지 않고 DATA_DUPLICATED 로 거절된다.
+	@Test
+	void concurrentSignUpKeepsFirstPassword() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				String password = "password-" + i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						playerService.createPlayer(new PlayerSession(playerId, password));
+						return password;
+					} catch (ResponseException e) {
+						assertEquals(Error.DATA_DUPLICATED.getCode(), e.getCode());
+						return null;
+					}
+				}));
+			}
+			start.countDown();
+
+			List<String> created = new ArrayList<>();
+			for (Future<String> future : futures) {
+				String password = future.get();
+				if (password != null) {
+					created.add(password);
+				}
+			}
+
+			assertEquals(1, created.size(), "created " + created);
+			String stored = jdbcTemplate.queryForObject("SELECT player_password FROM player WHERE player_id = ?",
+					String.class, playerId);
+			assertTrue(passwordHasher.matches(created.get(0), stored));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// fields= 로는 허용한 속성만 선택할 수 있다. 비밀번호 해시나 모르는 속성은 INVALID_PARAMETER 로 거절한다.
+	@Test
+	void fieldsRejectPasswordAndUnknownAttributes() {
+		for (String fields : List.of("playerPassword", "playerId,playerPassword", "updatedAt", "bogus", " , ")) {
+			ResponseException e = assertThrows(ResponseException.class,
+					() -> playerService.getAllPlayers(0, 10, List.of(fields)), fields);
+			assertEquals(Error.INVALID_PARAMETER.getCode(), e.getCode());
+		}
+	}
+
+	// 기본 목록과 fields= 목록은 같은 playerId 순서로 페이지를 나누고, fields= 는 요청한 속성만 돌려준다.
+	@Test
+	@SuppressWarnings("unchecked")
+	void pagesPlayersInIdOrder() {
+		for (String name : List.of("C", "A", "E", "B", "D")) {
+			playerRepository.save(new Player(playerId + "-" + name, MoneyTool.ofMajor(1)));
+		}
+
+		List<String> plain = new ArrayList<>();
+		List<String> projected = new ArrayList<>();
+		for (int page = 0;; page++) {
+			List<Player> players = (List<Player>) playerService.getAllPlayers(page, 2).getBody();
+			List<Map<String, Object>> rows = (List<Map<String, Object>>) playerService
+					.getAllPlayers(page, 2, List.of("playerMoney,playerId")).getBody();
+			if (players.isEmpty() && rows.isEmpty()) {
+				break;
+			}
+			players.forEach(player -> plain.add(player.getPlayerId()));
+			for (Map<String, Object> row : rows) {
+				assertEquals(List.of("playerMoney", "playerId"), List.copyOf(row.keySet()));
+				projected.add((String) row.get("playerId"));
+			}
+		}
+
+		assertEquals(plain.stream().sorted().toList(), plain);
+		assertEquals(plain, projected);
+		assertEquals(List.of("A", "B", "C", "D", "E").stream().map(name -> playerId + "-" + name).toList(),
+				plain.stream().filter(id -> id.startsWith(playerId)).toList());
+	}
+
+	// 200명의 포트폴리오는 chunk 마다 Player + PlayerStock + Stock IN 조회 1회로 읽고, 없는 플레이어는 DATA_NOT_FOUND 항목이 된다.
+	@Test
+	@SuppressWarnings("unchecked")
+	void readsPortfoliosWithOneQueryPerChunk() {
+		ApplicationProperties.BatchRead config = applicationProperties.getBatchRead();
+		config.setChunkSize(30);
+		Stock first = stockRepository.save(new Stock(playerId, MoneyTool.ofMajor(10)));
+		Stock second = stockRepository.save(new Stock(playerId + "-2", MoneyTool.ofMajor(20)));
+
+		List<String> ids = new ArrayList<>();
+		long rows = 0;
+		for (int i = 0; i < 200; i++) {
+			String id = String.format("%s-%03d", playerId, i);
+			ids.add(id);
+			if (i % 5 == 4) {
+				continue;
+			}
+			Player player = playerRepository.save(new Player(id, MoneyTool.ofMajor(i)));
+			rows++;
+			if (i % 2 == 0) {
+				playerStockRepository.save(new PlayerStock(player, first, i + 1));
+			}
+			if (i % 3 == 0) {
+				playerStockRepository.save(new PlayerStock(player, second, 1));
+				rows += i % 2 == 0 ? 1 : 0;
+			}
+		}
+
+		List<BatchItem> items;
+		SqlCounter counter = SqlCounter.begin();
+		try {
+			items = (List<BatchItem>) playerService.getPortfolios(ids).getBody();
+		} finally {
+			SqlCounter.end();
+		}
+
+		assertEquals((200 + config.getChunkSize() - 1) / config.getChunkSize(), counter.getStatements());
+		assertEquals(rows, counter.getRows());
+		assertEquals(ids, items.stream().map(BatchItem::getId).toList());
+		for (int i = 0; i < items.size(); i++) {
+			BatchItem item = items.get(i);
+			if (i % 5 == 4) {
+				assertEquals(0, item.getResult());
+				assertEquals(Error.DATA_NOT_FOUND.getCode(), item.getCode());
+				assertNull(item.getBody());
+				continue;
+			}
+			PlayerStockListDto portfolio = (PlayerStockListDto) item.getBody();
+			assertEquals(1, item.getResult());
+			assertEquals(MoneyTool.ofMajor(i), portfolio.getPlayerMoney());
+			assertEquals((i % 2 == 0 ? 1 : 0) + (i % 3 == 0 ? 1 : 0), portfolio.getStocks().size());
+		}
+	}
+
+	private long updatedAt(String id) {
+		return jdbcTemplate.queryForObject("SELECT updated_at FROM player WHERE player_id = ?", Long.class, id);
+	}
+}
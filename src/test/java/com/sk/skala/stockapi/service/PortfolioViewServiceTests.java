@@ -0,0 +1,211 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.data.table.EntityChange;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.JsonTool;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * player_portfolio_view: 가격 변경의 비동기 갱신과 동시에 커밋되는 거래, 전체 재생성
+ * chunk-size 1 로 재생성이 플레이어마다 한 트랜잭션이 되게 한다.
+ */
+@SpringBootTest(properties = "application.portfolio-view.chunk-size=1")
+class PortfolioViewServiceTests {
+
+	@Autowired
+	private PortfolioViewService portfolioViewService;
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String prefix;
+	private long stockId;
+
+	@BeforeEach
+	void setUp() {
+		prefix = "VIEW-" + System.nanoTime();
+		stockId = stockRepository.save(new Stock(prefix, MoneyTool.ofMajor(10))).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player_portfolio_view WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stockId);
+	}
+
+	// 가격 변경 갱신이 커밋 전인 매수를 기다린 뒤 읽으므로, 매수 결과(수량/자금)를 거래 전 상태로 덮어쓰지 않는다.
+	@Test
+	void priceRefreshDoesNotOverwriteConcurrentTrade() throws Exception {
+		String playerId = player("A");
+		playerService.executeBuy(playerId, stockId, 5);
+
+		CountDownLatch release = tradeInOpenTransaction(playerId);
+		changePrice(12);
+		portfolioViewService.poll();
+		Thread.sleep(300);  // 갱신이 플레이어 행 잠금에서 기다리는 동안
+		release.countDown();
+
+		awaitDocument(playerId);
+		assertEquals(6, portfolioViewService.find(playerId).getStocks().get(0).getQuantity());
+		assertEquals(MoneyTool.ofMajor(12), portfolioViewService.find(playerId).getStocks().get(0).getStockPrice());
+	}
+
+	// 처음 매수한 플레이어는 가격 변경 갱신의 보유자 조회에 빠지므로, 커밋 후 가격을 다시 확인해 문서를 다시 만든다.
+	@Test
+	void newHolderSeesPriceChangedBeforeCommit() throws Exception {
+		String playerId = player("A");
+
+		CountDownLatch release = tradeInOpenTransaction(playerId);
+		changePrice(12);
+		portfolioViewService.poll();
+		Thread.sleep(300);
+		release.countDown();
+
+		awaitDocument(playerId);
+		assertEquals(MoneyTool.ofMajor(12), portfolioViewService.find(playerId).getStocks().get(0).getStockPrice());
+	}
+
+	@Test
+	void rebuildRestoresDocumentsAndDropsOrphans() {
+		String playerId = player("A");
+		playerService.executeBuy(playerId, stockId, 3);
+		jdbcTemplate.update("UPDATE player_portfolio_view SET document = '{}' WHERE player_id = ?", playerId);
+		jdbcTemplate.update("INSERT INTO player_portfolio_view (player_id, document, updated_at) VALUES (?, '{}', 0)",
+				prefix + "-gone");
+
+		portfolioViewService.rebuild();
+
+		assertEquals(expected(playerId), actual(playerId));
+		assertNull(portfolioViewService.find(prefix + "-gone"));
+	}
+
+	// 관리자 재생성 중에 들어온 재생성 요청(bulk import 등)은 버려지지 않고 재생성이 끝난 뒤 실행된다.
+	@Test
+	void rebuildRequestedDuringRebuildIsKept() throws Exception {
+		String passed = player("A");
+		String locked = player("B");
+		long startedAt = System.currentTimeMillis();
+
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> lock = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			playerRepository.findByIdForUpdate(locked);
+			holding.countDown();
+			await(release);
+		}));
+		holding.await();
+		CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> portfolioViewService.rebuild());
+
+		// 재생성이 A 를 지나 B 의 잠금에서 기다리는 동안 A 의 문서를 바꾸고 재생성을 요청한다.
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (updatedAt(passed) < startedAt && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		jdbcTemplate.update("UPDATE player_portfolio_view SET document = '{}' WHERE player_id = ?", passed);
+		eventPublisher.publishEvent(new EntityChangedEvent(EntityChange.Type.PLAYER, EntityChange.ALL, false));
+		portfolioViewService.poll();
+		Thread.sleep(200);
+		release.countDown();
+		lock.get(5, TimeUnit.SECONDS);
+		rebuild.get(5, TimeUnit.SECONDS);
+
+		awaitDocument(passed);
+	}
+
+	private String player(String name) {
+		return playerRepository.save(new Player(prefix + "-" + name, MoneyTool.ofMajor(1_000))).getPlayerId();
+	}
+
+	// 1주 매수를 커밋하지 않은 채로 두고, 반환된 latch 를 내리면 커밋한다.
+	private CountDownLatch tradeInOpenTransaction(String playerId) throws InterruptedException {
+		CountDownLatch bought = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			playerService.executeBuy(playerId, stockId, 1);
+			bought.countDown();
+			await(release);
+		}));
+		bought.await();
+		return release;
+	}
+
+	private void changePrice(long price) {
+		Stock stock = stockRepository.findById(stockId).orElseThrow();
+		stock.setStockPrice(MoneyTool.ofMajor(price));
+		stockService.updateStock(stock);
+	}
+
+	// view 문서가 기본 테이블에서 새로 조립한 결과와 같아질 때까지 기다린다.
+	private void awaitDocument(String playerId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!expected(playerId).equals(actual(playerId)) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(expected(playerId), actual(playerId));
+	}
+
+	private String expected(String playerId) {
+		return JsonTool.toString(portfolioViewService.load(List.of(playerId)).get(playerId));
+	}
+
+	// 아직 커밋되지 않아 문서가 없으면 null
+	private String actual(String playerId) {
+		List<String> found = jdbcTemplate.queryForList("SELECT document FROM player_portfolio_view WHERE player_id = ?",
+				String.class, playerId);
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	private long updatedAt(String playerId) {
+		List<Long> found = jdbcTemplate.queryForList("SELECT updated_at FROM player_portfolio_view WHERE player_id = ?",
+				Long.class, playerId);
+		return found.isEmpty() ? 0 : found.get(0);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.data.dto.PriceBar;
+import com.sk.skala.stockapi.data.dto.PriceHistory;
+import com.sk.skala.stockapi.data.dto.PriceTick;
+import com.sk.skala.stockapi.tools.TimeSeriesBlock;
+
+/**
+ * 가격 이력: 블록 경계를 넘는 기록, 재기동 시 작성 중 블록 이어서 기록, 구간 조회, 열린 파일 수 제한
+ * DB 는 종목 id 목록만 사용하므로 JdbcTemplate 은 mock 으로 둔다.
+ */
+class PriceHistoryStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private final ApplicationProperties applicationProperties = new ApplicationProperties();
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final List<PriceHistoryStore> stores = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		applicationProperties.getPriceHistory().setPath(directory.toString());
+		applicationProperties.getPriceHistory().setMaxPoints(1_000_000);
+		when(jdbcTemplate.queryForList("SELECT id FROM stock", Long.class))
+				.thenReturn(LongStream.rangeClosed(1, 100).boxed().toList());
+	}
+
+	@AfterEach
+	void tearDown() {
+		stores.forEach(PriceHistoryStore::shutdown);
+	}
+
+	// 여러 블록에 걸쳐 기록한 tick 을 재기동 후 그대로 읽고, 작성 중이던 블록에 이어서 기록한다.
+	@Test
+	void reopensSealedBlocksAndPartialTail() throws Exception {
+		PriceHistoryStore store = store();
+		int count = 10_000;
+		for (int i = 0; i < count; i++) {
+			store.append(1, 1_000L * i, 10_000 + (i % 2 == 0 ? i : -i));
+		}
+		List<PriceTick> written = ticks(store, 1, 0, Long.MAX_VALUE);
+		assertEquals(count, written.size());
+		store.shutdown();
+
+		long blocks = Files.size(directory.resolve("1.ts")) / TimeSeriesBlock.BLOCK_SIZE;
+		assertTrue(blocks >= 3, "blocks " + blocks);
+
+		PriceHistoryStore reopened = store();
+		assertEquals(written, ticks(reopened, 1, 0, Long.MAX_VALUE));
+
+		reopened.append(1, 1_000L * count, 7);
+		reopened.shutdown();
+		List<PriceTick> resumed = ticks(store(), 1, 0, Long.MAX_VALUE);
+		assertEquals(count + 1, resumed.size());
+		assertEquals(new PriceTick(1_000L * count, 7), resumed.get(count));
+		assertEquals(blocks, Files.size(directory.resolve("1.ts")) / TimeSeriesBlock.BLOCK_SIZE);
+	}
+
+	// 블록 경계를 걸치는 구간과 OHLC 묶음
+	@Test
+	void readsRangesAcrossBlocks() {
+		PriceHistoryStore store = store();
+		for (int i = 0; i < 10_000; i++) {
+			store.append(2, 1_000L * i, i);
+		}
+		store.flush();
+
+		List<PriceTick> range = ticks(store, 2, 2_500_000, 7_500_000);
+		assertEquals(5_001, range.size());
+		assertEquals(new PriceTick(2_500_000, 2_500), range.get(0));
+		assertEquals(new PriceTick(7_500_000, 7_500), range.get(range.size() - 1));
+		assertEquals(0, ticks(store, 2, 10_000_000, 20_000_000).size());
+		assertEquals(1, ticks(store, 2, 0, 999).size());
+
+		PriceHistory bars = (PriceHistory) store.getHistory(2, 0, 9_999_999, 1_000_000).getBody();
+		assertEquals(10, bars.getBars().size());
+		PriceBar bar = bars.getBars().get(3);
+		assertEquals(3_000_000, bar.getTimestamp());
+		assertEquals(3_000, bar.getOpen());
+		assertEquals(3_999, bar.getHigh());
+		assertEquals(3_000, bar.getLow());
+		assertEquals(3_999, bar.getClose());
+		assertEquals(1_000, bar.getCount());
+	}
+
+	// 같은 가격은 다시 기록하지 않는다.
+	@Test
+	void skipsUnchangedPrice() {
+		PriceHistoryStore store = store();
+		store.append(3, 1, 100);
+		store.append(3, 2, 100);
+		store.append(3, 3, 101);
+
+		assertEquals(List.of(new PriceTick(1, 100), new PriceTick(3, 101)), ticks(store, 3, 0, 10));
+	}
+
+	// 열린 파일이 max-open-files 를 넘으면 오래 쓰지 않은 파일부터 닫고, 닫힌 종목도 다시 열어 읽고 쓴다.
+	@Test
+	void boundsOpenFiles() {
+		applicationProperties.getPriceHistory().setMaxOpenFiles(4);
+		PriceHistoryStore store = store();
+		for (long stockId = 1; stockId <= 50; stockId++) {
+			store.append(stockId, 1, stockId);
+			store.flush();
+			assertTrue(store.openFiles() <= 4, "open " + store.openFiles());
+		}
+		for (long stockId = 1; stockId <= 50; stockId++) {
+			store.append(stockId, 2, stockId + 1);
+			assertEquals(List.of(new PriceTick(1, stockId), new PriceTick(2, stockId + 1)),
+					ticks(store, stockId, 0, 10));
+			assertTrue(store.openFiles() <= 4, "open " + store.openFiles());
+		}
+	}
+
+	// idle-timeout 동안 쓰지 않은 파일은 flush 주기에 닫는다.
+	@Test
+	void closesIdleFiles() throws Exception {
+		applicationProperties.getPriceHistory().setIdleTimeout(0);
+		PriceHistoryStore store = store();
+		store.append(4, 1, 1);
+		store.flush();
+		Thread.sleep(5);
+		store.flush();
+
+		assertEquals(0, store.openFiles());
+		assertEquals(List.of(new PriceTick(1, 1)), ticks(store, 4, 0, 10));
+	}
+
+	// 종목이 삭제되면 파일을 지우고, 없는 종목의 파일은 기동 시 지운다.
+	@Test
+	void deletesFilesOfRemovedStocks() throws Exception {
+		PriceHistoryStore store = store();
+		store.append(5, 1, 1);
+		store.append(6, 1, 1);
+		store.append(500, 1, 1);
+		store.flush();
+		assertTrue(Files.exists(directory.resolve("5.ts")));
+		store.onStockChanged(new StockChangedEvent(5, null, 0, true));
+		store.shutdown();
+
+		assertFalse(Files.exists(directory.resolve("5.ts")));
+		assertTrue(Files.exists(directory.resolve("500.ts")));
+		store();
+		assertTrue(Files.exists(directory.resolve("6.ts")));
+		assertFalse(Files.exists(directory.resolve("500.ts")));
+	}
+
+	private PriceHistoryStore store() {
+		PriceHistoryStore store = new PriceHistoryStore(applicationProperties, jdbcTemplate);
+		try {
+			store.load();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		stores.add(store);
+		return store;
+	}
+
+	private static List<PriceTick> ticks(PriceHistoryStore store, long stockId, long from, long to) {
+		return ((PriceHistory) store.getHistory(stockId, from, to, 0).getBody()).getTicks();
+	}
+}
@@ -0,0 +1,185 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.JsonTool;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 잔고 부족으로 거절되는 매수 1건의 비용 (stackless ResponseException)
+ * - service: PlayerService 의 transaction / AOP proxy 를 지나 executeBuy 에서 거절되고 rollback 될 때까지
+ * - http: 같은 거절이 filter, controller 를 지나 GlobalExceptionHandler 의 Response envelope 이 될 때까지
+ * 측정 전에 rollback 과 envelope 이 그대로인지 확인한다. (요청 제한은 측정에 섞이지 않도록 끈다)
+ * mvn test -Dtest=RejectionBenchmarkTests -Dbenchmark=true [-Dbenchmark.seconds=2]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "application.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class RejectionBenchmarkTests {
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private SessionHandler sessionHandler;
+
+	private final String prefix = "REJECT-" + System.nanoTime();
+	private String playerId;
+	private long stockId;
+
+	@BeforeEach
+	void setUp() {
+		stockId = stockRepository.save(new Stock(prefix, MoneyTool.ofMajor(100))).getId();
+		playerId = playerRepository.save(new Player(prefix, MoneyTool.ofMajor(1))).getPlayerId();
+		when(sessionHandler.getPlayerId()).thenReturn(playerId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id = ?", playerId);
+		jdbcTemplate.update("DELETE FROM player WHERE player_id = ?", playerId);
+		jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stockId);
+	}
+
+	private interface Rejection {
+		void run() throws Exception;
+	}
+
+	@Test
+	void rejectedBuyCost() throws Exception {
+		StockOrder order = new StockOrder(playerId, stockId, 1);
+		RequestBuilder request = post("/api/players/buy")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonTool.toString(order));
+
+		assertRollsBack(order);
+		assertEnvelope(request);
+		long money = money();
+		long updatedAt = updatedAt();
+
+		long seconds = Long.getLong("benchmark.seconds", 2);
+		double service = measure(seconds, () -> {
+			try {
+				playerService.buyPlayerStock(order);
+			} catch (ResponseException e) {
+				return;
+			}
+			throw new IllegalStateException("not rejected");
+		});
+		double http = measure(seconds, () -> mockMvc.perform(request));
+
+		System.out.printf("%-8s %14s%n", "path", "ns / rejection");
+		System.out.printf("%-8s %14.1f%n", "service", service);
+		System.out.printf("%-8s %14.1f%n", "http", http);
+
+		// 반복한 거절이 자금, 보유 주식, updated_at 을 바꾸지 않았다.
+		assertEquals(money, money());
+		assertEquals(updatedAt, updatedAt());
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_stock WHERE player_id = ?",
+				Integer.class, playerId));
+		assertLockReleased();
+	}
+
+	// stackless 여도 RuntimeException 이므로 @Transactional 이 rollback 한다.
+	// 바깥 트랜잭션의 변경이 rollback-only 로 표시되어 커밋되지 않는 것으로 확인한다.
+	private void assertRollsBack(StockOrder order) {
+		long before = money();
+		assertThrows(UnexpectedRollbackException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update("UPDATE player SET player_money = player_money + 1 WHERE player_id = ?", playerId);
+			ResponseException e = assertThrows(ResponseException.class, () -> playerService.buyPlayerStock(order));
+			assertEquals(Error.INSUFFICIENT_FUNDS.getCode(), e.getCode());
+			assertEquals(0, e.getStackTrace().length);
+		}));
+		assertEquals(before, money());
+	}
+
+	private void assertEnvelope(RequestBuilder request) throws Exception {
+		mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result").value(0))
+				.andExpect(jsonPath("$.code").value(Error.INSUFFICIENT_FUNDS.getCode()))
+				.andExpect(jsonPath("$.message").value(Error.INSUFFICIENT_FUNDS.getMessage()));
+	}
+
+	// rollback 으로 findByIdForUpdate 의 행 잠금이 풀려 다른 트랜잭션이 바로 잠글 수 있다.
+	private void assertLockReleased() throws Exception {
+		CompletableFuture<Void> lock = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+				status -> assertFalse(playerRepository.findByIdForUpdate(playerId).isEmpty())));
+		lock.get(5, TimeUnit.SECONDS);
+	}
+
+	// 1/3 은 warm-up, 나머지 시간 동안의 평균 (ns / 건)
+	private double measure(long seconds, Rejection rejection) throws Exception {
+		long warmup = System.nanoTime() + seconds * 1_000_000_000L / 3;
+		while (System.nanoTime() < warmup) {
+			rejection.run();
+		}
+
+		long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		long startedAt = System.nanoTime();
+		long count = 0;
+		while (System.nanoTime() < deadline) {
+			for (int i = 0; i < 100; i++) {
+				rejection.run();
+			}
+			count += 100;
+		}
+		return (double) (System.nanoTime() - startedAt) / count;
+	}
+
+	private long money() {
+		return jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class,
+				playerId);
+	}
+
+	private long updatedAt() {
+		return jdbcTemplate.queryForObject("SELECT updated_at FROM player WHERE player_id = ?", Long.class,
+				playerId);
+	}
+}
@@ -0,0 +1,233 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.PlayerConcentration;
+import com.sk.skala.stockapi.data.dto.RiskReport;
+import com.sk.skala.stockapi.data.dto.ShockResult;
+import com.sk.skala.stockapi.data.dto.StockExposure;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.PlayerStock;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.PlayerStockRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 위험 분석: 플레이어마다 task 하나(partition-size 1)로 나눈 fork/join 결과를 같은 스냅샷의 순차 계산과 비교한다.
+ * 최대 손실이 같은 플레이어가 여러 구간에 있으면 순차 계산처럼 player_id 순서의 첫 플레이어가 남아야 한다.
+ */
+@SpringBootTest(properties = "application.risk.partition-size=1")
+class RiskServiceTests {
+
+	private static final int TOP = 3;
+	private static final double LOSS_THRESHOLD = 5;
+
+	@Autowired
+	private RiskService riskService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private PlayerStockRepository playerStockRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String prefix = "RISK-" + System.nanoTime();
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM player_stock WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM player WHERE player_id LIKE ?", prefix + "%");
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", prefix + "%");
+	}
+
+	@Test
+	void matchesSequentialComputation() {
+		Stock big = stockRepository.save(new Stock(prefix + "-big", MoneyTool.ofMajor(1_000)));
+		Stock small = stockRepository.save(new Stock(prefix + "-small", MoneyTool.fromDecimal("3.33")));
+		// 같은 보유 -> 같은 최대 손실 (각자 다른 task)
+		for (String name : List.of("C", "A", "B")) {
+			hold(player(name, "0"), big, 1_000);
+		}
+		player("D", "500");
+		Player mixed = player("E", "100.01");
+		hold(mixed, big, 10);
+		hold(mixed, small, 333);
+		hold(player("F", "7"), small, 1);
+
+		List<String> shocks = List.of("-10", big.getId() + ":-50", small.getId() + ": 25.5", "0");
+		RiskReport report = (RiskReport) riskService.getRiskReport(shocks, TOP, LOSS_THRESHOLD).getBody();
+		Sequential expected = new Sequential(shocks);
+
+		assertEquals(expected.players.size(), report.getPlayers());
+		assertEquals(expected.players.size(), report.getPartitions());
+		assertEquals(expected.positions, report.getPositions());
+		assertEquals(expected.totalCash, report.getTotalCash());
+		assertEquals(expected.totalHoldings, report.getTotalHoldingsValue());
+
+		// 종목별 노출
+		Map<Long, Long> exposures = new HashMap<>();
+		for (StockExposure exposure : report.getExposures()) {
+			exposures.put(exposure.getStockId(), exposure.getQuantity());
+			assertEquals(expected.prices.get(exposure.getStockId()) * exposure.getQuantity(), exposure.getValue());
+		}
+		assertEquals(expected.stockQuantity, exposures);
+		assertEquals(report.getExposures().stream().sorted(Comparator.comparingLong(StockExposure::getValue).reversed())
+				.toList(), report.getExposures());
+
+		// 집중도 상위 TOP (같은 집중도는 어느 플레이어든 가능하므로 값의 목록과 플레이어별 값을 비교)
+		List<Double> topShares = expected.players.values().stream()
+				.filter(p -> p.topStock != null)
+				.map(p -> p.concentration)
+				.sorted(Comparator.reverseOrder())
+				.limit(TOP)
+				.toList();
+		assertEquals(topShares, report.getConcentrations().stream().map(PlayerConcentration::getShare).toList());
+		for (PlayerConcentration concentration : report.getConcentrations()) {
+			Sequential.Holder player = expected.players.get(concentration.getPlayerId());
+			assertEquals(player.wealth, concentration.getWealth());
+			assertEquals(player.topStock, concentration.getStockId());
+			assertEquals(player.topValue, concentration.getPositionValue());
+		}
+
+		// 시나리오
+		assertEquals(shocks.size(), report.getScenarios().size());
+		for (int s = 0; s < shocks.size(); s++) {
+			ShockResult result = report.getScenarios().get(s);
+			assertEquals(shocks.get(s).trim(), result.getScenario());
+			assertEquals(expected.wealthAfter[s], result.getWealthAfter(), 1);
+			assertEquals(expected.maxLossPlayer[s], result.getMaxLossPlayerId(), shocks.get(s));
+			assertEquals(Math.round(expected.maxLoss[s]), result.getMaxLoss());
+			assertEquals(expected.overThreshold[s], result.getPlayersOverThreshold());
+		}
+		assertEquals(prefix + "-A", report.getScenarios().get(0).getMaxLossPlayerId());
+		assertEquals(prefix + "-A", report.getScenarios().get(1).getMaxLossPlayerId());
+	}
+
+	// NaN / Infinity / 범위를 넘는 값과 -100% 미만은 INVALID_PARAMETER
+	@Test
+	void rejectsNonFiniteShocks() {
+		for (String shock : List.of("NaN", "Infinity", "-Infinity", "1:NaN", "1e400", "-100.5", "x:10", "")) {
+			ResponseException e = assertThrows(ResponseException.class,
+					() -> riskService.getRiskReport(List.of(shock), TOP, LOSS_THRESHOLD), shock);
+			assertEquals(Error.INVALID_PARAMETER.getCode(), e.getCode());
+		}
+	}
+
+	private Player player(String name, String money) {
+		return playerRepository.save(new Player(prefix + "-" + name, MoneyTool.fromDecimal(money)));
+	}
+
+	private void hold(Player player, Stock stock, int quantity) {
+		playerStockRepository.save(new PlayerStock(player, stock, quantity));
+	}
+
+	// RiskService 와 같은 SELECT 를 플레이어 순서대로 한 번에 계산한다.
+	private final class Sequential {
+		final Map<String, Holder> players = new LinkedHashMap<>();
+		final Map<Long, Long> stockQuantity = new HashMap<>();
+		final Map<Long, Long> prices = new HashMap<>();
+		final double[] wealthAfter;
+		final double[] maxLoss;
+		final String[] maxLossPlayer;
+		final int[] overThreshold;
+		long totalCash;
+		long totalHoldings;
+		int positions;
+
+		final class Holder {
+			long cash;
+			final List<long[]> holdings = new ArrayList<>(); // stockId, price, quantity
+			long wealth;
+			Long topStock;
+			long topValue;
+			double concentration;
+		}
+
+		Sequential(List<String> shocks) {
+			jdbcTemplate.query("SELECT p.player_id, p.player_money, ps.stock_id, ps.quantity, s.stock_price"
+					+ " FROM player p LEFT JOIN player_stock ps ON ps.player_id = p.player_id"
+					+ " LEFT JOIN stock s ON s.id = ps.stock_id ORDER BY p.player_id", rs -> {
+						Holder player = players.computeIfAbsent(rs.getString(1), id -> new Holder());
+						player.cash = rs.getLong(2);
+						long stockId = rs.getLong(3);
+						if (!rs.wasNull()) {
+							player.holdings.add(new long[] { stockId, rs.getLong(5), rs.getInt(4) });
+						}
+					});
+
+			int scenarios = shocks.size();
+			wealthAfter = new double[scenarios];
+			maxLoss = new double[scenarios];
+			maxLossPlayer = new String[scenarios];
+			overThreshold = new int[scenarios];
+
+			for (Map.Entry<String, Holder> entry : players.entrySet()) {
+				Holder player = entry.getValue();
+				long holdings = 0;
+				double[] after = new double[scenarios];
+				for (long[] holding : player.holdings) {
+					long value = holding[1] * holding[2];
+					holdings += value;
+					stockQuantity.merge(holding[0], holding[2], Long::sum);
+					prices.put(holding[0], holding[1]);
+					positions++;
+					if (value > player.topValue) {
+						player.topValue = value;
+						player.topStock = holding[0];
+					}
+					for (int s = 0; s < scenarios; s++) {
+						after[s] += value * factor(shocks.get(s), holding[0]);
+					}
+				}
+
+				player.wealth = player.cash + holdings;
+				player.concentration = player.wealth > 0 ? (double) player.topValue / player.wealth : 0;
+				totalCash += player.cash;
+				totalHoldings += holdings;
+				for (int s = 0; s < scenarios; s++) {
+					double loss = holdings - after[s];
+					wealthAfter[s] += player.cash + after[s];
+					if (maxLossPlayer[s] == null || loss > maxLoss[s]) {
+						maxLoss[s] = loss;
+						maxLossPlayer[s] = entry.getKey();
+					}
+					if (player.wealth > 0 && loss * 100 >= LOSS_THRESHOLD * player.wealth) {
+						overThreshold[s]++;
+					}
+				}
+			}
+		}
+
+		private double factor(String shock, long stockId) {
+			int colon = shock.indexOf(':');
+			if (colon >= 0 && Long.parseLong(shock.substring(0, colon).trim()) != stockId) {
+				return 1;
+			}
+			return 1 + Double.parseDouble(shock.substring(colon + 1).trim()) / 100;
+		}
+	}
+}
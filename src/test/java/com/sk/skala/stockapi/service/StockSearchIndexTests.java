@@ -0,0 +1,121 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.data.dto.StockSearchResult;
+import com.sk.skala.stockapi.exception.ResponseException;
+
+/**
+ * 종목 검색 색인: 일치 종류별 순위, 대소문자/공백 정규화, 오타(인접 문자 교환) 허용, 종목 변경 이벤트 반영
+ * 색인은 이벤트로만 채우므로 JdbcTemplate 은 mock 으로 둔다.
+ */
+class StockSearchIndexTests {
+
+	private final StockSearchIndex index = new StockSearchIndex(mock(JdbcTemplate.class));
+
+	// EXACT > PREFIX > WORD > FUZZY 순서로 정렬하고, 관계없는 이름은 나오지 않는다.
+	@Test
+	void ranksExactPrefixWordFuzzy() {
+		put(1, "Samsung");
+		put(2, "Samsung Electronics");
+		put(3, "Korea Samsung Bio");
+		put(4, "Samsong");
+		put(5, "Hyundai");
+
+		List<StockSearchResult> results = search("samsung", 10);
+		assertEquals(List.of("Samsung", "Samsung Electronics", "Korea Samsung Bio", "Samsong"),
+				results.stream().map(StockSearchResult::getStockName).toList());
+		assertEquals(List.of("EXACT", "PREFIX", "WORD", "FUZZY"),
+				results.stream().map(StockSearchResult::getMatch).toList());
+
+		assertEquals(List.of("Samsung", "Samsung Electronics"),
+				search("samsung", 2).stream().map(StockSearchResult::getStockName).toList());
+	}
+
+	// 이름과 검색어 모두 소문자, 연속 공백 하나로 비교하고 결과에는 등록한 이름을 그대로 돌려준다.
+	@Test
+	void foldsCaseAndWhitespace() {
+		put(1, "  SK   Hynix ");
+
+		StockSearchResult exact = search("sk hynix", 10).get(0);
+		assertEquals("EXACT", exact.getMatch());
+		assertEquals("  SK   Hynix ", exact.getStockName());
+		assertEquals("WORD", search("HYNIX", 10).get(0).getMatch());
+		assertEquals("PREFIX", search("Sk  H", 10).get(0).getMatch());
+	}
+
+	// 인접 문자 교환은 편집 1번으로 본다. (이름 전체, 단어, 입력 중인 단어의 앞부분)
+	@Test
+	void matchesTranspositions() {
+		put(1, "Apple");
+		put(2, "Hyundai Motor");
+
+		assertEquals(List.of(1L), ids(search("aplpe", 10)));
+		assertEquals("FUZZY", search("aplpe", 10).get(0).getMatch());
+		assertEquals(List.of(2L), ids(search("hyudnai", 10)));
+		assertEquals(List.of(2L), ids(search("hyudn", 10)));
+		assertEquals(List.of(2L), ids(search("mtoor", 10)));
+		assertEquals(List.of(), ids(search("ppale", 10)));
+	}
+
+	// 비슷한 이름이 많아 후보 수 제한에 걸려도 공유 gram 이 가장 많은(가장 가까운) 이름이 맨 앞에 온다.
+	@Test
+	void keepsClosestCandidatesWhenCapped() {
+		for (int i = 1; i <= 1_000; i++) {
+			put(i, String.format("Stock %04d", i));
+		}
+
+		List<StockSearchResult> results = search("stcok 0517", 5);
+		assertEquals(5, results.size());
+		assertEquals("Stock 0517", results.get(0).getStockName());
+		assertEquals("FUZZY", results.get(0).getMatch());
+	}
+
+	// 이름 변경은 이전 이름의 색인을 지우고, 가격만 바뀌면 색인은 그대로 두고 가격만 바꾼다. 삭제되면 검색되지 않는다.
+	@Test
+	void appliesUpdateAndDeleteEvents() {
+		put(1, "Alpha Holdings", 100);
+		put(1, "Alpha Holdings", 250);
+		assertEquals(250, search("alpha", 10).get(0).getStockPrice());
+
+		put(1, "Beta Holdings", 300);
+		assertEquals(List.of(), ids(search("alpha", 10)));
+		assertEquals(List.of(1L), ids(search("beta", 10)));
+		assertEquals(List.of(1L), ids(search("holdings", 10)));
+
+		index.onStockChanged(new StockChangedEvent(1, null, 0, true));
+		assertEquals(List.of(), ids(search("beta", 10)));
+		assertEquals(List.of(), ids(search("holdings", 10)));
+	}
+
+	@Test
+	void rejectsInvalidQuery() {
+		assertThrows(ResponseException.class, () -> index.search(" ", 10));
+		assertThrows(ResponseException.class, () -> index.search("a", 0));
+		assertThrows(ResponseException.class, () -> index.search("a", 101));
+	}
+
+	private void put(long id, String name) {
+		put(id, name, 1_000);
+	}
+
+	private void put(long id, String name, long price) {
+		index.onStockChanged(new StockChangedEvent(id, name, price, false));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<StockSearchResult> search(String query, int limit) {
+		return (List<StockSearchResult>) index.search(query, limit).getBody();
+	}
+
+	private static List<Long> ids(List<StockSearchResult> results) {
+		return results.stream().map(StockSearchResult::getId).toList();
+	}
+}
@@ -0,0 +1,157 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.config.ApplicationProperties;
+import com.sk.skala.stockapi.config.Error;
+import com.sk.skala.stockapi.data.dto.BatchItem;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+import com.sk.skala.stockapi.tools.SqlCounter;
+
+@SpringBootTest
+class StockServiceTests {
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String prefix = "STOCKS-" + System.nanoTime();
+	private final int chunkSize = new ApplicationProperties.BatchRead().getChunkSize();
+
+	@AfterEach
+	void tearDown() {
+		applicationProperties.getBatchRead().setChunkSize(chunkSize);
+		jdbcTemplate.update("DELETE FROM stock WHERE stock_name LIKE ?", prefix + "%");
+	}
+
+	// 기본 목록과 fields= 목록은 같은 id 순서로 페이지를 나누고, fields= 는 요청한 속성만 돌려준다.
+	@Test
+	@SuppressWarnings("unchecked")
+	void pagesStocksInIdOrder() {
+		List<Long> saved = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			saved.add(stockRepository.save(new Stock(prefix + "-" + i, MoneyTool.fromDecimal("1.5") * (i + 1))).getId());
+		}
+
+		List<Long> plain = new ArrayList<>();
+		List<Long> projected = new ArrayList<>();
+		for (int page = 0;; page++) {
+			List<Stock> stocks = (List<Stock>) stockService.getAllStocks(page, 2).getBody();
+			List<Map<String, Object>> rows = (List<Map<String, Object>>) stockService
+					.getAllStocks(page, 2, List.of("stockPrice", "id")).getBody();
+			if (stocks.isEmpty() && rows.isEmpty()) {
+				break;
+			}
+			for (Stock stock : stocks) {
+				plain.add(stock.getId());
+			}
+			for (Map<String, Object> row : rows) {
+				assertEquals(List.of("stockPrice", "id"), List.copyOf(row.keySet()));
+				projected.add((Long) row.get("id"));
+				int index = saved.indexOf(row.get("id"));
+				if (index >= 0) {
+					assertEquals(MoneyTool.toDecimal(150L * (index + 1)), row.get("stockPrice"));
+				}
+			}
+		}
+
+		assertEquals(plain.stream().sorted().toList(), plain);
+		assertEquals(plain, projected);
+		assertEquals(saved, plain.stream().filter(saved::contains).toList());
+	}
+
+	// 허용 목록에 없는 속성(내부 컬럼 포함)이나 빈 fields 는 INVALID_PARAMETER
+	@Test
+	void fieldsRejectUnknownAttributes() {
+		for (String fields : List.of("bogus", "id,updatedAt", "tradingHalted", "stock_name", " , ")) {
+			ResponseException e = assertThrows(ResponseException.class,
+					() -> stockService.getAllStocks(0, 10, List.of(fields)), fields);
+			assertEquals(Error.INVALID_PARAMETER.getCode(), e.getCode());
+		}
+	}
+
+	// 200개 id 는 chunk 마다 IN 조회 1회로 읽고, 없는 id 는 호출을 실패시키지 않고 요청 순서대로 DATA_NOT_FOUND 항목이 된다.
+	@Test
+	void readsIdsWithOneQueryPerChunk() {
+		ApplicationProperties.BatchRead config = applicationProperties.getBatchRead();
+		config.setChunkSize(30);
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ids.add(i % 4 == 3 ? -1L - i : stockRepository.save(new Stock(prefix + "-" + i, MoneyTool.ofMajor(i + 1))).getId());
+		}
+		List<Long> request = new ArrayList<>(ids);
+		request.addAll(Arrays.asList(ids.get(0), null, ids.get(199)));
+
+		List<BatchItem> items;
+		SqlCounter counter = SqlCounter.begin();
+		try {
+			items = batch(stockService.getStocksByIds(request).getBody());
+		} finally {
+			SqlCounter.end();
+		}
+
+		assertEquals((200 + config.getChunkSize() - 1) / config.getChunkSize(), counter.getStatements());
+		assertEquals(150, counter.getRows());
+		assertEquals(ids, items.stream().map(BatchItem::getId).toList());
+		for (int i = 0; i < items.size(); i++) {
+			BatchItem item = items.get(i);
+			if (i % 4 == 3) {
+				assertEquals(0, item.getResult());
+				assertEquals(Error.DATA_NOT_FOUND.getCode(), item.getCode());
+				assertNull(item.getBody());
+			} else {
+				assertEquals(1, item.getResult());
+				assertEquals(prefix + "-" + i, ((Stock) item.getBody()).getStockName());
+			}
+		}
+	}
+
+	// max-ids 를 넘는 요청은 조회 없이 INVALID_PARAMETER
+	@Test
+	void rejectsTooManyIdsWithoutQuerying() {
+		int max = applicationProperties.getBatchRead().getMaxIds();
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= max + 1; id++) {
+			ids.add(id);
+		}
+
+		SqlCounter counter = SqlCounter.begin();
+		try {
+			ResponseException e = assertThrows(ResponseException.class, () -> stockService.getStocksByIds(ids));
+			assertEquals(Error.INVALID_PARAMETER.getCode(), e.getCode());
+		} finally {
+			SqlCounter.end();
+		}
+		assertEquals(0, counter.getStatements());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<BatchItem> batch(Object body) {
+		return (List<BatchItem>) body;
+	}
+}
@@ -0,0 +1,194 @@
+package com.sk.skala.stockapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sk.skala.stockapi.data.dto.StockOrder;
+import com.sk.skala.stockapi.data.dto.TransferRequest;
+import com.sk.skala.stockapi.data.table.Player;
+import com.sk.skala.stockapi.data.table.Stock;
+import com.sk.skala.stockapi.exception.ResponseException;
+import com.sk.skala.stockapi.repository.PlayerRepository;
+import com.sk.skala.stockapi.repository.StockRepository;
+import com.sk.skala.stockapi.tools.MoneyTool;
+
+/**
+ * 매수/매도/이전 동시 실행 불변식 검사
+ * 공유 플레이어/종목에 여러 thread 가 무작위 주문을 보낸 뒤 확인한다.
+ * - 가격이 고정이면 (자금 + 보유 수량 x 가격) 합계가 보존된다.
+ * - 자금과 보유 수량은 음수가 되지 않고, 수량 0 인 player_stock 행이 남지 않는다.
+ * - 업무 거절(ResponseException) 외의 예외(잠금 대기 시간 초과, 교착 등)가 없다.
+ * thread 별 주문 순서는 seed 로 재현된다. (thread 간 실행 순서는 재현되지 않음)
+ * mvn test -Dtest=TradingStressTests [-Dstress.seed=1] [-Dstress.threads=16] [-Dstress.operations=500] [-Dstress.rounds=3]
+ */
+@SpringBootTest
+class TradingStressTests {
+
+	private static final int PLAYERS = 8;
+	private static final int STOCKS = 4;
+	private static final ThreadLocal<String> CURRENT_PLAYER = new ThreadLocal<>();
+
+	@Autowired
+	private PlayerService playerService;
+
+	@Autowired
+	private PlayerRepository playerRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private SessionHandler sessionHandler;
+
+	private final List<String> playerIds = new ArrayList<>();
+	private final List<Long> stockIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		when(sessionHandler.getPlayerId()).thenAnswer(invocation -> CURRENT_PLAYER.get());
+
+		String prefix = "STRESS-" + System.nanoTime() + "-";
+		for (int i = 0; i < STOCKS; i++) {
+			stockIds.add(stockRepository.save(new Stock(prefix + i, MoneyTool.ofMajor(10 + i * 7))).getId());
+		}
+		for (int i = 0; i < PLAYERS; i++) {
+			playerIds.add(playerRepository.save(new Player(prefix + i, MoneyTool.ofMajor(10_000))).getPlayerId());
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (String playerId : playerIds) {
+			jdbcTemplate.update("DELETE FROM player_stock WHERE player_id = ?", playerId);
+			jdbcTemplate.update("DELETE FROM player WHERE player_id = ?", playerId);
+		}
+		for (Long stockId : stockIds) {
+			jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stockId);
+		}
+	}
+
+	@Test
+	void invariantsHoldUnderConcurrentTrading() throws Exception {
+		long seed = Long.getLong("stress.seed", 20240601L);
+		int threads = Integer.getInteger("stress.threads", 8);
+		int operations = Integer.getInteger("stress.operations", 300);
+		int rounds = Integer.getInteger("stress.rounds", 2);
+
+		long expectedValue = totalValue();
+		for (int round = 0; round < rounds; round++) {
+			AtomicLong succeeded = new AtomicLong();
+			AtomicInteger rejected = new AtomicInteger();
+			List<Throwable> unexpected = run(seed + round * 1_000_003L, threads, operations, succeeded, rejected);
+
+			assertTrue(unexpected.isEmpty(), "seed " + seed + " round " + round + ": unexpected " + unexpected);
+			assertTrue(succeeded.get() > 0, "seed " + seed + " round " + round + ": no operation succeeded");
+			assertEquals(expectedValue, totalValue(), "seed " + seed + " round " + round + ": value not conserved");
+			assertNoNegativeOrEmptyRows(seed, round);
+		}
+	}
+
+	private List<Throwable> run(long seed, int threads, int operations, AtomicLong succeeded, AtomicInteger rejected)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<Throwable>>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				Random random = new Random(seed + t);
+				futures.add(executor.submit(() -> {
+					List<Throwable> errors = new ArrayList<>();
+					for (int i = 0; i < operations; i++) {
+						try {
+							operate(random);
+							succeeded.incrementAndGet();
+						} catch (ResponseException e) {
+							rejected.incrementAndGet();  // 잔고/수량 부족 등 업무 거절
+						} catch (Throwable e) {
+							errors.add(e);
+						} finally {
+							CURRENT_PLAYER.remove();
+						}
+					}
+					return errors;
+				}));
+			}
+
+			List<Throwable> unexpected = new ArrayList<>();
+			for (Future<List<Throwable>> future : futures) {
+				unexpected.addAll(future.get());
+			}
+			return unexpected;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void operate(Random random) {
+		String playerId = playerIds.get(random.nextInt(PLAYERS));
+		Long stockId = stockIds.get(random.nextInt(STOCKS));
+		int quantity = 1 + random.nextInt(20);
+		CURRENT_PLAYER.set(playerId);
+
+		switch (random.nextInt(3)) {
+			case 0 -> playerService.buyPlayerStock(new StockOrder(playerId, stockId, quantity));
+			case 1 -> playerService.sellPlayerStock(new StockOrder(playerId, stockId, quantity));
+			default -> {
+				int offset = 1 + random.nextInt(PLAYERS - 1);
+				String toPlayerId = playerIds.get((playerIds.indexOf(playerId) + offset) % PLAYERS);
+				long money = random.nextBoolean() ? MoneyTool.ofMajor(random.nextInt(100)) : 0;
+				playerService.transfer(new TransferRequest(toPlayerId, stockId, quantity, money));
+			}
+		}
+	}
+
+	// 고정 가격 기준 전체 가치 (minor unit)
+	private long totalValue() {
+		long value = 0;
+		for (String playerId : playerIds) {
+			value += jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class,
+					playerId);
+			value += jdbcTemplate.queryForObject("SELECT COALESCE(SUM(CAST(ps.quantity AS BIGINT) * s.stock_price), 0)"
+					+ " FROM player_stock ps JOIN stock s ON s.id = ps.stock_id WHERE ps.player_id = ?", Long.class,
+					playerId);
+		}
+		return value;
+	}
+
+	private void assertNoNegativeOrEmptyRows(long seed, int round) {
+		for (String playerId : playerIds) {
+			long money = jdbcTemplate.queryForObject("SELECT player_money FROM player WHERE player_id = ?", Long.class,
+					playerId);
+			assertTrue(money >= 0, "seed " + seed + " round " + round + ": negative money for " + playerId);
+
+			List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+					"SELECT stock_id, quantity FROM player_stock WHERE player_id = ? AND quantity <= 0", playerId);
+			assertTrue(rows.isEmpty(), "seed " + seed + " round " + round + ": bad rows for " + playerId + " " + rows);
+
+			List<Map<String, Object>> duplicates = jdbcTemplate.queryForList("SELECT stock_id, COUNT(*) FROM player_stock"
+					+ " WHERE player_id = ? GROUP BY stock_id HAVING COUNT(*) > 1", playerId);
+			assertTrue(duplicates.isEmpty(),
+					"seed " + seed + " round " + round + ": duplicate rows for " + playerId + " " + duplicates);
+		}
+	}
+}
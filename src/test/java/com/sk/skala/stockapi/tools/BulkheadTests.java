@@ -0,0 +1,95 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	// 대기열이 가득 차면 기다리지 않고 바로 거절한다.
+	@Test
+	void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 1, 60_000);
+		assertTrue(bulkhead.tryAcquire());
+		Future<Boolean> waiter = executor.submit(bulkhead::tryAcquire);
+		awaitQueued(bulkhead, 1);
+
+		long startedAt = System.nanoTime();
+		assertFalse(bulkhead.tryAcquire());
+		assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+		assertEquals(1, bulkhead.getQueued());
+
+		// release 하면 대기 중인 요청이 자리를 받는다.
+		bulkhead.release();
+		assertTrue(waiter.get(5, TimeUnit.SECONDS));
+		assertEquals(1, bulkhead.getActive());
+		assertEquals(0, bulkhead.getQueued());
+
+		bulkhead.release();
+		assertEquals(0, bulkhead.getActive());
+	}
+
+	// timeout 안에 자리가 나지 않으면 false, 대기열 자리는 돌려준다.
+	@Test
+	void timesOutWhileQueued() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 1, 50);
+		assertTrue(bulkhead.tryAcquire());
+
+		long startedAt = System.nanoTime();
+		assertFalse(bulkhead.tryAcquire());
+		assertTrue(System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(0, bulkhead.getQueued());
+		assertEquals(1, bulkhead.getActive());
+
+		bulkhead.release();
+		assertTrue(bulkhead.tryAcquire());
+	}
+
+	// 대기열 0 이면 자리가 없을 때 바로 거절하고, release 한 만큼 다시 받을 수 있다.
+	@Test
+	void releasesPermits() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 2, 0, 60_000);
+		assertTrue(bulkhead.tryAcquire());
+		assertTrue(bulkhead.tryAcquire());
+		assertEquals(2, bulkhead.getActive());
+		assertFalse(bulkhead.tryAcquire());
+
+		bulkhead.release();
+		assertEquals(1, bulkhead.getActive());
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release();
+		bulkhead.release();
+		assertEquals(0, bulkhead.getActive());
+	}
+
+	@Test
+	void rejectsInvalidLimits() {
+		assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 0, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 1, -1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 1, 1, -1));
+	}
+
+	private static void awaitQueued(Bulkhead bulkhead, int queued) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (bulkhead.getQueued() != queued) {
+			assertTrue(System.nanoTime() < deadline, "queued " + bulkhead.getQueued());
+			Thread.sleep(1);
+		}
+	}
+}
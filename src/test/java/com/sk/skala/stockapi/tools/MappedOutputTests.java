@@ -0,0 +1,102 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// MappedOutput 으로 기록한 파일을 MappedInput 으로 읽는다. window 를 작게 두어 값과 문자열이 window 경계에 걸치게 한다.
+class MappedOutputTests {
+
+	private static final int WINDOW = 8;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsValuesAcrossWindows() throws IOException {
+		String[] strings = { null, "", "a", "삼성전자 우선주", "x".repeat(50), "경계" };
+		Path path = directory.resolve("values.bin");
+		try (MappedOutput out = new MappedOutput(path, WINDOW)) {
+			out.putByte(7);
+			for (int i = 0; i < strings.length; i++) {
+				out.putInt(i);
+				out.putString(strings[i]);
+				out.putLong(Long.MAX_VALUE - i);
+				out.putByte(i);
+			}
+			assertEquals(1 + 17 * strings.length + length(strings), out.position());
+		}
+		// close 시 기록한 길이로 truncate
+		assertEquals(1 + 17 * strings.length + length(strings), Files.size(path));
+
+		try (MappedInput in = new MappedInput(path, WINDOW)) {
+			assertEquals(7, in.getByte());
+			for (int i = 0; i < strings.length; i++) {
+				assertEquals(i, in.getInt());
+				assertEquals(strings[i], in.getString());
+				assertEquals(Long.MAX_VALUE - i, in.getLong());
+				assertEquals(i, in.getByte());
+			}
+			assertEquals(in.size(), in.position());
+			assertThrows(EOFException.class, in::getByte);
+		}
+	}
+
+	// 문자열이 window 보다 길어도 (window 여러 개에 걸쳐도) 그대로 읽힌다.
+	@Test
+	void readsStringLongerThanWindow() throws IOException {
+		String value = "가나다라마바사아자차카타파하".repeat(10);
+		Path path = directory.resolve("long.bin");
+		try (MappedOutput out = new MappedOutput(path, WINDOW)) {
+			out.putByte(1);
+			out.putString(value);
+		}
+		try (MappedInput in = new MappedInput(path, WINDOW)) {
+			assertEquals(1, in.getByte());
+			assertEquals(value, in.getString());
+		}
+	}
+
+	// 잘린 파일은 값 중간이나 문자열 길이에서 EOFException 으로 끝난다.
+	@Test
+	void failsOnTruncatedFile() throws IOException {
+		Path path = directory.resolve("truncated.bin");
+		try (MappedOutput out = new MappedOutput(path, WINDOW)) {
+			out.putString("0123456789");
+			out.putLong(42);
+		}
+		byte[] bytes = Files.readAllBytes(path);
+
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+		try (MappedInput in = new MappedInput(path, WINDOW)) {
+			assertEquals("0123456789", in.getString());
+			assertThrows(EOFException.class, in::getLong);
+		}
+
+		Files.write(path, Arrays.copyOf(bytes, 8));
+		try (MappedInput in = new MappedInput(path, WINDOW)) {
+			assertThrows(EOFException.class, in::getString);
+		}
+
+		Files.write(path, new byte[] { -1, -1, -1, -1 });
+		try (MappedInput in = new MappedInput(path, WINDOW)) {
+			assertNull(in.getString());
+		}
+	}
+
+	private static int length(String[] strings) {
+		return Arrays.stream(strings)
+				.mapToInt(value -> value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length)
+				.sum();
+	}
+}
@@ -0,0 +1,94 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.sk.skala.stockapi.data.dto.PlayerStockDto;
+
+// scale 은 전역(static) 설정이므로 바꾼 테스트는 기본값 2 로 되돌린다.
+class MoneyToolTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@AfterEach
+	void tearDown() {
+		MoneyTool.setScale(2);
+	}
+
+	// scale 에 따라 major <-> minor 환산 단위가 바뀐다.
+	@Test
+	void convertsByScale() {
+		assertEquals(10025, MoneyTool.fromDecimal("100.25"));
+		assertEquals(new BigDecimal("100.25"), MoneyTool.toDecimal(10025));
+		assertEquals(700, MoneyTool.ofMajor(7));
+
+		MoneyTool.setScale(0);
+		assertEquals(1, MoneyTool.getFactor());
+		assertEquals(100, MoneyTool.fromDecimal("100"));
+		assertEquals(new BigDecimal("100"), MoneyTool.toDecimal(100));
+
+		MoneyTool.setScale(8);
+		assertEquals(100_000_000, MoneyTool.getFactor());
+		assertEquals(12_345_678_901L, MoneyTool.fromDecimal("123.45678901"));
+		assertEquals(new BigDecimal("123.45678901"), MoneyTool.toDecimal(12_345_678_901L));
+
+		assertThrows(IllegalArgumentException.class, () -> MoneyTool.setScale(-1));
+		assertThrows(IllegalArgumentException.class, () -> MoneyTool.setScale(9));
+		assertEquals(8, MoneyTool.getScale());
+	}
+
+	// scale 보다 작은 단위는 반올림하지 않고 거절한다. (끝의 0 은 허용)
+	@Test
+	void rejectsRounding() {
+		assertEquals(10025, MoneyTool.fromDecimal("100.250"));
+		assertEquals(-10025, MoneyTool.fromDecimal(" -100.25 "));
+		assertEquals(100, MoneyTool.fromDecimal("1E0"));
+		for (String value : new String[] { "100.255", "0.001", "-0.009", "abc", "" }) {
+			assertThrows(IllegalArgumentException.class, () -> MoneyTool.fromDecimal(value), value);
+		}
+
+		MoneyTool.setScale(0);
+		assertThrows(IllegalArgumentException.class, () -> MoneyTool.fromDecimal("1.5"));
+	}
+
+	// long 범위를 넘으면 잘리지 않고 예외
+	@Test
+	void failsOnOverflow() {
+		assertEquals(Long.MAX_VALUE - 1, MoneyTool.multiply((Long.MAX_VALUE - 1) / 2, 2));
+		assertThrows(ArithmeticException.class, () -> MoneyTool.multiply(Long.MAX_VALUE / 2 + 1, 2));
+		assertThrows(ArithmeticException.class, () -> MoneyTool.multiply(Long.MIN_VALUE, -1));
+		assertThrows(ArithmeticException.class, () -> MoneyTool.ofMajor(Long.MAX_VALUE / 100 + 1));
+		assertThrows(IllegalArgumentException.class, () -> MoneyTool.fromDecimal("92233720368547758.08"));
+		assertEquals(Long.MAX_VALUE, MoneyTool.fromDecimal("92233720368547758.07"));
+	}
+
+	// JSON 에서는 소수로 쓰고, 숫자/문자열 소수를 같은 minor unit 으로 읽는다.
+	@Test
+	void roundTripsJson() throws Exception {
+		PlayerStockDto dto = PlayerStockDto.builder().stockId(1L).stockName("A").stockPrice(10020).quantity(3).build();
+		String json = objectMapper.writeValueAsString(dto);
+		assertTrue(json.contains("\"stockPrice\":100.20"), json);
+		assertEquals(10020, objectMapper.readValue(json, PlayerStockDto.class).getStockPrice());
+
+		for (String price : new String[] { "100.2", "\"100.20\"", "100", "1.002E2" }) {
+			assertEquals(MoneyTool.fromDecimal(objectMapper.readTree(price).asText()),
+					objectMapper.readValue("{\"stockPrice\":" + price + "}", PlayerStockDto.class).getStockPrice(),
+					price);
+		}
+		assertEquals(Long.MAX_VALUE, objectMapper.readValue("{\"stockPrice\":" + MoneyTool.toDecimal(Long.MAX_VALUE)
+				+ "}", PlayerStockDto.class).getStockPrice());
+
+		for (String price : new String[] { "100.255", "\"abc\"", "1e30", "true" }) {
+			assertThrows(InvalidFormatException.class,
+					() -> objectMapper.readValue("{\"stockPrice\":" + price + "}", PlayerStockDto.class), price);
+		}
+	}
+}
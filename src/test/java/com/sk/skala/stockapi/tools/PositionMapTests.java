@@ -0,0 +1,119 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PositionMapTests {
+
+	// denseLimit 미만 id 는 배열에 두고, 수량 0 은 항목을 제거한다.
+	@Test
+	void putsAndRemovesInDenseMode() {
+		PositionMap map = new PositionMap(64);
+		map.put(1, 10);
+		map.put(63, 5);
+		assertEquals(10, map.add(1, 0));
+		assertEquals(15, map.add(1, 5));
+		assertEquals(2, map.size());
+
+		map.put(1, 0);
+		assertEquals(1, map.size());
+		assertEquals(0, map.get(1));
+		assertEquals(Map.of(63L, 5), entries(map));
+
+		// 아직 없는 큰 id 의 수량 0 은 hash 로 전환하지 않는다.
+		map.put(1_000, 0);
+		assertEquals(0, map.get(1_000));
+		assertEquals(Map.of(63L, 5), entries(map));
+	}
+
+	// denseLimit 이상 id 가 들어오면 기존 항목을 옮겨 hash 로 전환하고, clear 후에는 다시 dense 로 시작한다.
+	@Test
+	void switchesToHashAtDenseLimit() {
+		PositionMap map = new PositionMap(64);
+		for (long stockId = 1; stockId < 64; stockId++) {
+			map.put(stockId, (int) stockId);
+		}
+		map.put(64, 64);
+
+		assertEquals(64, map.size());
+		Map<Long, Integer> expected = new HashMap<>();
+		for (long stockId = 1; stockId <= 64; stockId++) {
+			expected.put(stockId, (int) stockId);
+			assertEquals(stockId, map.get(stockId));
+		}
+		assertEquals(expected, entries(map));
+
+		map.put(1, 0);
+		assertEquals(0, map.get(1));
+		assertEquals(63, map.size());
+
+		map.clear();
+		assertEquals(0, map.size());
+		map.put(3, 1);
+		map.put(64, 0);
+		assertEquals(Map.of(3L, 1), entries(map));
+	}
+
+	// 항목 수가 늘어 rehash 되어도 모든 항목이 남는다.
+	@Test
+	void resizesHashTable() {
+		PositionMap map = new PositionMap(0);
+		for (long stockId = 1; stockId <= 10_000; stockId++) {
+			map.put(stockId * 1_000_003L, (int) stockId);
+		}
+		assertEquals(10_000, map.size());
+		for (long stockId = 1; stockId <= 10_000; stockId++) {
+			assertEquals(stockId, map.get(stockId * 1_000_003L));
+		}
+		assertEquals(0, map.get(7));
+	}
+
+	// 삭제 후 backward shift 로 probe 체인이 끊기지 않는다. (작은 key 공간에서 충돌이 잦은 무작위 put/remove 를 HashMap 과 비교)
+	@Test
+	void removeKeepsProbeChains() {
+		Random random = new Random(7);
+		for (int round = 0; round < 20; round++) {
+			PositionMap map = new PositionMap(0);
+			Map<Long, Integer> expected = new HashMap<>();
+			for (int i = 0; i < 5_000; i++) {
+				long stockId = 1 + random.nextInt(64);
+				int quantity = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(100);
+				map.put(stockId, quantity);
+				if (quantity == 0) {
+					expected.remove(stockId);
+				} else {
+					expected.put(stockId, quantity);
+				}
+
+				assertEquals(expected.size(), map.size());
+				for (long key = 1; key <= 64; key++) {
+					assertEquals(expected.getOrDefault(key, 0).intValue(), map.get(key), "stockId " + key);
+				}
+			}
+			assertEquals(expected, entries(map));
+		}
+	}
+
+	@Test
+	void rejectsReservedIdAndNegativeQuantity() {
+		PositionMap map = new PositionMap(64);
+		map.put(5, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> map.add(5, -2));
+		assertThrows(ArithmeticException.class, () -> map.add(5, Integer.MAX_VALUE));
+		assertEquals(1, map.get(5));
+	}
+
+	private static Map<Long, Integer> entries(PositionMap map) {
+		Map<Long, Integer> entries = new HashMap<>();
+		map.forEach((stockId, quantity) -> assertEquals(null, entries.put(stockId, quantity)));
+		return entries;
+	}
+}
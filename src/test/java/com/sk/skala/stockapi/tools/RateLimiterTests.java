@@ -0,0 +1,21 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+	// key 가 가득 차도 새 key 는 자기 bucket 을 받는다. (공유 overflow bucket 으로 서로 막지 않음)
+	@Test
+	void newKeysGetOwnBucketWhenFull() {
+		RateLimiter rateLimiter = new RateLimiter(0.001, 1, 10);
+		for (int i = 0; i < 50; i++) {
+			assertEquals(0, rateLimiter.tryAcquire("k" + i), "k" + i);
+			assertTrue(rateLimiter.size() <= 10, "size " + rateLimiter.size());
+		}
+		// 최근에 사용한 key 는 남아 있어 계속 제한된다.
+		assertTrue(rateLimiter.tryAcquire("k49") > 0);
+	}
+}
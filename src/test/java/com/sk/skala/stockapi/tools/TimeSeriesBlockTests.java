@@ -0,0 +1,135 @@
+package com.sk.skala.stockapi.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimeSeriesBlockTests {
+
+	// 일정한 간격, 작은 흔들림, 큰 간격(32 bit)과 모든 크기의 가격 차이(음수 포함)가 그대로 읽힌다.
+	@Test
+	void roundTripsEveryEncodingRange() {
+		long[][] ticks = {
+				{ 1_000_000, 10_000 },
+				{ 1_001_000, 10_000 },      // dod 0, 가격 같음
+				{ 1_002_000, 10_031 },      // dod 0, 6 bit
+				{ 1_003_050, 9_000 },       // 7 bit, 14 bit
+				{ 1_003_900, 9_000 + 8_000 },   // 9 bit
+				{ 1_006_000, 17_000 - 500_000_000 }, // 12 bit, 30 bit
+				{ 1_006_001, Long.MAX_VALUE / 4 },  // 64 bit
+				{ 1_006_001 + 2_000_000_000L, 1 },  // 32 bit
+		};
+		TimeSeriesBlock.Writer writer = TimeSeriesBlock.Writer.start(ticks[0][0], ticks[0][1]);
+		for (int i = 1; i < ticks.length; i++) {
+			assertTrue(writer.append(ticks[i][0], ticks[i][1]), "tick " + i);
+		}
+
+		assertArrayEquals(ticks, read(writer.bytes(), Long.MIN_VALUE, Long.MAX_VALUE).toArray(long[][]::new));
+		assertEquals(ticks.length, writer.count());
+		assertEquals(ticks[0][0], TimeSeriesBlock.firstTimestamp(ByteBuffer.wrap(writer.bytes()), 0));
+		assertEquals(ticks[7][0], TimeSeriesBlock.lastTimestamp(ByteBuffer.wrap(writer.bytes()), 0));
+	}
+
+	// 블록이 가득 차면 false 를 반환하고, 그때까지 기록한 tick 은 모두 읽힌다.
+	@Test
+	void fillsBlockToCapacity() {
+		Random random = new Random(42);
+		List<long[]> expected = new ArrayList<>();
+		long timestamp = 1_000;
+		long price = 50_000;
+		TimeSeriesBlock.Writer writer = TimeSeriesBlock.Writer.start(timestamp, price);
+		expected.add(new long[] { timestamp, price });
+		while (true) {
+			timestamp += 1 + random.nextInt(5_000);
+			price += random.nextInt(20_001) - 10_000;
+			if (!writer.append(timestamp, price)) {
+				break;
+			}
+			expected.add(new long[] { timestamp, price });
+		}
+
+		assertEquals(expected.size(), writer.count());
+		assertTrue(expected.size() > 500, "ticks " + expected.size());
+		assertArrayEquals(expected.toArray(long[][]::new),
+				read(writer.bytes(), Long.MIN_VALUE, Long.MAX_VALUE).toArray(long[][]::new));
+	}
+
+	// 디스크의 작성 중 블록에서 이어서 기록해도 처음부터 한 번에 기록한 것과 같다.
+	@Test
+	void resumesPartialBlock() {
+		TimeSeriesBlock.Writer writer = TimeSeriesBlock.Writer.start(100, 1);
+		writer.append(200, 2);
+		writer.append(310, 3);
+
+		TimeSeriesBlock.Writer resumed = TimeSeriesBlock.Writer.resume(writer.bytes().clone());
+		assertEquals(3, resumed.count());
+		assertEquals(310, resumed.lastTimestamp());
+		resumed.append(420, 5);
+		writer.append(420, 5);
+
+		assertArrayEquals(writer.bytes(), resumed.bytes());
+		assertArrayEquals(new long[][] { { 100, 1 }, { 200, 2 }, { 310, 3 }, { 420, 5 } },
+				read(resumed.bytes(), 0, Long.MAX_VALUE).toArray(long[][]::new));
+	}
+
+	// [from, to] 양 끝 포함, 구간 밖은 건너뛰고 visitor 가 false 를 반환하면 멈춘다.
+	@Test
+	void filtersByRangeAndStopsOnVisitor() {
+		TimeSeriesBlock.Writer writer = TimeSeriesBlock.Writer.start(10, 1);
+		for (int i = 2; i <= 10; i++) {
+			writer.append(i * 10, i);
+		}
+
+		assertArrayEquals(new long[][] { { 30, 3 }, { 40, 4 }, { 50, 5 } },
+				read(writer.bytes(), 30, 50).toArray(long[][]::new));
+		assertArrayEquals(new long[][] { { 30, 3 }, { 40, 4 } },
+				read(writer.bytes(), 25, 49).toArray(long[][]::new));
+		assertEquals(0, read(writer.bytes(), 101, 200).size());
+		assertEquals(0, read(writer.bytes(), 0, 9).size());
+
+		List<Long> visited = new ArrayList<>();
+		assertFalse(TimeSeriesBlock.read(ByteBuffer.wrap(writer.bytes()), 0, 0, 100, (timestamp, price) -> {
+			visited.add(timestamp);
+			return visited.size() < 3;
+		}));
+		assertEquals(List.of(10L, 20L, 30L), visited);
+	}
+
+	// 버퍼 안의 offset 위치 블록만 읽는다. (memory-map 한 여러 블록 구간)
+	@Test
+	void readsBlockAtOffset() {
+		TimeSeriesBlock.Writer first = TimeSeriesBlock.Writer.start(1, 1);
+		first.append(2, 2);
+		TimeSeriesBlock.Writer second = TimeSeriesBlock.Writer.start(3, 3);
+		second.append(5, 4);
+		ByteBuffer buffer = ByteBuffer.allocate(TimeSeriesBlock.BLOCK_SIZE * 2)
+				.put(first.bytes())
+				.put(second.bytes());
+
+		List<long[]> ticks = new ArrayList<>();
+		TimeSeriesBlock.read(buffer, TimeSeriesBlock.BLOCK_SIZE, 0, Long.MAX_VALUE, (timestamp, price) -> {
+			ticks.add(new long[] { timestamp, price });
+			return true;
+		});
+		assertArrayEquals(new long[][] { { 3, 3 }, { 5, 4 } }, ticks.toArray(long[][]::new));
+		assertEquals(3, TimeSeriesBlock.firstTimestamp(buffer, TimeSeriesBlock.BLOCK_SIZE));
+		assertEquals(2, TimeSeriesBlock.count(buffer, TimeSeriesBlock.BLOCK_SIZE));
+	}
+
+	private static List<long[]> read(byte[] block, long from, long to) {
+		List<long[]> ticks = new ArrayList<>();
+		TimeSeriesBlock.read(ByteBuffer.wrap(block), 0, from, to, (timestamp, price) -> {
+			ticks.add(new long[] { timestamp, price });
+			return true;
+		});
+		return ticks;
+	}
+}